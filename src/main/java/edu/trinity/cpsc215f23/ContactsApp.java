@@ -1,8 +1,37 @@
 package edu.trinity.cpsc215f23;
 
+import edu.trinity.cpsc215f23.dedup.DuplicateFinder;
+import edu.trinity.cpsc215f23.export.ContactExporter;
+import edu.trinity.cpsc215f23.export.ExportFormat;
 import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.map.Map;
+import edu.trinity.cpsc215f23.map.SynchronizedMap;
+import edu.trinity.cpsc215f23.server.ContactsHttpServer;
+import edu.trinity.cpsc215f23.server.ContactsNioServer;
+import edu.trinity.cpsc215f23.store.CommunicationsCodec;
+import edu.trinity.cpsc215f23.store.LsmTreeMap;
+import edu.trinity.cpsc215f23.store.OffHeapContactMap;
+import edu.trinity.cpsc215f23.treemap.BPlusTreeMap;
 import edu.trinity.cpsc215f23.treemap.BinarySearchTreeMap;
-
+import edu.trinity.cpsc215f23.treemap.FrontCodedTreeMap;
+import edu.trinity.cpsc215f23.treemap.HashIndexedTreeMap;
+import edu.trinity.cpsc215f23.treemap.PersistentTreeMap;
+import edu.trinity.cpsc215f23.treemap.SplayTreeMap;
+import edu.trinity.cpsc215f23.treemap.StringTreeMap;
+
+import javax.management.JMException;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -17,18 +46,140 @@ public class ContactsApp {
     /**
      * The collection of contacts managed by this application.
      */
-    private final BinarySearchTreeMap<String, HashMap<Communications, String>> contacts = new BinarySearchTreeMap<>();
+    private final Map<String, HashMap<Communications, String>> contacts;
+
+    /**
+     * The pool sharing equal communication handles, or null while interning is disabled. Names are unique keys,
+     * so they are not interned.
+     */
+    private volatile StringInterner interner;
+
+    /**
+     * Creates an application whose contacts are kept in a binary search tree.
+     */
+    public ContactsApp() {
+        this(new StringTreeMap<>());
+    }
 
+    /**
+     * Creates an application whose contacts are kept in the given map.
+     *
+     * @param contacts The map in which contacts are stored
+     */
+    public ContactsApp(Map<String, HashMap<Communications, String>> contacts) {
+        this.contacts = contacts;
+    }
 
     /**
      * The application entry point.
      *
      * @param args The command line arguments. If no argument provided, then the application menu is shown.
      *             If the argument is "-test", then the unit tests are executed and the application exists.
+     *             The argument "-store" followed by a store name selects how contacts are stored, see
+     *             {@link #createStore(String)}. The argument "-serve" followed by a port number runs the
+     *             application as an HTTP service instead of showing the menu; see {@link ContactsHttpServer}.
+     *             The argument "-serve-nio" followed by a port number runs it as a line-based TCP service
+     *             instead; see {@link ContactsNioServer}. The argument "-intern" shares equal communication
+     *             handles between contacts; see {@link #enableInterning()}. The argument "-bloom" answers
+     *             searches for absent names from a Bloom filter; see {@link #enableBloomFilter()}.
      */
     public static void main(String... args) {
-        ContactsApp contactsApp = new ContactsApp();
-        contactsApp.menu();
+        String store = null;
+        String port = null;
+        boolean nio = false;
+        boolean intern = Arrays.asList(args).contains("-intern");
+        boolean bloom = Arrays.asList(args).contains("-bloom");
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals("-store")) {
+                store = args[i + 1];
+            } else if (args[i].equals("-serve")) {
+                port = args[i + 1];
+            } else if (args[i].equals("-serve-nio")) {
+                port = args[i + 1];
+                nio = true;
+            }
+        }
+
+        if (port == null) {
+            ContactsApp contactsApp = new ContactsApp(createStore(store == null ? "bst" : store));
+            contactsApp.enableMetrics();
+            if (intern) {
+                contactsApp.enableInterning();
+            }
+            if (bloom) {
+                contactsApp.enableBloomFilter();
+            }
+            contactsApp.menu();
+            return;
+        }
+
+        Map<String, HashMap<Communications, String>> contacts = createStore(store == null ? "persistent" : store);
+        if (!(contacts instanceof PersistentTreeMap)) {
+            contacts = new SynchronizedMap<>(contacts);
+        }
+        ContactsApp contactsApp = new ContactsApp(contacts);
+        contactsApp.enableMetrics();
+        if (intern) {
+            contactsApp.enableInterning();
+        }
+        if (bloom) {
+            contactsApp.enableBloomFilter();
+        }
+        try {
+            Closeable server;
+            if (nio) {
+                ContactsNioServer nioServer = new ContactsNioServer(contactsApp, Integer.parseInt(port),
+                        Runtime.getRuntime().availableProcessors());
+                nioServer.start();
+                System.out.println("Serving contacts on tcp://localhost:" + nioServer.port());
+                server = nioServer;
+            } else {
+                ContactsHttpServer httpServer = new ContactsHttpServer(contactsApp, Integer.parseInt(port));
+                httpServer.start();
+                System.out.println("Serving contacts on http://localhost:" + httpServer.port() + ContactsHttpServer.PATH);
+                server = httpServer;
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException ex) {
+                    System.out.println("Could not stop the contact service: " + ex.getMessage());
+                }
+                contactsApp.close();
+            }));
+        } catch (IOException | NumberFormatException ex) {
+            System.out.println("Could not start the contact service: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Creates an empty contact store of the given kind.
+     *
+     * @param name One of "bst" (binary search tree), "splay" (splay tree), "indexed" (hash-indexed binary
+     *             search tree), "bplus" (B+ tree), "frontcoded" (front coded blocks of keys), "persistent"
+     *             (persistent binary search tree), "offheap" (off-heap storage) or "lsm" (log-structured merge
+     *             tree in the directory "contacts-lsm")
+     * @return An empty map for contacts
+     * @throws IllegalArgumentException if the name is not a known store
+     */
+    public static Map<String, HashMap<Communications, String>> createStore(String name) throws IllegalArgumentException {
+        return switch (name) {
+            case "bst" -> new StringTreeMap<>();
+            case "splay" -> new SplayTreeMap<>(String::compareTo);
+            case "indexed" -> new HashIndexedTreeMap<>(String::compareTo);
+            case "bplus" -> new BPlusTreeMap<>(String::compareTo);
+            case "frontcoded" -> new FrontCodedTreeMap<>();
+            case "persistent" -> new PersistentTreeMap<>(String::compareTo);
+            case "offheap" -> new OffHeapContactMap();
+            case "lsm" -> {
+                try {
+                    yield new LsmTreeMap<>(Path.of("contacts-lsm"), new CommunicationsCodec());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown store: " + name);
+        };
     }
 
     /**
@@ -53,13 +204,35 @@ public class ContactsApp {
                                 Communications.values()).filter(communication ->
                                 communication.name().startsWith(platformLetter)).findFirst()
                         .orElseThrow(IllegalArgumentException::new);
-                communications.put(com, platformKeyValue[1].trim());
+                communications.put(com, intern(platformKeyValue[1].trim()));
             }
         }
 
         return communications;
     }
 
+    /**
+     * Starts sharing equal communication handles of contacts added from now on, so a directory in which many
+     * contacts have the same website or company handle keeps one copy of each. Names are not interned, since
+     * every contact has a name of its own.
+     */
+    public void enableInterning() {
+        if (interner == null) {
+            interner = new StringInterner();
+        }
+    }
+
+    /**
+     * Returns the shared instance of a communication handle if interning is enabled.
+     *
+     * @param value The string read in
+     * @return An equal string shared between contacts, or the value itself while interning is disabled
+     */
+    public String intern(String value) {
+        StringInterner pool = interner;
+        return pool == null ? value : pool.intern(value);
+    }
+
     /**
      * Present the application menu.
      */
@@ -72,6 +245,10 @@ public class ContactsApp {
         System.out.println("4 - List all information for all contacts");
         System.out.println("5 - List all contact names");
         System.out.println("6 - List all contact communications");
+        System.out.println("8 - Show contact store statistics");
+        System.out.println("9 - Export all contacts to files");
+        System.out.println("10 - Find duplicate contacts");
+        System.out.println("11 - Rename a contact");
         System.out.println("---");
         System.out.println("7 - End this contact manager session.");
 
@@ -104,18 +281,109 @@ public class ContactsApp {
                     removeContact(input);
                     break;
                 case 4:
-                    System.out.println(listAllContacts());
-                    break;
                 case 5:
-                    System.out.println(listAllContactNames());
-                    break;
                 case 6:
-                    System.out.println(listAllContactCommunications());
+                    printList(selection);
                     break;
                 case 7:
+                    close();
                     System.exit(0);
+                    break;
+                case 8:
+                    System.out.println(statistics());
+                    break;
+                case 9:
+                    exportContacts(input);
+                    break;
+                case 10:
+                    findDuplicates(input);
+                    break;
+                case 11:
+                    renameContact(input);
+                    break;
                 default:
-                    System.out.println("Select a menu choice from 1 to 7.");
+                    System.out.println("Select a menu choice from 1 to 11.");
+            }
+        }
+    }
+
+    /**
+     * Starts recording metrics of the contact store, if it is a binary search tree, and publishes them over JMX
+     * as "edu.trinity.cpsc215f23:type=TreeMapMetrics,name=contacts".
+     */
+    public void enableMetrics() {
+        if (store() instanceof BinarySearchTreeMap<?, ?> tree && tree.metrics() == null) {
+            try {
+                tree.enableMetrics().register("contacts");
+            } catch (JMException ex) {
+                System.out.println("Could not publish contact store metrics: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Lets the contact store, if it is a binary search tree, answer searches and removals of names it does not
+     * have from a Bloom filter with a 1% false positive rate, without searching the tree.
+     */
+    public void enableBloomFilter() {
+        if (store() instanceof BinarySearchTreeMap<?, ?> tree) {
+            tree.enableBloomFilter(0.01);
+        }
+    }
+
+    /**
+     * A formatted string for the console with the metrics of the contact store.
+     *
+     * @return The statistics of the contact store
+     */
+    public String statistics() {
+        String header = "\n" + "Contact Store Statistics" + "\n" + "------------------------" + "\n";
+        String interning = interner == null ? "" : interner.toString();
+        if (store() instanceof BinarySearchTreeMap<?, ?> tree && tree.metrics() != null) {
+            return header + tree.metrics() + interning;
+        }
+        return header + String.format("entries: %d%n", contacts.size()) + interning;
+    }
+
+    /**
+     * Returns the map which actually stores the contacts, looking through a synchronizing wrapper.
+     *
+     * @return The underlying contact store
+     */
+    private Map<String, HashMap<Communications, String>> store() {
+        return contacts instanceof SynchronizedMap<String, HashMap<Communications, String>> synchronizedMap
+                ? synchronizedMap.backingMap() : contacts;
+    }
+
+    /**
+     * Streams one of the contact lists to the console.
+     *
+     * @param selection The menu choice: 4 for all information, 5 for names or 6 for communications
+     */
+    private void printList(int selection) {
+        Writer out = newBufferedWriter(System.out);
+        try {
+            switch (selection) {
+                case 4 -> writeAllContacts(out, 0, Integer.MAX_VALUE);
+                case 5 -> writeAllContactNames(out, 0, Integer.MAX_VALUE);
+                default -> writeAllContactCommunications(out, 0, Integer.MAX_VALUE);
+            }
+            out.write(System.lineSeparator());
+            out.flush();
+        } catch (IOException ex) {
+            System.out.println("Could not list contacts: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Releases the contact store, which writes out any contacts a disk-backed store still holds in memory.
+     */
+    public void close() {
+        if (contacts instanceof Closeable closeable) {
+            try {
+                closeable.close();
+            } catch (IOException ex) {
+                System.out.println("Could not save contacts: " + ex.getMessage());
             }
         }
     }
@@ -129,11 +397,60 @@ public class ContactsApp {
     private void searchForContact(Scanner input) {
         System.out.println("Search for contact:");
         String name = promptFullName(input);
-        if (contacts.get(name) == null) {
+        HashMap<Communications, String> coms = contacts.get(name);
+        if (coms == null) {
             System.out.println("No contact entry found for '" + name + "'.");
         }
         else{
-            System.out.println(name + ": " + contacts.get(name));
+            System.out.println(name + ": " + coms);
+        }
+    }
+
+    /**
+     * Prompt user for an export format and directory, and export all contacts there.
+     *
+     * @param input The input console stream
+     */
+    private void exportContacts(Scanner input) {
+        System.out.println("Export contacts:");
+        System.out.print("  Format (csv, json, vcard): ");
+        String formatName = input.nextLine().trim();
+        ExportFormat format;
+        try {
+            format = ExportFormat.valueOf(formatName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            System.out.format("Format '%s' not recognized.%n", formatName);
+            return;
+        }
+        System.out.print("  Directory: ");
+        String directory = input.nextLine().trim();
+
+        try {
+            List<Path> files = new ContactExporter(format).export(contacts, Path.of(directory.isEmpty() ? "." : directory));
+            System.out.format("Exported %d contacts to %d files in '%s'.%n", contacts.size(), files.size(), directory);
+        } catch (IOException | InvalidPathException ex) {
+            System.out.println("Could not export contacts: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Report the clusters of probable duplicate contacts and prompt user whether to merge them.
+     *
+     * @param input The input console stream
+     */
+    private void findDuplicates(Scanner input) {
+        List<List<String>> clusters = new DuplicateFinder().find(contacts);
+        if (clusters.isEmpty()) {
+            System.out.println("No duplicate contacts found.");
+            return;
+        }
+        for (List<String> cluster : clusters) {
+            System.out.println("  " + String.join(" | ", cluster));
+        }
+        System.out.format("Found %d clusters of duplicate contacts.%n", clusters.size());
+        System.out.print("  Merge each cluster into its first contact? (y/n): ");
+        if (input.nextLine().trim().equalsIgnoreCase("y")) {
+            System.out.format("Merged away %d contacts.%n", DuplicateFinder.merge(contacts, clusters));
         }
     }
 
@@ -176,16 +493,74 @@ public class ContactsApp {
     private void removeContact(java.util.Scanner input) {
         System.out.println("Remove contact:");
         String name = promptFullName(input);
-        if (contacts.get(name) == null) {
+        if (contacts.remove(name) == null) {
             System.out.println("No contact entry found for '" + name + "'.");
-            return;
         }
         else{
-            contacts.remove(name);
             System.out.println("Removed contact: " + name);
         }
     }
 
+    /**
+     * Prompt user for the current and new name of a contact and rename it.
+     *
+     * @param input The input console stream
+     */
+    private void renameContact(Scanner input) {
+        System.out.println("Rename contact:");
+        String name = promptFullName(input);
+        System.out.println("  New name:");
+        String newName = promptFullName(input);
+        if (newName.isBlank()) {
+            System.out.println("No new name given for '" + name + "'.");
+        } else if (!renameContact(name, newName)) {
+            System.out.println("No contact entry found for '" + name + "'.");
+        } else {
+            System.out.println("Renamed contact: " + name + " to " + newName);
+        }
+    }
+
+    /**
+     * Moves the communication options of a contact to a new name, replacing any contact of that name. Readers
+     * never see the contact under both names or under neither: a persistent store applies the change as one
+     * transaction, retried if a concurrent writer changes either name first, and any other store is locked for
+     * the change if it is synchronized.
+     *
+     * @param name    The current name of the contact
+     * @param newName The new name of the contact
+     * @return true if the contact was renamed, false if there is no contact of that name
+     */
+    public boolean renameContact(String name, String newName) {
+        if (name.equals(newName)) {
+            return contacts.get(name) != null;
+        }
+        if (contacts instanceof PersistentTreeMap<String, HashMap<Communications, String>> persistent) {
+            for (; ; ) {
+                PersistentTreeMap<String, HashMap<Communications, String>>.Transaction rename = persistent.begin();
+                HashMap<Communications, String> coms = rename.remove(name);
+                if (coms == null) {
+                    rename.rollback();
+                    return false;
+                }
+                rename.put(newName, coms);
+                try {
+                    rename.commit();
+                    return true;
+                } catch (IllegalStateException ex) {
+                    // a concurrent writer changed one of the names; start again from the latest version
+                }
+            }
+        }
+        synchronized (contacts) {
+            HashMap<Communications, String> coms = contacts.remove(name);
+            if (coms == null) {
+                return false;
+            }
+            contacts.put(newName, coms);
+            return true;
+        }
+    }
+
     /**
      * A formatted string for the console containing the list of the contact names in alphabetical order with
      * their associated communication options.
@@ -193,17 +568,13 @@ public class ContactsApp {
      * @return A string containing the list of the contact names in alphabetical order.
      */
     public String listAllContacts() {
-        List<String> elementsAsText = new ArrayList<>(contacts.size());
-
-        for (Entry<String, HashMap<Communications, String>> entry : contacts.entrySet()) {
-            elementsAsText.add(String.format("%s: %s", entry.getKey(), entry.getValue()));
+        StringWriter out = new StringWriter();
+        try {
+            writeAllContacts(out, 0, Integer.MAX_VALUE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
         }
-
-        return "\n" +
-                "All Contacts" + "\n" +
-                "------------" + "\n" +
-                String.join("\n", elementsAsText) +
-                "\n";
+        return out.toString();
     }
 
     /**
@@ -212,19 +583,13 @@ public class ContactsApp {
      * @return A string containing the list of the contact names in alphabetical order.
      */
     public String listAllContactNames() {
-        List<String> names = new ArrayList<>();
-
-        for (String name : contacts.keySet()) {
-            names.add(name);
+        StringWriter out = new StringWriter();
+        try {
+            writeAllContactNames(out, 0, Integer.MAX_VALUE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
         }
-        names.sort(String::compareTo);
-
-        return "\n" +
-                "All Names" + "\n" +
-                "------------" + "\n" +
-                String.join("\n", names) +
-                "\n";
-
+        return out.toString();
     }
 
     /**
@@ -233,18 +598,128 @@ public class ContactsApp {
      * @return A string containing the list of the contact names in alphabetical order.
      */
     public String listAllContactCommunications() {
+        StringWriter out = new StringWriter();
+        try {
+            writeAllContactCommunications(out, 0, Integer.MAX_VALUE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes a page of the list of the contact names in alphabetical order with their associated communication
+     * options, in the format of {@link #listAllContacts()}. Each contact is written as soon as it is visited, so
+     * the memory used does not grow with the number of contacts.
+     *
+     * @param out    The writer to write to; it is not flushed
+     * @param offset The number of contacts to skip
+     * @param limit  The largest number of contacts to write
+     * @throws IOException if the writer fails
+     */
+    public void writeAllContacts(Writer out, int offset, int limit) throws IOException {
+        writeReport(out, "All Contacts", offset, limit, (writer, name, coms) -> {
+            writer.write(name);
+            writer.write(": ");
+            writer.write(String.valueOf(coms));
+        });
+    }
 
-        List<String> comms = new ArrayList<>();
+    /**
+     * Writes a page of the list of the contact names in alphabetical order, in the format of
+     * {@link #listAllContactNames()}.
+     *
+     * @param out    The writer to write to; it is not flushed
+     * @param offset The number of contacts to skip
+     * @param limit  The largest number of contacts to write
+     * @throws IOException if the writer fails
+     */
+    public void writeAllContactNames(Writer out, int offset, int limit) throws IOException {
+        writeReport(out, "All Names", offset, limit, (writer, name, coms) -> writer.write(name));
+    }
+
+    /**
+     * Writes a page of the list of the contact communication options in alphabetical order of the contact names,
+     * in the format of {@link #listAllContactCommunications()}.
+     *
+     * @param out    The writer to write to; it is not flushed
+     * @param offset The number of contacts to skip
+     * @param limit  The largest number of contacts to write
+     * @throws IOException if the writer fails
+     */
+    public void writeAllContactCommunications(Writer out, int offset, int limit) throws IOException {
+        writeReport(out, "All Communications", offset, limit, (writer, name, coms) -> writer.write(String.valueOf(coms)));
+    }
 
-        for (String name : contacts.keySet()) {
-            comms.add(contacts.get(name).toString());
+    /**
+     * Writes a list of contacts in one in-order pass over the store: a title, then one line per contact of the
+     * requested page, each formatted from the name and communication options visited, without looking contacts
+     * up again or collecting them first.
+     *
+     * @param out    The writer to write to; it is not flushed
+     * @param title  The title of the list
+     * @param offset The number of contacts to skip
+     * @param limit  The largest number of contacts to write
+     * @param format Writes the line of one contact
+     * @throws IOException if the writer fails
+     */
+    private void writeReport(Writer out, String title, int offset, int limit, ContactFormat format) throws IOException {
+        out.write('\n');
+        out.write(title);
+        out.write("\n------------\n");
+
+        IOException[] failure = new IOException[1];
+        int[] index = new int[1];
+        int[] written = new int[1];
+        contacts.forEachWhile((name, coms) -> {
+            if (written[0] == limit) {
+                return false;
+            }
+            if (index[0]++ < offset) {
+                return true;
+            }
+            try {
+                if (written[0]++ > 0) {
+                    out.write('\n');
+                }
+                format.write(out, name, coms);
+                return true;
+            } catch (IOException ex) {
+                failure[0] = ex;
+                return false;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
         }
+        out.write('\n');
+    }
+
+    /**
+     * Writes the line of one contact in a list.
+     */
+    @FunctionalInterface
+    private interface ContactFormat {
+        /**
+         * Writes the line of one contact, without the line break.
+         *
+         * @param out  The writer to write to
+         * @param name The name of the contact
+         * @param coms The communication options of the contact
+         * @throws IOException if the writer fails
+         */
+        void write(Writer out, String name, HashMap<Communications, String> coms) throws IOException;
+    }
 
-        return "\n" +
-                "All Communications" + "\n" +
-                "------------" + "\n" +
-                String.join("\n", comms) +
-                "\n";
+    /**
+     * Creates a buffered writer which encodes text into an output stream in the platform charset, for streaming
+     * lists to the console or a file.
+     *
+     * @param out The output stream to write to
+     * @return A buffered writer to the stream
+     */
+    public static Writer newBufferedWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()), 1 << 16);
     }
 
     /**
@@ -259,15 +734,29 @@ public class ContactsApp {
         System.out.print("  Last name: ");
         String lastName = input.nextLine().trim();
 
+        return fullName(firstName, lastName);
+    }
+
+    /**
+     * Formats a contact's first and last name as a contact key.
+     *
+     * @param firstName The first name
+     * @param lastName  The last name
+     * @return The first and last name formatted as 'last, first'. Returns blank if name is invalid.
+     */
+    public static String fullName(String firstName, String lastName) {
+        firstName = firstName == null ? "" : firstName.trim();
+        lastName = lastName == null ? "" : lastName.trim();
+
         return firstName.isEmpty() || lastName.isEmpty() ? "" : lastName + ", " + firstName;
     }
 
     /**
      * It is used to access the Map of contacts
      *
-     * @return It returns the BinarySearchTreeMap of the contacts
+     * @return It returns the Map of the contacts
      */
-    public BinarySearchTreeMap<String, HashMap<Communications, String>> getContacts() {
+    public Map<String, HashMap<Communications, String>> getContacts() {
         return contacts;
     }
 }
@@ -0,0 +1,235 @@
+package edu.trinity.cpsc215f23;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of canonical strings, so equal communication handles read in separately share one String instead of
+ * each holding a copy. The pool only holds its strings weakly: a string no contact refers to any more is dropped
+ * by the garbage collector. Unlike {@link String#intern()}, the pool can be discarded as a whole, and it counts how
+ * much memory it saved.
+ * <p>
+ * Every distinct string costs the pool one WeakReference and a slot of an open addressing table, about 40 bytes,
+ * so the pool pays off for values which repeat, such as websites and company handles, and not for unique ones.
+ * The table is split into stripes by hash code, each guarded by its own lock, so it can be used by the threads of
+ * a server concurrently. References cleared by the garbage collector are purged when a stripe grows.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class StringInterner {
+
+    /**
+     * The number of stripes, a power of two.
+     */
+    private static final int STRIPES = 16;
+
+    /**
+     * The stripes of the table.
+     */
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * The number of strings looked up.
+     */
+    private final LongAdder lookups = new LongAdder();
+
+    /**
+     * The number of strings found in the pool.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The estimated heap bytes of the duplicates replaced by canonical strings.
+     */
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Creates an empty pool.
+     */
+    public StringInterner() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Returns the canonical instance of a string, adding the string to the pool if it has none.
+     *
+     * @param value The string
+     * @return A string equal to the value, the same instance for all equal values; null for null
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        lookups.increment();
+        int hash = value.hashCode();
+        hash ^= hash >>> 16;
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        String canonical;
+        synchronized (stripe) {
+            canonical = stripe.intern(value, hash >>> 4);
+        }
+        if (canonical != value) {
+            hits.increment();
+            bytesSaved.add(retainedSize(value));
+        }
+        return canonical;
+    }
+
+    /**
+     * Estimates the heap bytes of a string and its array on a 64-bit JVM with compressed pointers and compact
+     * strings: a 24 byte String object and an array of 16 header bytes and one byte per Latin-1 character or two
+     * per other character, rounded up to 8 bytes.
+     *
+     * @param value The string
+     * @return The estimated bytes
+     */
+    static long retainedSize(String value) {
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) < 256;
+        }
+        long array = 16 + (long) value.length() * (latin1 ? 1 : 2);
+        return 24 + (array + 7 & ~7L);
+    }
+
+    /**
+     * One part of the table: weak references to the canonical strings in linear probing order.
+     */
+    private static class Stripe {
+        /**
+         * The references, or null for empty slots; a cleared reference is a slot which may be reused.
+         */
+        private WeakReference<String>[] slots = newSlots(16);
+
+        /**
+         * The number of slots holding a reference, cleared or not.
+         */
+        private int used;
+
+        /**
+         * Allocates an empty array of slots.
+         *
+         * @param capacity The number of slots, a power of two
+         * @return The slots
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static WeakReference<String>[] newSlots(int capacity) {
+            return new WeakReference[capacity];
+        }
+
+        /**
+         * Returns the canonical instance of a string, adding it if it has none.
+         *
+         * @param value The string
+         * @param hash  The spread hash code of the string
+         * @return The canonical instance
+         */
+        String intern(String value, int hash) {
+            int mask = slots.length - 1;
+            int reusable = -1;
+            int i = hash & mask;
+            for (WeakReference<String> reference; (reference = slots[i]) != null; i = (i + 1) & mask) {
+                String candidate = reference.get();
+                if (candidate == null) {
+                    if (reusable < 0) {
+                        reusable = i;
+                    }
+                } else if (candidate.hashCode() == value.hashCode() && candidate.equals(value)) {
+                    return candidate;
+                }
+            }
+            if (reusable >= 0) {
+                slots[reusable] = new WeakReference<>(value);
+                return value;
+            }
+            slots[i] = new WeakReference<>(value);
+            if (3 * ++used > 2 * slots.length) {
+                resize();
+            }
+            return value;
+        }
+
+        /**
+         * Copies the live references into a table sized for them, dropping the cleared ones.
+         */
+        private void resize() {
+            int live = live();
+            int capacity = 16;
+            while (3 * live > capacity) {
+                capacity <<= 1;
+            }
+            WeakReference<String>[] old = slots;
+            slots = newSlots(capacity);
+            used = 0;
+            int mask = capacity - 1;
+            for (WeakReference<String> reference : old) {
+                String value = reference == null ? null : reference.get();
+                if (value != null) {
+                    int hash = value.hashCode();
+                    hash ^= hash >>> 16;
+                    int i = (hash >>> 4) & mask;
+                    while (slots[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    slots[i] = reference;
+                    used++;
+                }
+            }
+        }
+
+        /**
+         * Counts the references which are not cleared.
+         *
+         * @return The number of canonical strings in the stripe
+         */
+        int live() {
+            int live = 0;
+            for (WeakReference<String> reference : slots) {
+                if (reference != null && reference.get() != null) {
+                    live++;
+                }
+            }
+            return live;
+        }
+    }
+
+    /**
+     * Returns the number of distinct strings currently in the pool.
+     *
+     * @return the number of canonical strings
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.live();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the estimated heap bytes of the duplicates which were replaced by canonical strings.
+     *
+     * @return the bytes saved
+     */
+    public long bytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * A report of the pool for the console.
+     *
+     * @return The lookups, hits, pool size and bytes saved
+     */
+    @Override
+    public String toString() {
+        long lookupCount = lookups.sum();
+        long hitCount = hits.sum();
+        return String.format("interned strings: %d lookups, %d duplicates (%.1f%%), %d distinct, %d bytes saved%n",
+                lookupCount, hitCount, lookupCount == 0 ? 0.0 : 100.0 * hitCount / lookupCount, size(), bytesSaved());
+    }
+}
@@ -0,0 +1,515 @@
+package edu.trinity.cpsc215f23.dedup;
+
+import edu.trinity.cpsc215f23.Communications;
+import edu.trinity.cpsc215f23.map.Map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Finds clusters of contacts which are probably the same person, such as "Muir, John" and "Muir, Jon" sharing an
+ * email address. Rather than comparing every pair of contacts, the finder groups the contacts into blocks by key:
+ * one key for the normalized surname and first initial, and one for every normalized communication handle. Only
+ * contacts sharing a block are scored against each other, the blocks are scored in parallel, and pairs scoring at
+ * least the threshold are joined into clusters with a union-find. A block larger than the block limit, such as a
+ * common surname or a shared office number, is sorted by name and each contact is only scored against its next
+ * few neighbours, so the work stays near linear in the number of contacts.
+ * <p>
+ * Names alone score 0.9 times their similarity; with the default threshold they only match when they are equal
+ * after normalization. Shared handles are evidence that moves the score towards 0.5 plus half the similarity of
+ * the names. A handle held by only the two contacts is full evidence, a handle held by f contacts counts 1 / (f -
+ * 1), and a website, often shared by a whole company, counts half as much. Every communication option both
+ * contacts have with different values subtracts 0.1, whatever else they share.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class DuplicateFinder {
+
+    /**
+     * The default score at which two contacts are considered duplicates.
+     */
+    public static final double DEFAULT_THRESHOLD = 0.9;
+
+    /**
+     * The default largest block whose pairs are all scored.
+     */
+    public static final int DEFAULT_MAX_BLOCK_SIZE = 256;
+
+    /**
+     * The number of following contacts each contact of an oversized block is scored against, in name order.
+     */
+    static final int NEIGHBOURHOOD = 8;
+
+    /**
+     * The number of scoring tasks per thread, so that uneven blocks still keep every thread busy.
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
+    /**
+     * The score at which two contacts are considered duplicates.
+     */
+    private final double threshold;
+
+    /**
+     * The largest block whose pairs are all scored.
+     */
+    private final int maxBlockSize;
+
+    /**
+     * The number of threads scoring pairs.
+     */
+    private final int parallelism;
+
+    /**
+     * Creates a finder with the default threshold and block limit, using one thread per available processor.
+     */
+    public DuplicateFinder() {
+        this(DEFAULT_THRESHOLD, DEFAULT_MAX_BLOCK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a finder.
+     *
+     * @param threshold    The score between 0 and 1 at which two contacts are considered duplicates
+     * @param maxBlockSize The largest block whose pairs are all scored, at least 2; larger blocks are scored by name
+     *                     neighbourhood
+     * @param parallelism  The number of threads scoring pairs, at least 1
+     */
+    public DuplicateFinder(double threshold, int maxBlockSize, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("At least one thread is required.");
+        }
+        if (maxBlockSize < 2) {
+            throw new IllegalArgumentException("Blocks must hold at least two contacts.");
+        }
+        this.threshold = threshold;
+        this.maxBlockSize = maxBlockSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Finds the clusters of duplicate contacts.
+     *
+     * @param contacts The contacts to search
+     * @return The clusters of two or more names, each sorted, in the order of their first names
+     * @throws IllegalStateException if the scoring is interrupted or fails
+     */
+    public List<List<String>> find(Map<String, HashMap<Communications, String>> contacts)
+            throws IllegalStateException {
+        List<String> names = new ArrayList<>(contacts.size());
+        List<HashMap<Communications, String>> communications = new ArrayList<>(contacts.size());
+        contacts.forEach((name, coms) -> {
+            names.add(name);
+            communications.add(coms);
+        });
+
+        String[] normalizedNames = new String[names.size()];
+        HashMap<String, IntList> blocks = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            normalizedNames[i] = normalizeName(names.get(i));
+            blocks.computeIfAbsent("n:" + nameKey(normalizedNames[i]), key -> new IntList()).add(i);
+            HashMap<Communications, String> coms = communications.get(i);
+            if (coms != null) {
+                for (java.util.Map.Entry<Communications, String> com : coms.entrySet()) {
+                    String handle = normalizeHandle(com.getKey(), com.getValue());
+                    if (!handle.isEmpty()) {
+                        blocks.computeIfAbsent(com.getKey().ordinal() + ":" + handle, key -> new IntList()).add(i);
+                    }
+                }
+            }
+        }
+
+        List<IntList> candidates = new ArrayList<>();
+        for (IntList block : blocks.values()) {
+            if (block.size >= 2) {
+                candidates.add(block);
+            }
+        }
+
+        UnionFind clusters = new UnionFind(names.size());
+        for (IntList matches : scoreBlocks(candidates, normalizedNames, communications, blocks)) {
+            for (int k = 0; k < matches.size; k += 2) {
+                clusters.union(matches.values[k], matches.values[k + 1]);
+            }
+        }
+
+        HashMap<Integer, List<String>> groups = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            if (clusters.find(i) != i || clusters.size[i] > 1) {
+                groups.computeIfAbsent(clusters.find(i), root -> new ArrayList<>()).add(names.get(i));
+            }
+        }
+        List<List<String>> result = new ArrayList<>(groups.values());
+        for (List<String> group : result) {
+            group.sort(Comparator.naturalOrder());
+        }
+        result.sort(Comparator.comparing(group -> group.get(0)));
+        return result;
+    }
+
+    /**
+     * Scores the pairs of every block on a thread pool.
+     *
+     * @param candidates      The blocks to score
+     * @param normalizedNames The normalized name of every contact
+     * @param communications  The communication options of every contact
+     * @param blocks          The blocks by key, which give the number of contacts holding each handle
+     * @return For every task, the matching pairs as consecutive contact numbers
+     * @throws IllegalStateException if the scoring is interrupted or fails
+     */
+    private List<IntList> scoreBlocks(List<IntList> candidates, String[] normalizedNames,
+                                      List<HashMap<Communications, String>> communications,
+                                      HashMap<String, IntList> blocks) throws IllegalStateException {
+        if (parallelism == 1 || candidates.size() < 2) {
+            return List.of(scoreRange(candidates, 0, candidates.size(), normalizedNames, communications, blocks));
+        }
+
+        int tasks = Math.min(candidates.size(), parallelism * TASKS_PER_THREAD);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<IntList>> futures = new ArrayList<>(tasks);
+            for (int t = 0; t < tasks; t++) {
+                int from = (int) ((long) candidates.size() * t / tasks);
+                int to = (int) ((long) candidates.size() * (t + 1) / tasks);
+                futures.add(executor.submit(
+                        () -> scoreRange(candidates, from, to, normalizedNames, communications, blocks)));
+            }
+            List<IntList> matches = new ArrayList<>(tasks);
+            for (Future<IntList> future : futures) {
+                matches.add(future.get());
+            }
+            return matches;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Duplicate search interrupted.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Duplicate search failed.", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Scores the pairs of a range of blocks. The pairs of a block within the block limit are all scored; an
+     * oversized block is sorted by name and each contact is scored against the next contacts in its neighbourhood.
+     *
+     * @param candidates      The blocks to score
+     * @param from            The first block of the range
+     * @param to              The block after the range
+     * @param normalizedNames The normalized name of every contact
+     * @param communications  The communication options of every contact
+     * @param blocks          The blocks by key, which give the number of contacts holding each handle
+     * @return The matching pairs as consecutive contact numbers
+     */
+    private IntList scoreRange(List<IntList> candidates, int from, int to, String[] normalizedNames,
+                               List<HashMap<Communications, String>> communications,
+                               HashMap<String, IntList> blocks) {
+        IntList matches = new IntList();
+        for (int b = from; b < to; b++) {
+            IntList block = candidates.get(b);
+            int[] members = block.values;
+            int window = block.size;
+            if (block.size > maxBlockSize) {
+                members = Arrays.stream(block.values, 0, block.size).boxed()
+                        .sorted(Comparator.comparing(i -> normalizedNames[i]))
+                        .mapToInt(Integer::intValue).toArray();
+                window = NEIGHBOURHOOD;
+            }
+            for (int x = 0; x < block.size; x++) {
+                int i = members[x];
+                int end = (int) Math.min(block.size, (long) x + 1 + window);
+                for (int y = x + 1; y < end; y++) {
+                    int j = members[y];
+                    if (score(normalizedNames[i], communications.get(i), normalizedNames[j], communications.get(j),
+                            blocks) >= threshold) {
+                        matches.add(i);
+                        matches.add(j);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Scores how likely two contacts are the same person.
+     *
+     * @param name1 The normalized name of the first contact
+     * @param coms1 The communication options of the first contact
+     * @param name2 The normalized name of the second contact
+     * @param coms2  The communication options of the second contact
+     * @param blocks The blocks by key, which give the number of contacts holding each handle
+     * @return The score, at most 1
+     */
+    static double score(String name1, HashMap<Communications, String> coms1,
+                        String name2, HashMap<Communications, String> coms2, HashMap<String, IntList> blocks) {
+        double evidence = 0;
+        int conflicting = 0;
+        if (coms1 != null && coms2 != null) {
+            for (java.util.Map.Entry<Communications, String> com : coms1.entrySet()) {
+                String other = coms2.get(com.getKey());
+                if (other != null) {
+                    String handle = normalizeHandle(com.getKey(), com.getValue());
+                    if (!handle.isEmpty() && handle.equals(normalizeHandle(com.getKey(), other))) {
+                        IntList holders = blocks.get(com.getKey().ordinal() + ":" + handle);
+                        int frequency = holders == null ? 2 : Math.max(2, holders.size);
+                        evidence += (com.getKey() == Communications.WEBSITE ? 0.5 : 1.0) / (frequency - 1);
+                    } else {
+                        conflicting++;
+                    }
+                }
+            }
+        }
+        evidence = Math.min(1, evidence);
+        double similarity = similarity(name1, name2);
+        return evidence * (0.5 + 0.5 * similarity) + (1 - evidence) * 0.9 * similarity - 0.1 * conflicting;
+    }
+
+    /**
+     * Returns the Jaro-Winkler similarity of two strings.
+     *
+     * @param a The first string
+     * @param b The second string
+     * @return The similarity, from 0 for nothing in common to 1 for equal strings
+     */
+    static double similarity(String a, String b) {
+        if (a.equals(b)) {
+            return 1;
+        }
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int end = Math.min(b.length(), i + window + 1);
+            for (int j = Math.max(0, i - window); j < end; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0;
+        }
+
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (matchedA[i]) {
+                while (!matchedB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j++)) {
+                    transpositions++;
+                }
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+
+        int prefix = 0;
+        while (prefix < 4 && prefix < a.length() && prefix < b.length() && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+
+    /**
+     * Normalizes a name of the form "last, first" to lower case letters and single spaces.
+     *
+     * @param name The name
+     * @return The normalized name
+     */
+    static String normalizeName(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetter(c)) {
+                sb.append(Character.toLowerCase(c));
+            } else if ((c == ',' || Character.isWhitespace(c)) && !sb.isEmpty() && sb.charAt(sb.length() - 1) != ' ') {
+                sb.append(' ');
+            }
+        }
+        int end = sb.length();
+        while (end > 0 && sb.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return sb.substring(0, end);
+    }
+
+    /**
+     * Returns the blocking key of a normalized name: the surname and the first initial.
+     *
+     * @param normalizedName The normalized name
+     * @return The key
+     */
+    private static String nameKey(String normalizedName) {
+        int space = normalizedName.indexOf(' ');
+        return space < 0 || space + 1 == normalizedName.length()
+                ? normalizedName : normalizedName.substring(0, space + 2);
+    }
+
+    /**
+     * Normalizes a communication handle: phone numbers to their digits, websites without scheme, "www." or a
+     * trailing slash, and everything else to lower case without surrounding spaces or a leading "@".
+     *
+     * @param type  The communication option
+     * @param value The handle
+     * @return The normalized handle, empty if there is nothing to compare
+     */
+    static String normalizeHandle(Communications type, String value) {
+        if (value == null) {
+            return "";
+        }
+        String handle = value.trim().toLowerCase(Locale.ROOT);
+        switch (type) {
+            case MOBILE -> {
+                StringBuilder digits = new StringBuilder(handle.length());
+                for (int i = 0; i < handle.length(); i++) {
+                    if (Character.isDigit(handle.charAt(i))) {
+                        digits.append(handle.charAt(i));
+                    }
+                }
+                return digits.toString();
+            }
+            case WEBSITE -> {
+                handle = handle.replaceFirst("^https?://", "").replaceFirst("^www\\.", "");
+                return handle.endsWith("/") ? handle.substring(0, handle.length() - 1) : handle;
+            }
+            default -> {
+                return handle.startsWith("@") ? handle.substring(1) : handle;
+            }
+        }
+    }
+
+    /**
+     * Merges every cluster into the contact with its first name: the options of the other contacts are added where
+     * the first contact has none, and the other contacts are removed.
+     *
+     * @param contacts The contacts
+     * @param clusters The clusters to merge, as returned by find
+     * @return The number of contacts removed
+     */
+    public static int merge(Map<String, HashMap<Communications, String>> contacts, List<List<String>> clusters) {
+        int removed = 0;
+        for (List<String> cluster : clusters) {
+            String survivor = cluster.get(0);
+            HashMap<Communications, String> first = contacts.get(survivor);
+            HashMap<Communications, String> merged = first == null ? new HashMap<>() : new HashMap<>(first);
+            for (String name : cluster.subList(1, cluster.size())) {
+                HashMap<Communications, String> coms = contacts.remove(name);
+                if (coms != null) {
+                    coms.forEach(merged::putIfAbsent);
+                    removed++;
+                }
+            }
+            contacts.put(survivor, merged);
+        }
+        return removed;
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    private static class IntList {
+        /**
+         * The elements, followed by unused room.
+         */
+        int[] values = new int[4];
+
+        /**
+         * The number of elements.
+         */
+        int size;
+
+        /**
+         * Appends an element.
+         *
+         * @param value The element
+         */
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Disjoint sets of contact numbers, joined by size with path halving.
+     */
+    private static class UnionFind {
+        /**
+         * The parent of every element; a root is its own parent.
+         */
+        final int[] parent;
+
+        /**
+         * The number of elements in the set of every root.
+         */
+        final int[] size;
+
+        /**
+         * Creates sets of one element each.
+         *
+         * @param count The number of elements
+         */
+        UnionFind(int count) {
+            parent = new int[count];
+            size = new int[count];
+            for (int i = 0; i < count; i++) {
+                parent[i] = i;
+                size[i] = 1;
+            }
+        }
+
+        /**
+         * Returns the root of the set of an element.
+         *
+         * @param i The element
+         * @return The root of its set
+         */
+        int find(int i) {
+            while (parent[i] != i) {
+                parent[i] = parent[parent[i]];
+                i = parent[i];
+            }
+            return i;
+        }
+
+        /**
+         * Joins the sets of two elements.
+         *
+         * @param i The first element
+         * @param j The second element
+         */
+        void union(int i, int j) {
+            int a = find(i);
+            int b = find(j);
+            if (a == b) {
+                return;
+            }
+            if (size[a] < size[b]) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            parent[b] = a;
+            size[a] += size[b];
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package edu.trinity.cpsc215f23.export;
+
+import edu.trinity.cpsc215f23.Communications;
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.map.Map;
+import edu.trinity.cpsc215f23.map.SynchronizedMap;
+import edu.trinity.cpsc215f23.treemap.BinarySearchTreeMap;
+import edu.trinity.cpsc215f23.tree.Position;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Exports all contacts to files in parallel. A contact store kept in a {@link BinarySearchTreeMap} is cut into
+ * ranges of consecutive names by subtree, and every range is written to its own file by its own task, so the
+ * export scales with the number of cores. The files are numbered in name order: "contacts-0000.csv" holds the
+ * first names, and concatenating the files in order gives the whole directory. Other stores are exported to a
+ * single file. Numbered files of the same format left in the directory by an earlier export are deleted first,
+ * so they are never mistaken for part of this one.
+ * <p>
+ * The store must not change during the export. If it is a {@link SynchronizedMap}, its lock is held throughout.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class ContactExporter {
+
+    /**
+     * The size of the buffer of each file writer, in characters.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The number of ranges per thread, so that uneven ranges still keep every thread busy.
+     */
+    private static final int RANGES_PER_THREAD = 4;
+
+    /**
+     * The format of the files.
+     */
+    private final ExportFormat format;
+
+    /**
+     * The number of threads writing files.
+     */
+    private final int parallelism;
+
+    /**
+     * Creates an exporter writing with one thread per available processor.
+     *
+     * @param format The format of the files
+     */
+    public ContactExporter(ExportFormat format) {
+        this(format, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an exporter.
+     *
+     * @param format      The format of the files
+     * @param parallelism The number of threads writing files, at least 1
+     */
+    public ContactExporter(ExportFormat format, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("At least one thread is required.");
+        }
+        this.format = format;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Exports all contacts into files in a directory, which is created if needed. Numbered files of this format
+     * from an earlier export are deleted first.
+     *
+     * @param contacts  The contacts to export
+     * @param directory The directory to write the files to
+     * @return The files written, in name order
+     * @throws IOException if a file cannot be written
+     */
+    public List<Path> export(Map<String, HashMap<Communications, String>> contacts, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        deleteExport(directory);
+        if (contacts instanceof SynchronizedMap<String, HashMap<Communications, String>> synchronizedMap) {
+            synchronized (synchronizedMap) {
+                return exportStore(synchronizedMap.backingMap(), directory);
+            }
+        }
+        return exportStore(contacts, directory);
+    }
+
+    /**
+     * Exports the contacts of an unsynchronized store.
+     *
+     * @param store     The contacts to export
+     * @param directory The directory to write the files to
+     * @return The files written, in name order
+     * @throws IOException if a file cannot be written
+     */
+    private List<Path> exportStore(Map<String, HashMap<Communications, String>> store, Path directory)
+            throws IOException {
+        if (!(store instanceof BinarySearchTreeMap<String, HashMap<Communications, String>> tree) || parallelism == 1) {
+            Path file = file(directory, 0);
+            try (Writer out = open(file)) {
+                format.begin(out);
+                writeAll(out, store);
+                format.end(out);
+            }
+            return List.of(file);
+        }
+
+        int depth = 32 - Integer.numberOfLeadingZeros(parallelism * RANGES_PER_THREAD - 1);
+        List<Position<Entry<String, HashMap<Communications, String>>>> parts = tree.partition(depth);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<Path>> files = new ArrayList<>();
+            for (int i = 0; i < parts.size(); i += 2) {
+                Position<Entry<String, HashMap<Communications, String>>> subtree = parts.get(i);
+                Position<Entry<String, HashMap<Communications, String>>> separator =
+                        i + 1 < parts.size() ? parts.get(i + 1) : null;
+                Path file = file(directory, i / 2);
+                files.add(executor.submit(() -> writeRange(file, tree, subtree, separator)));
+            }
+
+            List<Path> written = new ArrayList<>(files.size());
+            for (Future<Path> file : files) {
+                written.add(file.get());
+            }
+            return written;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted.", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            throw new IOException(ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes one range of a tree to a file: the entries of a subtree followed by the entry separating it from the
+     * next subtree.
+     *
+     * @param file      The file to write
+     * @param tree      The tree
+     * @param subtree   The root of the subtree
+     * @param separator The entry following the subtree, or null for the last range
+     * @return The file written
+     */
+    private Path writeRange(Path file, BinarySearchTreeMap<String, HashMap<Communications, String>> tree,
+                            Position<Entry<String, HashMap<Communications, String>>> subtree,
+                            Position<Entry<String, HashMap<Communications, String>>> separator) {
+        try (Writer out = open(file)) {
+            format.begin(out);
+            boolean[] first = {true};
+            IOException[] failure = new IOException[1];
+            tree.forEachInSubtree(subtree, (name, coms) -> {
+                try {
+                    format.write(out, name, coms, first[0]);
+                    first[0] = false;
+                    return true;
+                } catch (IOException ex) {
+                    failure[0] = ex;
+                    return false;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            if (separator != null) {
+                Entry<String, HashMap<Communications, String>> entry = separator.getElement();
+                format.write(out, entry.getKey(), entry.getValue(), first[0]);
+            }
+            format.end(out);
+            return file;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Writes every contact of a store in order.
+     *
+     * @param out   The writer of the file
+     * @param store The contacts to write
+     * @throws IOException if the writer fails
+     */
+    private void writeAll(Writer out, Map<String, HashMap<Communications, String>> store) throws IOException {
+        boolean first = true;
+        for (Entry<String, HashMap<Communications, String>> entry : store.entrySet()) {
+            format.write(out, entry.getKey(), entry.getValue(), first);
+            first = false;
+        }
+    }
+
+    /**
+     * Deletes the numbered files of this format in a directory.
+     *
+     * @param directory The directory of the export
+     * @throws IOException if the directory cannot be read or a file cannot be deleted
+     */
+    private void deleteExport(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                "contacts-[0-9][0-9][0-9][0-9]." + format.extension)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Returns the path of a numbered export file.
+     *
+     * @param directory The directory of the export
+     * @param number    The number of the file
+     * @return The path of the file
+     */
+    private Path file(Path directory, int number) {
+        return directory.resolve(String.format("contacts-%04d.%s", number, format.extension));
+    }
+
+    /**
+     * Opens a buffered UTF-8 writer over a file channel, replacing any existing file.
+     *
+     * @param file The file to write
+     * @return The writer
+     * @throws IOException if the file cannot be opened
+     */
+    private static Writer open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
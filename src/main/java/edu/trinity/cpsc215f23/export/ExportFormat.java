@@ -0,0 +1,242 @@
+package edu.trinity.cpsc215f23.export;
+
+import edu.trinity.cpsc215f23.Communications;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * The file formats contacts can be exported to. Each format writes a contact field by field straight to a
+ * writer, without building the text of the contact first.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public enum ExportFormat {
+    /**
+     * Comma separated values with a header row and one column per communication option.
+     */
+    CSV("csv") {
+        @Override
+        void begin(Writer out) throws IOException {
+            out.write("name");
+            for (Communications com : COMMUNICATIONS) {
+                out.write(',');
+                out.write(com.name().toLowerCase(Locale.ROOT));
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        void write(Writer out, String name, HashMap<Communications, String> coms, boolean first) throws IOException {
+            writeCsvField(out, name);
+            for (Communications com : COMMUNICATIONS) {
+                out.write(',');
+                String value = coms == null ? null : coms.get(com);
+                if (value != null) {
+                    writeCsvField(out, value);
+                }
+            }
+            out.write("\r\n");
+        }
+    },
+
+    /**
+     * A JSON array with one object per contact, holding its name and communication options.
+     */
+    JSON("json") {
+        @Override
+        void begin(Writer out) throws IOException {
+            out.write('[');
+        }
+
+        @Override
+        void write(Writer out, String name, HashMap<Communications, String> coms, boolean first) throws IOException {
+            out.write(first ? "\n" : ",\n");
+            out.write("  {\"name\": ");
+            writeJsonString(out, name);
+            if (coms != null) {
+                for (Communications com : COMMUNICATIONS) {
+                    String value = coms.get(com);
+                    if (value != null) {
+                        out.write(", \"");
+                        out.write(com.name().toLowerCase(Locale.ROOT));
+                        out.write("\": ");
+                        writeJsonString(out, value);
+                    }
+                }
+            }
+            out.write('}');
+        }
+
+        @Override
+        void end(Writer out) throws IOException {
+            out.write("\n]\n");
+        }
+    },
+
+    /**
+     * vCard 3.0 cards, one per contact. Names of the form "last, first" become the structured name.
+     */
+    VCARD("vcf") {
+        @Override
+        void write(Writer out, String name, HashMap<Communications, String> coms, boolean first) throws IOException {
+            int comma = name.indexOf(", ");
+            String last = comma < 0 ? name : name.substring(0, comma);
+            String given = comma < 0 ? "" : name.substring(comma + 2);
+            out.write("BEGIN:VCARD\r\nVERSION:3.0\r\nN:");
+            writeVCardText(out, last);
+            out.write(';');
+            writeVCardText(out, given);
+            out.write(";;;\r\nFN:");
+            writeVCardText(out, given.isEmpty() ? last : given + " " + last);
+            out.write("\r\n");
+            if (coms != null) {
+                for (Communications com : COMMUNICATIONS) {
+                    String value = coms.get(com);
+                    if (value != null) {
+                        out.write(switch (com) {
+                            case EMAIL -> "EMAIL;TYPE=INTERNET:";
+                            case MOBILE -> "TEL;TYPE=CELL:";
+                            case WEBSITE -> "URL:";
+                            default -> "X-SOCIALPROFILE;TYPE=" + com.name().toLowerCase(Locale.ROOT) + ":";
+                        });
+                        writeVCardText(out, value);
+                        out.write("\r\n");
+                    }
+                }
+            }
+            out.write("END:VCARD\r\n");
+        }
+    };
+
+    /**
+     * The communication options in the order they are written.
+     */
+    private static final Communications[] COMMUNICATIONS = Communications.values();
+
+    /**
+     * The file name extension of the format.
+     */
+    public final String extension;
+
+    /**
+     * Creates a format.
+     *
+     * @param extension The file name extension of the format
+     */
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Writes what precedes the first contact of a file.
+     *
+     * @param out The writer of the file
+     * @throws IOException if the writer fails
+     */
+    void begin(Writer out) throws IOException {
+    }
+
+    /**
+     * Writes one contact.
+     *
+     * @param out   The writer of the file
+     * @param name  The name of the contact
+     * @param coms  The communication options of the contact
+     * @param first Whether this is the first contact of the file
+     * @throws IOException if the writer fails
+     */
+    abstract void write(Writer out, String name, HashMap<Communications, String> coms, boolean first) throws IOException;
+
+    /**
+     * Writes what follows the last contact of a file.
+     *
+     * @param out The writer of the file
+     * @throws IOException if the writer fails
+     */
+    void end(Writer out) throws IOException {
+    }
+
+    /**
+     * Writes a CSV field, quoting it if it contains a separator, quote or line break.
+     *
+     * @param out   The writer to write to
+     * @param value The field
+     * @throws IOException if the writer fails
+     */
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    /**
+     * Writes a JSON string literal.
+     *
+     * @param out   The writer to write to
+     * @param value The string
+     * @throws IOException if the writer fails
+     */
+    private static void writeJsonString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    /**
+     * Writes a vCard text value, escaping separators and line breaks.
+     *
+     * @param out   The writer to write to
+     * @param value The text
+     * @throws IOException if the writer fails
+     */
+    private static void writeVCardText(Writer out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\', ',', ';' -> {
+                    out.write('\\');
+                    out.write(c);
+                }
+                case '\n' -> out.write("\\n");
+                case '\r' -> {
+                }
+                default -> out.write(c);
+            }
+        }
+    }
+}
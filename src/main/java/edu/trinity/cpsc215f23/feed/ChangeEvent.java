@@ -0,0 +1,80 @@
+package edu.trinity.cpsc215f23.feed;
+
+/**
+ * One change of a map, as published in a {@link ChangeFeed}.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public final class ChangeEvent<K, V> {
+
+    /**
+     * The kinds of change.
+     */
+    public enum Type {
+        /**
+         * A new entry was added.
+         */
+        INSERT,
+        /**
+         * The value of an existing entry was replaced.
+         */
+        REPLACE,
+        /**
+         * An entry was removed.
+         */
+        REMOVE
+    }
+
+    /**
+     * The position of the event in the feed; events are numbered from 0 without gaps.
+     */
+    public final long sequence;
+
+    /**
+     * The kind of change.
+     */
+    public final Type type;
+
+    /**
+     * The key of the changed entry.
+     */
+    public final K key;
+
+    /**
+     * The value before the change, or null for an insert.
+     */
+    public final V oldValue;
+
+    /**
+     * The value after the change, or null for a removal.
+     */
+    public final V newValue;
+
+    /**
+     * Creates an event.
+     *
+     * @param sequence The position of the event in the feed
+     * @param type     The kind of change
+     * @param key      The key of the changed entry
+     * @param oldValue The value before the change
+     * @param newValue The value after the change
+     */
+    ChangeEvent(long sequence, Type type, K key, V oldValue, V newValue) {
+        this.sequence = sequence;
+        this.type = type;
+        this.key = key;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    /**
+     * Returns a description of the event.
+     *
+     * @return a description of the event
+     */
+    @Override
+    public String toString() {
+        return String.format("#%d %s %s: %s -> %s", sequence, type, key, oldValue, newValue);
+    }
+}
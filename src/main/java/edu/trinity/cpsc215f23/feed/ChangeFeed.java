@@ -0,0 +1,153 @@
+package edu.trinity.cpsc215f23.feed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An ordered feed of the changes of a map, so that caches can follow the map without reading it again. Every
+ * change gets the next sequence number and is stored in a ring buffer holding the most recent events. Publishing
+ * takes no lock: it claims a sequence number with one atomic increment and stores the event with an ordered
+ * write, so it costs writers one small allocation and never waits for subscribers.
+ * <p>
+ * Subscribers read at their own pace from any sequence number still held by the ring, fetching events in
+ * batches. A subscriber which falls more than the capacity of the ring behind has missed events; it is told so
+ * and must read the whole map again before subscribing from {@link #nextSequence()}.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class ChangeFeed<K, V> {
+
+    /**
+     * The most recent events; event n is in slot n modulo the capacity.
+     */
+    private final AtomicReferenceArray<ChangeEvent<K, V>> ring;
+
+    /**
+     * The capacity of the ring minus one.
+     */
+    private final int mask;
+
+    /**
+     * The sequence number of the next event.
+     */
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * Creates a feed which retains at least the given number of the most recent events.
+     *
+     * @param capacity The number of events retained, rounded up to a power of two
+     */
+    public ChangeFeed(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        size = size < capacity ? size << 1 : size;
+        ring = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Publishes a change.
+     *
+     * @param type     The kind of change
+     * @param key      The key of the changed entry
+     * @param oldValue The value before the change, or null for an insert
+     * @param newValue The value after the change, or null for a removal
+     * @return The sequence number of the event
+     */
+    public long publish(ChangeEvent.Type type, K key, V oldValue, V newValue) {
+        long sequence = next.getAndIncrement();
+        ring.lazySet((int) sequence & mask, new ChangeEvent<>(sequence, type, key, oldValue, newValue));
+        return sequence;
+    }
+
+    /**
+     * Returns the sequence number the next event will get, which is the number of events published so far.
+     *
+     * @return the sequence number of the next event
+     */
+    public long nextSequence() {
+        return next.get();
+    }
+
+    /**
+     * Returns the sequence number of the oldest event still retained.
+     *
+     * @return the oldest sequence number a subscriber can start from
+     */
+    public long oldestSequence() {
+        return Math.max(0, next.get() - mask - 1);
+    }
+
+    /**
+     * Subscribes to the feed starting with the event with the given sequence number.
+     *
+     * @param fromSequence The sequence number of the first event to read, e.g. the position a subscriber saved
+     * @return A new subscription
+     * @throws IllegalArgumentException if the events from that sequence number are no longer retained
+     */
+    public Subscription subscribe(long fromSequence) throws IllegalArgumentException {
+        if (fromSequence < oldestSequence() || fromSequence > nextSequence()) {
+            throw new IllegalArgumentException(String.format("Sequence %d is not between %d and %d.",
+                    fromSequence, oldestSequence(), nextSequence()));
+        }
+        return new Subscription(fromSequence);
+    }
+
+    /**
+     * A reader of the feed which remembers its position.
+     */
+    public class Subscription {
+        /**
+         * The sequence number of the next event to read.
+         */
+        private long position;
+
+        /**
+         * Creates a subscription.
+         *
+         * @param position The sequence number of the first event to read
+         */
+        private Subscription(long position) {
+            this.position = position;
+        }
+
+        /**
+         * Returns the sequence number of the next event to read, from which a later subscription can resume.
+         *
+         * @return the position of the subscription
+         */
+        public long position() {
+            return position;
+        }
+
+        /**
+         * Returns the next events in order, without waiting for more to be published.
+         *
+         * @param maxEvents The largest number of events to return
+         * @return The events read, possibly none
+         * @throws IllegalStateException if the subscriber fell behind and the next events were overwritten
+         */
+        public List<ChangeEvent<K, V>> poll(int maxEvents) throws IllegalStateException {
+            List<ChangeEvent<K, V>> events = new ArrayList<>(Math.min(maxEvents, 256));
+            while (events.size() < maxEvents) {
+                ChangeEvent<K, V> event = ring.get((int) position & mask);
+                if (event == null || event.sequence < position) {
+                    break;
+                }
+                if (event.sequence > position) {
+                    throw new IllegalStateException(String.format(
+                            "Events from sequence %d were overwritten; the oldest retained is %d.",
+                            position, oldestSequence()));
+                }
+                events.add(event);
+                position++;
+            }
+            return events;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package edu.trinity.cpsc215f23.map;
 
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
 /**
  * An interface for an associative map which binds a key uniquely to a value.
  * This interface is a simplified version of java.util.Map.
@@ -77,4 +80,32 @@ public interface Map<K, V> {
      */
     Iterable<Entry<K, V>> entrySet();
 
+    /**
+     * Visits the entries of the map in the order of entrySet() until the action returns false. Unlike entrySet(),
+     * this does not need to collect the entries first, so implementations may override it to traverse their
+     * storage directly.
+     *
+     * @param action - the action applied to the key and value of each entry; returns false to stop
+     * @return true if every entry was visited, false if the action stopped the traversal
+     */
+    default boolean forEachWhile(BiPredicate<? super K, ? super V> action) {
+        for (Entry<K, V> entry : entrySet()) {
+            if (!action.test(entry.getKey(), entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies an action to the key and value of every entry, in the order of entrySet().
+     *
+     * @param action - the action applied to the key and value of each entry
+     */
+    default void forEach(BiConsumer<? super K, ? super V> action) {
+        forEachWhile((key, value) -> {
+            action.accept(key, value);
+            return true;
+        });
+    }
 }
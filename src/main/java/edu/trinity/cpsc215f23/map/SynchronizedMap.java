@@ -0,0 +1,161 @@
+package edu.trinity.cpsc215f23.map;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * A thread-safe map backed by another map. Every operation holds the lock of this wrapper, so at most one thread
+ * uses the backing map at a time. The iterable collections are copied while holding the lock, so they stay
+ * consistent even when the backing map returns views which read it lazily.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class SynchronizedMap<K, V> implements Map<K, V>, Closeable {
+
+    /**
+     * The backing map.
+     */
+    private final Map<K, V> map;
+
+    /**
+     * Creates a thread-safe map backed by the given map.
+     *
+     * @param map The backing map, which must not be used directly afterwards
+     */
+    public SynchronizedMap(Map<K, V> map) {
+        this.map = map;
+    }
+
+    /**
+     * Returns the backing map.
+     *
+     * @return the backing map
+     */
+    public Map<K, V> backingMap() {
+        return map;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public synchronized int size() {
+        return map.size();
+    }
+
+    /**
+     * Tests whether the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public synchronized boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry exists.
+     *
+     * @param key - the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    public synchronized V get(K key) {
+        return map.get(key);
+    }
+
+    /**
+     * Associates the given value with the given key, returning the previous value or null.
+     *
+     * @param key   - key with which the specified value is to be associated
+     * @param value - value to be associated with the specified key
+     * @return the previous value associated with the key
+     */
+    public synchronized V put(K key, V value) {
+        return map.put(key, value);
+    }
+
+    /**
+     * Removes the entry with the specified key, if present, and returns its associated value.
+     *
+     * @param key - the key whose entry is to be removed from the map
+     * @return the previous value associated with the removed key
+     */
+    public synchronized V remove(K key) {
+        return map.remove(key);
+    }
+
+    /**
+     * Returns an iterable collection of the keys contained in the map.
+     *
+     * @return iterable collection of the map's keys
+     */
+    public synchronized Iterable<K> keySet() {
+        return copy(map.keySet());
+    }
+
+    /**
+     * Returns an iterable collection of the values contained in the map.
+     *
+     * @return iterable collection of the map's values
+     */
+    public synchronized Iterable<V> values() {
+        return copy(map.values());
+    }
+
+    /**
+     * Returns an iterable collection of all key-value entries of the map.
+     *
+     * @return iterable collection of the map's entries
+     */
+    public synchronized Iterable<Entry<K, V>> entrySet() {
+        return copy(map.entrySet());
+    }
+
+    /**
+     * Copies an iterable collection of the backing map into a list.
+     *
+     * @param items The collection to copy
+     * @return A list of the items
+     */
+    private static <T> List<T> copy(Iterable<T> items) {
+        List<T> list = new ArrayList<>();
+        items.forEach(list::add);
+        return list;
+    }
+
+    /**
+     * Visits the entries of the backing map while holding the lock, until the action returns false.
+     *
+     * @param action - the action applied to the key and value of each entry; returns false to stop
+     * @return true if every entry was visited, false if the action stopped the traversal
+     */
+    @Override
+    public synchronized boolean forEachWhile(BiPredicate<? super K, ? super V> action) {
+        return map.forEachWhile(action);
+    }
+
+    /**
+     * Returns the string representation of the backing map.
+     *
+     * @return a string representation of the map
+     */
+    @Override
+    public synchronized String toString() {
+        return map.toString();
+    }
+
+    /**
+     * Closes the backing map if it holds resources.
+     *
+     * @throws IOException if the backing map cannot be closed
+     */
+    public synchronized void close() throws IOException {
+        if (map instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
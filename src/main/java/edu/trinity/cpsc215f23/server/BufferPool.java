@@ -0,0 +1,73 @@
+package edu.trinity.cpsc215f23.server;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of equally sized direct byte buffers. Direct buffers are costly to allocate and are only reclaimed by the
+ * garbage collector, so network code reuses them instead of allocating one per request.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class BufferPool {
+
+    /**
+     * The size of each buffer in bytes.
+     */
+    private final int bufferSize;
+
+    /**
+     * The largest number of idle buffers kept for reuse.
+     */
+    private final int maxIdle;
+
+    /**
+     * The idle buffers.
+     */
+    private final ConcurrentLinkedQueue<ByteBuffer> idle = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of idle buffers.
+     */
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param bufferSize The size of each buffer in bytes
+     * @param maxIdle    The largest number of idle buffers kept for reuse
+     */
+    public BufferPool(int bufferSize, int maxIdle) {
+        this.bufferSize = bufferSize;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Takes a cleared buffer from the pool, allocating one if none is idle.
+     *
+     * @return A cleared direct buffer
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = idle.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        idleCount.decrementAndGet();
+        return buffer.clear();
+    }
+
+    /**
+     * Returns a buffer to the pool. The caller must not use the buffer afterwards.
+     *
+     * @param buffer A buffer taken from this pool
+     */
+    public void release(ByteBuffer buffer) {
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offer(buffer);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+}
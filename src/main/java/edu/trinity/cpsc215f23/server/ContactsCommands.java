@@ -0,0 +1,251 @@
+package edu.trinity.cpsc215f23.server;
+
+import edu.trinity.cpsc215f23.Communications;
+import edu.trinity.cpsc215f23.ContactsApp;
+
+import edu.trinity.cpsc215f23.map.Entry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The contact manager commands offered by the network services: search, add, remove and list. The commands have
+ * the same semantics as the corresponding menu choices of {@link ContactsApp}, but return their outcome instead of
+ * printing it. The contact store of the application must be thread-safe.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class ContactsCommands {
+
+    /**
+     * The application whose contacts are served.
+     */
+    private final ContactsApp app;
+
+    /**
+     * Creates the commands for the contacts of an application.
+     *
+     * @param app The application whose contacts are served
+     */
+    public ContactsCommands(ContactsApp app) {
+        this.app = app;
+    }
+
+    /**
+     * Looks up a contact.
+     *
+     * @param firstName The first name of the contact
+     * @param lastName  The last name of the contact
+     * @return The contact's information, or NOT_FOUND
+     */
+    public Result search(String firstName, String lastName) {
+        String name = ContactsApp.fullName(firstName, lastName);
+        if (name.isEmpty()) {
+            return new Result(Status.BAD_REQUEST, "A first and last name are required.");
+        }
+        HashMap<Communications, String> communications = app.getContacts().get(name);
+        if (communications == null) {
+            return new Result(Status.NOT_FOUND, "No contact entry found for '" + name + "'.");
+        }
+        return new Result(Status.OK, name + ": " + communications);
+    }
+
+    /**
+     * Adds or updates a contact.
+     *
+     * @param firstName The first name of the contact
+     * @param lastName  The last name of the contact
+     * @param platforms The communication options, e.g. "website: www.oceanfutures.org, m: 805-899-8899"
+     * @return The added contact, or BAD_REQUEST
+     */
+    public Result add(String firstName, String lastName, String platforms) {
+        String name = ContactsApp.fullName(firstName, lastName);
+        if (name.isEmpty()) {
+            return new Result(Status.BAD_REQUEST, "A first and last name are required.");
+        }
+        HashMap<Communications, String> communications;
+        try {
+            communications = app.parseCommunications(platforms == null ? "" : platforms.trim());
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException ex) {
+            return new Result(Status.BAD_REQUEST, String.format("Media option in '%s' not recognized.", platforms));
+        }
+        app.getContacts().put(name, communications);
+        return new Result(Status.OK, "Added: " + name + ": " + communications);
+    }
+
+    /**
+     * Removes a contact.
+     *
+     * @param firstName The first name of the contact
+     * @param lastName  The last name of the contact
+     * @return OK, or NOT_FOUND if there was no such contact
+     */
+    public Result remove(String firstName, String lastName) {
+        String name = ContactsApp.fullName(firstName, lastName);
+        if (name.isEmpty()) {
+            return new Result(Status.BAD_REQUEST, "A first and last name are required.");
+        }
+        if (app.getContacts().remove(name) == null) {
+            return new Result(Status.NOT_FOUND, "No contact entry found for '" + name + "'.");
+        }
+        return new Result(Status.OK, "Removed contact: " + name);
+    }
+
+    /**
+     * Lists all contacts with their communication options.
+     *
+     * @return The list of all contacts
+     */
+    public Result list() {
+        return new Result(Status.OK, app.listAllContacts());
+    }
+
+    /**
+     * Writes the list of all contacts, with the text of {@link #list()}, as the contacts are visited, so the text
+     * is never held in memory.
+     *
+     * @param out The writer to write to; it is not flushed
+     * @throws IOException if the writer fails
+     */
+    public void writeList(Writer out) throws IOException {
+        app.writeAllContacts(out, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Lists all contacts piece by piece, with the text of {@link #list()}. The contacts are taken when the method
+     * is called, but the line of each is only formatted when the listing reaches it, so a server can send a long
+     * list without holding its text.
+     *
+     * @return The listing
+     */
+    public Listing listing() {
+        List<Entry<String, HashMap<Communications, String>>> entries = new ArrayList<>();
+        app.getContacts().entrySet().forEach(entries::add);
+        return new Listing(entries);
+    }
+
+    /**
+     * The text of the list of all contacts, produced one contact at a time.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    public static final class Listing implements Iterator<String> {
+        /**
+         * The contacts listed, in alphabetical order.
+         */
+        private final List<Entry<String, HashMap<Communications, String>>> entries;
+
+        /**
+         * The next piece: -1 for the title, the index of a contact, or entries.size() for the end of the list.
+         */
+        private int next = -1;
+
+        /**
+         * Creates an instance of the class Listing
+         *
+         * @param entries : The contacts listed, in alphabetical order
+         */
+        private Listing(List<Entry<String, HashMap<Communications, String>>> entries) {
+            this.entries = entries;
+        }
+
+        /**
+         * Returns the number of lines of the text.
+         *
+         * @return the line count
+         */
+        public int lineCount() {
+            return 4 + Math.max(1, entries.size());
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next <= entries.size();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int piece = next++;
+            if (piece < 0) {
+                return "\nAll Contacts\n------------\n";
+            }
+            if (piece == entries.size()) {
+                return "\n";
+            }
+            Entry<String, HashMap<Communications, String>> entry = entries.get(piece);
+            return (piece > 0 ? "\n" : "") + entry.getKey() + ": " + entry.getValue();
+        }
+    }
+
+    /**
+     * The outcome of a command.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    public enum Status {
+        /**
+         * The command succeeded.
+         */
+        OK(200),
+        /**
+         * The contact does not exist.
+         */
+        NOT_FOUND(404),
+        /**
+         * The command's arguments are invalid.
+         */
+        BAD_REQUEST(400),
+        /**
+         * The command failed in the server.
+         */
+        SERVER_ERROR(500);
+
+        /**
+         * The HTTP status code of the outcome.
+         */
+        public final int httpCode;
+
+        Status(int httpCode) {
+            this.httpCode = httpCode;
+        }
+    }
+
+    /**
+     * The outcome and response text of a command.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    public static final class Result {
+        /**
+         * The outcome of the command.
+         */
+        public final Status status;
+        /**
+         * The response text.
+         */
+        public final String body;
+
+        /**
+         * Creates an instance of the class Result
+         *
+         * @param status : The outcome of the command
+         * @param body   : The response text
+         */
+        public Result(Status status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package edu.trinity.cpsc215f23.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.trinity.cpsc215f23.ContactsApp;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the contacts of a {@link ContactsApp} over HTTP, so several users can share one directory. All requests
+ * go to {@value #PATH} and name the contact with the query parameters "first" and "last":
+ * <ul>
+ *     <li>GET with a name searches for the contact; GET without a name lists all contacts.</li>
+ *     <li>PUT or POST adds or updates the contact; its communication options are given by the "coms" parameter
+ *     or the request body, e.g. "email: me@trinity.com, m: 805-899-8899".</li>
+ *     <li>DELETE removes the contact.</li>
+ * </ul>
+ * Responses are plain text with the status 200, 400, 404, or 500 for a request which failed in the server. Any
+ * other method is answered with 405 and an Allow header naming the methods above. The list of all contacts is
+ * written into the response with chunked encoding as the contacts are visited, so it is never held in memory.
+ * Each request is handled on its own virtual thread when the Java runtime provides them, and on a pooled platform
+ * thread otherwise.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class ContactsHttpServer implements Closeable {
+
+    /**
+     * The path under which contacts are served.
+     */
+    public static final String PATH = "/contacts";
+
+    /**
+     * The commands executed for requests.
+     */
+    private final ContactsCommands commands;
+
+    /**
+     * The underlying HTTP server.
+     */
+    private final HttpServer server;
+
+    /**
+     * The threads handling requests.
+     */
+    private final ExecutorService executor = newRequestExecutor();
+
+    /**
+     * Creates a server for the contacts of an application, listening on the loopback interface only, since the
+     * service has no authentication.
+     *
+     * @param app  The application whose contacts are served; its contact store must be thread-safe
+     * @param port The port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public ContactsHttpServer(ContactsApp app, int port) throws IOException {
+        this.commands = new ContactsCommands(app);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Returns an executor which runs each task on a new virtual thread if the runtime supports them, or else a
+     * pool of platform threads.
+     *
+     * @return The executor for request handling
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newFixedThreadPool(Math.max(16, 8 * Runtime.getRuntime().availableProcessors()));
+        }
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the bound port
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and waits briefly for running requests to finish.
+     */
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Handles one request.
+     *
+     * @param exchange The request and its response
+     * @throws IOException if the response cannot be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            HashMap<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String first = query.get("first");
+            String last = query.get("last");
+
+            String method = exchange.getRequestMethod();
+            if (method.equals("GET") && first == null && last == null) {
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                exchange.sendResponseHeaders(ContactsCommands.Status.OK.httpCode, 0);
+                try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(),
+                        StandardCharsets.UTF_8), 1 << 16)) {
+                    commands.writeList(out);
+                    out.write('\n');
+                }
+                return;
+            }
+
+            ContactsCommands.Result result;
+            try {
+                result = switch (method) {
+                    case "GET" -> commands.search(first, last);
+                    case "PUT", "POST" -> commands.add(first, last,
+                            query.containsKey("coms") ? query.get("coms") : readBody(exchange.getRequestBody()));
+                    case "DELETE" -> commands.remove(first, last);
+                    default -> null;
+                };
+            } catch (RuntimeException ex) {
+                result = new ContactsCommands.Result(ContactsCommands.Status.SERVER_ERROR,
+                        "The request failed: " + ex);
+            }
+
+            if (result == null) {
+                exchange.getResponseHeaders().set("Allow", "GET, PUT, POST, DELETE");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = (result.body + "\n").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(result.status.httpCode, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Decodes the parameters of a URL query string.
+     *
+     * @param rawQuery The raw query string, or null
+     * @return The decoded parameters
+     */
+    static HashMap<String, String> parseQuery(String rawQuery) {
+        HashMap<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int split = parameter.indexOf('=');
+            String name = split < 0 ? parameter : parameter.substring(0, split);
+            String value = split < 0 ? "" : parameter.substring(split + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    /**
+     * Reads a request body as text.
+     *
+     * @param body The request body
+     * @return The text of the body
+     * @throws IOException if the body cannot be read
+     */
+    private static String readBody(InputStream body) throws IOException {
+        return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
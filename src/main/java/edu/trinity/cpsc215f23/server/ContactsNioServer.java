@@ -0,0 +1,621 @@
+package edu.trinity.cpsc215f23.server;
+
+import edu.trinity.cpsc215f23.ContactsApp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Serves the contacts of a {@link ContactsApp} over a line-based TCP protocol using non-blocking channels, so a
+ * handful of threads can hold tens of thousands of mostly idle connections. Each thread runs a selector loop over
+ * its share of the connections; new connections are spread over the threads in turn.
+ * <p>
+ * A request is one line of UTF-8 text. The fields of a request are separated by '|':
+ * <ul>
+ *     <li>{@code SEARCH first|last}</li>
+ *     <li>{@code ADD first|last|communication options}, e.g. {@code ADD John|Muir|email: john@sierraclub.org}</li>
+ *     <li>{@code REMOVE first|last}</li>
+ *     <li>{@code LIST}</li>
+ * </ul>
+ * Each response starts with a status line holding the status (OK, NOT_FOUND, BAD_REQUEST or SERVER_ERROR) and the
+ * number of lines of text which follow it. A request which fails in the server is answered with SERVER_ERROR, and
+ * the connection stays open; a connection whose handling fails otherwise is closed without stopping the others. Clients may send several requests without waiting; responses are returned in
+ * request order.
+ * <p>
+ * Connections hold no buffer while idle: reads go through one direct buffer per thread, and responses are encoded
+ * straight into direct buffers taken from a shared pool and returned once written. Responses are encoded only as
+ * fast as the client takes them: a connection holds at most 64 encoded buffers, and the list of all contacts is
+ * formatted one contact at a time as they drain, so a long list neither sits in memory as text nor holds up the
+ * other connections of the thread. A connection reads no further requests until its responses are encoded.
+ * <p>
+ * A connection has at most one LIST outstanding: requests pipelined behind a LIST are held, already read, until the
+ * list is encoded, so a client cannot make the selector thread take many snapshots of the contacts at once.
+ * <p>
+ * The server has no authentication, so it listens on the loopback interface only.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class ContactsNioServer implements Closeable {
+
+    /**
+     * The size of the pooled buffers in bytes.
+     */
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * The longest request line accepted, in bytes.
+     */
+    private static final int MAX_LINE = 64 * 1024;
+
+    /**
+     * The largest number of encoded response buffers a connection holds; further responses are encoded as these
+     * are sent, and the connection reads no further requests meanwhile.
+     */
+    private static final int MAX_PENDING_BUFFERS = 64;
+
+    /**
+     * Separates the fields of a request.
+     */
+    private static final byte SEPARATOR = '|';
+
+    /**
+     * The commands executed for requests.
+     */
+    private final ContactsCommands commands;
+
+    /**
+     * The listening channel.
+     */
+    private final ServerSocketChannel serverChannel;
+
+    /**
+     * The pool of response buffers shared by all threads.
+     */
+    private final BufferPool pool = new BufferPool(BUFFER_SIZE, 4096);
+
+    /**
+     * The selector loops, one per thread. The first also accepts connections.
+     */
+    private final Reactor[] reactors;
+
+    /**
+     * The threads running the selector loops.
+     */
+    private final Thread[] threads;
+
+    /**
+     * Whether the server is running.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Creates a server for the contacts of an application, listening on the loopback interface only.
+     *
+     * @param app         The application whose contacts are served; its contact store must be thread-safe
+     * @param port        The port to listen on, or 0 for any free port
+     * @param threadCount The number of selector threads
+     * @throws IOException if the port cannot be bound
+     */
+    public ContactsNioServer(ContactsApp app, int port, int threadCount) throws IOException {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("At least one thread is required.");
+        }
+        this.commands = new ContactsCommands(app);
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        serverChannel.configureBlocking(false);
+
+        reactors = new Reactor[threadCount];
+        threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            reactors[i] = new Reactor(Selector.open());
+            threads[i] = new Thread(reactors[i], "contacts-nio-" + i);
+        }
+        serverChannel.register(reactors[0].selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Starts accepting connections.
+     */
+    public void start() {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the bound port
+     * @throws IOException if the port cannot be determined
+     */
+    public int port() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Stops the server and closes all connections.
+     */
+    public void close() {
+        running = false;
+        for (Reactor reactor : reactors) {
+            reactor.selector.wakeup();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join(5000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            serverChannel.close();
+        } catch (IOException ex) {
+            // nothing left to release
+        }
+    }
+
+    /**
+     * The state of one client connection.
+     */
+    private static final class Connection {
+        /**
+         * The client channel.
+         */
+        final SocketChannel channel;
+
+        /**
+         * The start of a request line whose end has not arrived yet, or null.
+         */
+        byte[] partial;
+
+        /**
+         * Input read but not yet executed because it follows a LIST whose response is still being encoded, or
+         * null.
+         */
+        byte[] held;
+
+        /**
+         * Response buffers waiting to be sent, in fill mode.
+         */
+        final ArrayDeque<ByteBuffer> output = new ArrayDeque<>();
+
+        /**
+         * The pieces of text of the responses not yet encoded, in request order.
+         */
+        final ArrayDeque<Iterator<String>> responses = new ArrayDeque<>();
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * A selector loop serving a share of the connections.
+     */
+    private final class Reactor implements Runnable {
+        /**
+         * The selector of the loop.
+         */
+        final Selector selector;
+
+        /**
+         * Connections accepted by another loop and handed to this one.
+         */
+        final ConcurrentLinkedQueue<SocketChannel> handedOver = new ConcurrentLinkedQueue<>();
+
+        /**
+         * The buffer every read of this loop goes through.
+         */
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        /**
+         * Holds the request line being assembled.
+         */
+        private byte[] line = new byte[256];
+
+        /**
+         * The number of bytes in line.
+         */
+        private int lineLength;
+
+        /**
+         * Encodes response text into buffers.
+         */
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        /**
+         * The loop which receives the next accepted connection.
+         */
+        private int nextReactor;
+
+        Reactor(Selector selector) {
+            this.selector = selector;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    SocketChannel handed;
+                    while ((handed = handedOver.poll()) != null) {
+                        handed.register(selector, SelectionKey.OP_READ, new Connection(handed));
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        try {
+                            if (key.isValid() && key.isAcceptable()) {
+                                accept();
+                                continue;
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                read(key);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(key);
+                            }
+                        } catch (IOException ex) {
+                            close(key);
+                        } catch (RuntimeException ex) {
+                            System.err.println("Contact service connection failed: " + ex);
+                            close(key);
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException ex) {
+                System.err.println("Contact service loop stopped: " + ex.getMessage());
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    close(key);
+                }
+                try {
+                    selector.close();
+                } catch (IOException ex) {
+                    // nothing left to release
+                }
+            }
+        }
+
+        /**
+         * Accepts all pending connections and hands them to the loops in turn.
+         *
+         * @throws IOException if a connection cannot be accepted
+         */
+        private void accept() throws IOException {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Reactor target = reactors[nextReactor];
+                nextReactor = (nextReactor + 1) % reactors.length;
+                if (target == this) {
+                    channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+                } else {
+                    target.handedOver.add(channel);
+                    target.selector.wakeup();
+                }
+            }
+        }
+
+        /**
+         * Reads what the client has sent and executes every complete request line.
+         *
+         * @param key The key of the connection
+         * @throws IOException if the connection fails
+         */
+        private void read(SelectionKey key) throws IOException {
+            Connection connection = (Connection) key.attachment();
+            if (connection.held != null) {
+                return;                       // the held input must be executed first
+            }
+            readBuffer.clear();
+            if (connection.channel.read(readBuffer) < 0) {
+                close(key);
+                return;
+            }
+            readBuffer.flip();
+            if (process(key, readBuffer)) {
+                write(key);
+            }
+        }
+
+        /**
+         * Executes the complete request lines of some input. After a LIST, the rest of the input is held on the
+         * connection until the list is encoded.
+         *
+         * @param key   The key of the connection
+         * @param input The input to process
+         * @return true if the connection is still open
+         */
+        private boolean process(SelectionKey key, ByteBuffer input) {
+            Connection connection = (Connection) key.attachment();
+            lineLength = 0;
+            if (connection.partial != null) {
+                append(connection.partial, connection.partial.length);
+                connection.partial = null;
+            }
+            while (input.hasRemaining()) {
+                byte next = input.get();
+                if (next == '\n') {
+                    boolean listed = execute(connection);
+                    lineLength = 0;
+                    if (listed && input.hasRemaining()) {
+                        connection.held = new byte[input.remaining()];
+                        input.get(connection.held);
+                    }
+                } else if (lineLength == MAX_LINE) {
+                    close(key);
+                    return false;
+                } else {
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, Math.min(MAX_LINE, line.length * 2));
+                    }
+                    line[lineLength++] = next;
+                }
+            }
+            if (lineLength > 0) {
+                connection.partial = Arrays.copyOf(line, lineLength);
+            }
+            return true;
+        }
+
+        /**
+         * Appends bytes to the request line.
+         *
+         * @param bytes  The bytes to append
+         * @param length The number of bytes to append
+         */
+        private void append(byte[] bytes, int length) {
+            if (lineLength + length > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+            }
+            System.arraycopy(bytes, 0, line, lineLength, length);
+            lineLength += length;
+        }
+
+        /**
+         * Executes the request in line and queues its response. A request which fails is answered with
+         * SERVER_ERROR.
+         *
+         * @param connection The connection which sent the request
+         * @return true if the request was a LIST
+         */
+        private boolean execute(Connection connection) {
+            try {
+                return dispatch(connection);
+            } catch (RuntimeException ex) {
+                respond(connection, new ContactsCommands.Result(ContactsCommands.Status.SERVER_ERROR,
+                        "The request failed: " + ex));
+                return false;
+            }
+        }
+
+        /**
+         * Decodes the request in line, runs its command and queues its response.
+         *
+         * @param connection The connection which sent the request
+         * @return true if the request was a LIST
+         */
+        private boolean dispatch(Connection connection) {
+            int end = lineLength;
+            if (end > 0 && line[end - 1] == '\r') {
+                end--;
+            }
+            int verbEnd = 0;
+            while (verbEnd < end && line[verbEnd] != ' ') {
+                verbEnd++;
+            }
+            int argumentsStart = Math.min(verbEnd + 1, end);
+
+            if (isVerb("LIST", verbEnd)) {
+                ContactsCommands.Listing listing = commands.listing();
+                connection.responses.addLast(List.of(ContactsCommands.Status.OK.name() + " " + listing.lineCount()
+                        + "\n").iterator());
+                connection.responses.addLast(listing);
+                connection.responses.addLast(List.of("\n").iterator());
+                return true;
+            }
+            ContactsCommands.Result result;
+            if (isVerb("SEARCH", verbEnd)) {
+                String[] fields = fields(argumentsStart, end, 2);
+                result = commands.search(fields[0], fields[1]);
+            } else if (isVerb("ADD", verbEnd)) {
+                String[] fields = fields(argumentsStart, end, 3);
+                result = commands.add(fields[0], fields[1], fields[2]);
+            } else if (isVerb("REMOVE", verbEnd)) {
+                String[] fields = fields(argumentsStart, end, 2);
+                result = commands.remove(fields[0], fields[1]);
+            } else {
+                result = new ContactsCommands.Result(ContactsCommands.Status.BAD_REQUEST,
+                        "Expected SEARCH, ADD, REMOVE or LIST.");
+            }
+            respond(connection, result);
+            return false;
+        }
+
+        /**
+         * Tests, without decoding the request, whether its first word is the given verb, ignoring case.
+         *
+         * @param verb    The verb in upper case
+         * @param verbEnd The length of the first word of the request
+         * @return true if the first word is the verb
+         */
+        private boolean isVerb(String verb, int verbEnd) {
+            if (verbEnd != verb.length()) {
+                return false;
+            }
+            for (int i = 0; i < verbEnd; i++) {
+                if ((line[i] & ~0x20) != verb.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Decodes the '|' separated fields of a request. The last field takes the rest of the line.
+         *
+         * @param start The offset of the first field in line
+         * @param end   The end of the request in line
+         * @param count The number of fields expected
+         * @return The fields; missing fields are empty
+         */
+        private String[] fields(int start, int end, int count) {
+            String[] fields = new String[count];
+            for (int i = 0; i < count; i++) {
+                int fieldEnd = start;
+                while (fieldEnd < end && (line[fieldEnd] != SEPARATOR || i == count - 1)) {
+                    fieldEnd++;
+                }
+                fields[i] = new String(line, start, fieldEnd - start, StandardCharsets.UTF_8);
+                start = Math.min(fieldEnd + 1, end);
+            }
+            return fields;
+        }
+
+        /**
+         * Queues a response on the connection.
+         *
+         * @param connection The connection to respond on
+         * @param result     The response
+         */
+        private void respond(Connection connection, ContactsCommands.Result result) {
+            int lines = 1;
+            for (int i = 0; i < result.body.length(); i++) {
+                if (result.body.charAt(i) == '\n') {
+                    lines++;
+                }
+            }
+            connection.responses.addLast(List.of(result.status.name(), " ", Integer.toString(lines), "\n",
+                    result.body, "\n").iterator());
+        }
+
+        /**
+         * Encodes queued responses into pooled buffers until the connection holds MAX_PENDING_BUFFERS of them or
+         * every response is encoded.
+         *
+         * @param connection The connection to respond on
+         */
+        private void fill(Connection connection) {
+            while (!connection.responses.isEmpty() && connection.output.size() < MAX_PENDING_BUFFERS) {
+                Iterator<String> pieces = connection.responses.peekFirst();
+                if (pieces.hasNext()) {
+                    encode(connection, pieces.next());
+                } else {
+                    connection.responses.pollFirst();
+                }
+            }
+        }
+
+        /**
+         * Encodes text as UTF-8 at the end of the connection's pending output.
+         *
+         * @param connection The connection to respond on
+         * @param text       The text to encode
+         */
+        private void encode(Connection connection, CharSequence text) {
+            CharBuffer chars = CharBuffer.wrap(text);
+            encoder.reset();
+            ByteBuffer out = connection.output.peekLast();
+            if (out == null || !out.hasRemaining()) {
+                out = pool.acquire();
+                connection.output.addLast(out);
+            }
+            while (encoder.encode(chars, out, true) == CoderResult.OVERFLOW) {
+                out = pool.acquire();
+                connection.output.addLast(out);
+            }
+            encoder.flush(out);
+        }
+
+        /**
+         * Encodes and sends as much pending output as the connection accepts, executes held input once the LIST
+         * before it is encoded, and chooses the events to wait for next.
+         *
+         * @param key The key of the connection
+         * @throws IOException if the connection fails
+         */
+        private void write(SelectionKey key) throws IOException {
+            Connection connection = (Connection) key.attachment();
+            for (; ; ) {
+                fill(connection);
+                while (!connection.output.isEmpty()) {
+                    ByteBuffer out = connection.output.peekFirst();
+                    out.flip();
+                    connection.channel.write(out);
+                    if (out.hasRemaining()) {
+                        out.compact();
+                        break;
+                    }
+                    pool.release(connection.output.pollFirst());
+                    fill(connection);
+                }
+                if (connection.held == null || !connection.responses.isEmpty()) {
+                    break;
+                }
+                ByteBuffer held = ByteBuffer.wrap(connection.held);
+                connection.held = null;
+                if (!process(key, held)) {
+                    return;
+                }
+            }
+
+            if (connection.held != null) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else if (connection.output.isEmpty()) {
+                key.interestOps(SelectionKey.OP_READ);
+            } else if (connection.output.size() >= MAX_PENDING_BUFFERS || !connection.responses.isEmpty()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+
+        /**
+         * Closes a connection and returns its buffers to the pool.
+         *
+         * @param key The key of the connection
+         */
+        private void close(SelectionKey key) {
+            key.cancel();
+            try {
+                key.channel().close();
+            } catch (IOException ex) {
+                // the connection is gone either way
+            }
+            if (key.attachment() instanceof Connection connection) {
+                ByteBuffer out;
+                while ((out = connection.output.pollFirst()) != null) {
+                    pool.release(out);
+                }
+                connection.responses.clear();
+                connection.held = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package edu.trinity.cpsc215f23.store;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A Bloom filter over String keys. It answers whether a key may have been added, with no false negatives and a
+ * false positive rate of about 1% at ten bits per key.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class BloomFilter {
+
+    /**
+     * Number of bits used per expected key.
+     */
+    private static final int BITS_PER_KEY = 10;
+
+    /**
+     * Number of hash functions, optimal for ten bits per key.
+     */
+    private static final int HASHES = 7;
+
+    /**
+     * The bit array.
+     */
+    private final long[] words;
+
+    /**
+     * Number of bits in the bit array.
+     */
+    private final long bits;
+
+    /**
+     * Creates an empty filter sized for the given number of keys.
+     *
+     * @param expectedKeys The number of keys expected to be added
+     */
+    public BloomFilter(long expectedKeys) {
+        this(new long[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, expectedKeys * BITS_PER_KEY / Long.SIZE + 1))]);
+    }
+
+    /**
+     * Creates a filter over an existing bit array.
+     *
+     * @param words The bit array
+     */
+    private BloomFilter(long[] words) {
+        this.words = words;
+        this.bits = (long) words.length * Long.SIZE;
+    }
+
+    /**
+     * Mixes the hash code of a key into a well distributed 64-bit hash.
+     *
+     * @param key The key to hash
+     * @return The 64-bit hash of the key
+     */
+    private static long hash(String key) {
+        long h = key.hashCode() * 0x9E3779B97F4A7C15L + key.length();
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Adds a key to the filter.
+     *
+     * @param key The key to add
+     */
+    public void add(String key) {
+        long h = hash(key);
+        long step = (h >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(h, bits);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+            h += step;
+        }
+    }
+
+    /**
+     * Tests whether a key may have been added to the filter.
+     *
+     * @param key The key to test
+     * @return false if the key was definitely never added, true if it may have been
+     */
+    public boolean mightContain(String key) {
+        long h = hash(key);
+        long step = (h >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(h, bits);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+            h += step;
+        }
+        return true;
+    }
+
+    /**
+     * Writes the filter to the output.
+     *
+     * @param out The output to write to
+     * @throws IOException if the output cannot be written
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Reads a filter written by {@link #write(DataOutput)}.
+     *
+     * @param in The input to read from
+     * @return The filter read
+     * @throws IOException if the input cannot be read
+     */
+    public static BloomFilter read(DataInput in) throws IOException {
+        long[] words = new long[in.readInt()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        return new BloomFilter(words);
+    }
+}
@@ -0,0 +1,58 @@
+package edu.trinity.cpsc215f23.store;
+
+import edu.trinity.cpsc215f23.Communications;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the communication options of a contact as a count followed by the ordinal and handle of each option.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class CommunicationsCodec implements ValueCodec<HashMap<Communications, String>> {
+
+    /**
+     * All communication options, indexed by ordinal.
+     */
+    private static final Communications[] PLATFORMS = Communications.values();
+
+    /**
+     * Writes the communication options to the output.
+     *
+     * @param out            The output to write to
+     * @param communications The communication options to write
+     * @throws IOException if the output cannot be written
+     */
+    public void write(DataOutput out, HashMap<Communications, String> communications) throws IOException {
+        out.writeByte(communications.size());
+        for (Map.Entry<Communications, String> communication : communications.entrySet()) {
+            out.writeByte(communication.getKey().ordinal());
+            out.writeUTF(communication.getValue());
+        }
+    }
+
+    /**
+     * Reads communication options from the input.
+     *
+     * @param in The input to read from
+     * @return The communication options read
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public HashMap<Communications, String> read(DataInput in) throws IOException {
+        int count = in.readUnsignedByte();
+        HashMap<Communications, String> communications = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int ordinal = in.readUnsignedByte();
+            if (ordinal >= PLATFORMS.length) {
+                throw new IOException("Unknown communication option: " + ordinal);
+            }
+            communications.put(PLATFORMS[ordinal], in.readUTF());
+        }
+        return communications;
+    }
+}
@@ -0,0 +1,720 @@
+package edu.trinity.cpsc215f23.store;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.map.Map;
+import edu.trinity.cpsc215f23.treemap.BinarySearchTreeMap;
+import edu.trinity.cpsc215f23.treemap.StringTreeMap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Realization of a map by means of a log-structured merge tree kept in a directory. Writes go to an in-memory
+ * binary search tree, the memtable. When the memtable fills up it is written out, in key order and in one
+ * sequential pass, as an immutable segment file. Once too many segments accumulate they are merged into one by a
+ * background thread, which also drops deleted keys. A lookup checks the memtable and then the segments from newest
+ * to oldest; each segment keeps a Bloom filter in memory, so segments which cannot contain the key are skipped
+ * without reading the disk.
+ * <p>
+ * {@link #write(String, Object)} and {@link #delete(String)} record a change without reading the previous value,
+ * which makes them the fast path for bulk ingestion. {@link #put(String, Object)} and {@link #remove(String)} look
+ * up the previous value first, as the Map interface requires. Changes still in the memtable are only made durable
+ * by {@link #flush()} or {@link #close()}. size() scans all entries.
+ * <p>
+ * Like the other maps, this map supports a single writer thread; compaction runs concurrently with it.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class LsmTreeMap<V> implements Map<String, V>, Closeable {
+
+    /**
+     * The number of changes held in memory before the memtable is flushed, used by default.
+     */
+    public static final int DEFAULT_MEMTABLE_LIMIT = 1 << 16;
+
+    /**
+     * The number of segments which triggers a compaction, used by default.
+     */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 4;
+
+    /**
+     * Segment file names: the segment id and the compaction generation.
+     */
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)-(\\d+)\\.sst");
+
+    /**
+     * The directory holding the segment files.
+     */
+    private final Path directory;
+
+    /**
+     * The codec for values.
+     */
+    private final ValueCodec<V> codec;
+
+    /**
+     * The number of changes held in memory before the memtable is flushed.
+     */
+    private final int memtableLimit;
+
+    /**
+     * The number of segments which triggers a compaction.
+     */
+    private final int compactionThreshold;
+
+    /**
+     * Runs compactions in the background.
+     */
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lsm-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The changes not yet written to a segment.
+     */
+    private BinarySearchTreeMap<String, Mutation<V>> memtable = new StringTreeMap<>();
+
+    /**
+     * The segments, newest first. The list is replaced, never modified, so readers may use it without locking.
+     */
+    private volatile List<SegmentFile<V>> segments;
+
+    /**
+     * The id of the next segment to flush.
+     */
+    private long nextId;
+
+    /**
+     * Whether a compaction is scheduled or running.
+     */
+    private boolean compacting;
+
+    /**
+     * The failure of the last background compaction, reported by the next flush.
+     */
+    private IOException compactionFailure;
+
+    /**
+     * Opens the map stored in the given directory, creating it if needed, with default limits.
+     *
+     * @param directory The directory holding the segment files
+     * @param codec     The codec for values
+     * @throws IOException if the directory or its segments cannot be read
+     */
+    public LsmTreeMap(Path directory, ValueCodec<V> codec) throws IOException {
+        this(directory, codec, DEFAULT_MEMTABLE_LIMIT, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Opens the map stored in the given directory, creating it if needed.
+     *
+     * @param directory           The directory holding the segment files
+     * @param codec               The codec for values
+     * @param memtableLimit       The number of changes held in memory before they are flushed
+     * @param compactionThreshold The number of segments which triggers a compaction
+     * @throws IOException if the directory or its segments cannot be read
+     */
+    public LsmTreeMap(Path directory, ValueCodec<V> codec, int memtableLimit, int compactionThreshold) throws IOException {
+        if (memtableLimit < 1 || compactionThreshold < 2) {
+            throw new IllegalArgumentException("Memtable limit must be positive and compaction threshold at least 2.");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.codec = codec;
+        this.memtableLimit = memtableLimit;
+        this.compactionThreshold = compactionThreshold;
+
+        List<SegmentFile<V>> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*")) {
+            for (Path file : files) {
+                Matcher name = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (name.matches()) {
+                    found.add(new SegmentFile<>(Long.parseLong(name.group(1)), Integer.parseInt(name.group(2)),
+                            Segment.open(file, codec)));
+                } else if (file.getFileName().toString().endsWith(".tmp")) {
+                    Files.delete(file);
+                }
+            }
+        }
+        found.sort(Comparator.<SegmentFile<V>>comparingLong(file -> file.id)
+                .thenComparingInt(file -> file.generation).reversed());
+        for (int i = 0; i < found.size(); i++) {
+            if (found.get(i).generation > 0) {
+                List<SegmentFile<V>> covered = found.subList(i + 1, found.size());
+                for (SegmentFile<V> file : covered) {
+                    file.segment.retire();
+                }
+                covered.clear();
+                break;
+            }
+        }
+        segments = Collections.unmodifiableList(found);
+        nextId = found.stream().mapToLong(file -> file.id + 1).max().orElse(0);
+    }
+
+    /**
+     * Checks whether a given key is valid.
+     *
+     * @param key Stores the key to be checked
+     */
+    protected void checkKey(String key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key is null.");
+        }
+    }
+
+    /**
+     * Returns the number of segment files currently in use.
+     *
+     * @return number of segments
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Acquires a reference to every current segment.
+     *
+     * @return The current segments, newest first, each of which must be released
+     */
+    private List<SegmentFile<V>> acquireSegments() {
+        for (; ; ) {
+            List<SegmentFile<V>> current = segments;
+            List<SegmentFile<V>> acquired = new ArrayList<>(current.size());
+            for (SegmentFile<V> file : current) {
+                if (!file.segment.acquire()) {
+                    break;
+                }
+                acquired.add(file);
+            }
+            if (acquired.size() == current.size()) {
+                return acquired;
+            }
+            release(acquired);
+        }
+    }
+
+    /**
+     * Releases a reference to each of the given segments, oldest first, so obsolete segments are deleted in the
+     * order they were written.
+     *
+     * @param files The segments to release, newest first
+     */
+    private static <V> void release(List<SegmentFile<V>> files) {
+        for (int i = files.size() - 1; i >= 0; i--) {
+            files.get(i).segment.release();
+        }
+    }
+
+    /**
+     * Returns a value whose associated key is k.
+     *
+     * @param key The key whose value is to be found
+     * @return Returns the value of the associated key
+     */
+    public V get(String key) throws IllegalArgumentException {
+        checkKey(key);
+        Mutation<V> mutation = memtable.get(key);
+        if (mutation != null) {
+            return mutation.value;
+        }
+        List<SegmentFile<V>> files = acquireSegments();
+        try {
+            for (SegmentFile<V> file : files) {
+                mutation = file.segment.find(key);
+                if (mutation != null) {
+                    return mutation.value;
+                }
+            }
+            return null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            release(files);
+        }
+    }
+
+    /**
+     * Inserts an entry with a given key and value into the map, returning
+     * the old value whose associated key is key if it exists.
+     *
+     * @param key   : The key whose value is to be replaced
+     * @param value : The new value that replaces the old one
+     * @return : Returns the old value associated to the key
+     */
+    public V put(String key, V value) throws IllegalArgumentException {
+        V old = get(key);
+        write(key, value);
+        return old;
+    }
+
+    /**
+     * Removes from the map the entry whose key is k, returning the value of
+     * the removed entry.
+     *
+     * @param key : The key whose value is to be removed
+     * @return : Returns the removed value
+     */
+    public V remove(String key) throws IllegalArgumentException {
+        V old = get(key);
+        if (old != null) {
+            delete(key);
+        }
+        return old;
+    }
+
+    /**
+     * Binds the key to the value without looking up the previous value.
+     *
+     * @param key   The key to bind
+     * @param value The value, which must not be null
+     */
+    public void write(String key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Value is null.");
+        }
+        memtable.put(key, new Mutation<>(value));
+        flushIfFull();
+    }
+
+    /**
+     * Deletes the key without looking up whether it is present.
+     *
+     * @param key The key to delete
+     */
+    public void delete(String key) throws IllegalArgumentException {
+        checkKey(key);
+        memtable.put(key, new Mutation<>(null));
+        flushIfFull();
+    }
+
+    /**
+     * Flushes the memtable once it holds the configured number of changes.
+     */
+    private void flushIfFull() {
+        if (memtable.size() >= memtableLimit) {
+            try {
+                flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Writes the memtable to a new segment and starts an empty memtable. Deletions are kept, since older segments
+     * may still hold the deleted keys.
+     *
+     * @throws IOException if the segment cannot be written, or if the last background compaction failed
+     */
+    public void flush() throws IOException {
+        if (!memtable.isEmpty()) {
+            long id = nextId++;
+            Segment<V> segment = Segment.write(directory.resolve(fileName(id, 0)), memtable.entrySet().iterator(),
+                    memtable.size(), true, codec);
+            synchronized (this) {
+                List<SegmentFile<V>> updated = new ArrayList<>(segments.size() + 1);
+                updated.add(new SegmentFile<>(id, 0, segment));
+                updated.addAll(segments);
+                segments = Collections.unmodifiableList(updated);
+            }
+            memtable = new StringTreeMap<>();
+        }
+        IOException failure;
+        synchronized (this) {
+            failure = compactionFailure;
+            compactionFailure = null;
+        }
+        scheduleCompaction();
+        if (failure != null) {
+            throw new IOException("Compaction failed.", failure);
+        }
+    }
+
+    /**
+     * Returns the file name of a segment.
+     *
+     * @param id         The segment id
+     * @param generation The compaction generation
+     * @return The file name
+     */
+    private static String fileName(long id, int generation) {
+        return String.format("segment-%019d-%d.sst", id, generation);
+    }
+
+    /**
+     * Schedules a compaction if there are too many segments, none is running and no failure is waiting to be
+     * reported.
+     */
+    private synchronized void scheduleCompaction() {
+        if (!compacting && compactionFailure == null && segments.size() >= compactionThreshold
+                && !compactor.isShutdown()) {
+            compacting = true;
+            compactor.execute(this::compact);
+        }
+    }
+
+    /**
+     * Merges all current segments into one. Segments flushed while the merge runs are newer than all merged ones
+     * and are kept in front of the result. Since no older segment remains, deletions are dropped. The merged
+     * segment takes the id of the newest merged segment with a higher generation, so it covers every segment with
+     * a lower id; if the process stops before the merged segments are deleted, opening the map discards them. The
+     * merged segments are retired oldest first. A failure is reported by the next {@link #flush()}.
+     */
+    private void compact() {
+        List<SegmentFile<V>> victims = acquireSegments();
+        try {
+            SegmentFile<V> newest = victims.get(0);
+            long expectedKeys = 0;
+            List<Iterator<Entry<String, Mutation<V>>>> sources = new ArrayList<>();
+            for (SegmentFile<V> file : victims) {
+                sources.add(file.segment.iterator());
+                expectedKeys += file.segment.count;
+            }
+            Segment<V> merged = Segment.write(directory.resolve(fileName(newest.id, newest.generation + 1)),
+                    new MergingIterator<>(sources), expectedKeys, false, codec);
+
+            synchronized (this) {
+                List<SegmentFile<V>> current = segments;
+                List<SegmentFile<V>> updated = new ArrayList<>(current.subList(0, current.size() - victims.size()));
+                updated.add(new SegmentFile<>(newest.id, newest.generation + 1, merged));
+                segments = Collections.unmodifiableList(updated);
+            }
+            for (int i = victims.size() - 1; i >= 0; i--) {
+                victims.get(i).segment.retire();
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            synchronized (this) {
+                compactionFailure = ex instanceof UncheckedIOException ? ((UncheckedIOException) ex).getCause()
+                        : (IOException) ex;
+            }
+        } finally {
+            release(victims);
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+        scheduleCompaction();
+    }
+
+    /**
+     * Returns the number of entries in the map. This scans every entry.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        int count = 0;
+        for (Entry<String, V> ignored : entrySet()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Tests whether the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns an iterable collection of the keys of all entries stored in the
+     * map.
+     *
+     * @return : Returns an iterable collection of key set
+     */
+    public Iterable<String> keySet() {
+        List<String> keyList = new ArrayList<>();
+        for (Entry<String, V> entryValue : entrySet()) {
+            keyList.add(entryValue.getKey());
+        }
+        return keyList;
+    }
+
+    /**
+     * Returns an iterable collection of the values of all entries stored in
+     * the map.
+     *
+     * @return : Returns an iterable collection of value set
+     */
+    public Iterable<V> values() {
+        List<V> valueList = new ArrayList<>();
+        for (Entry<String, V> entryValue : entrySet()) {
+            valueList.add(entryValue.getValue());
+        }
+        return valueList;
+    }
+
+    /**
+     * Returns an iterable collection of all entries stored in the map, in key order. Entries are read from the
+     * segments while iterating rather than loaded up front; each iterator must be run to the end, which
+     * releases the segments it reads, or compacted segments are kept on disk. A traversal which may stop early
+     * should use {@link #forEachWhile(BiPredicate)} instead.
+     *
+     * @return : Returns an iterable collection of entries
+     */
+    public Iterable<Entry<String, V>> entrySet() {
+        return () -> {
+            List<SegmentFile<V>> files = acquireSegments();
+            MergingIterator<V> merged = merge(files);
+
+            return new Iterator<>() {
+                private Entry<String, Mutation<V>> next = advance();
+
+                private Entry<String, Mutation<V>> advance() {
+                    while (merged.hasNext()) {
+                        Entry<String, Mutation<V>> candidate = merged.next();
+                        if (!candidate.getValue().isDeletion()) {
+                            return candidate;
+                        }
+                    }
+                    release(files);
+                    return null;
+                }
+
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                public Entry<String, V> next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Entry<String, Mutation<V>> current = next;
+                    next = advance();
+                    return new LsmEntry<>(current.getKey(), current.getValue().value);
+                }
+            };
+        };
+    }
+
+    /**
+     * Visits the entries in key order until the action returns false. The segments read are released when the
+     * traversal ends, whether it visited every entry, was stopped by the action or failed.
+     *
+     * @param action The action applied to each key and value; returns false to stop
+     * @return true if every entry was visited, false if the action stopped the traversal
+     */
+    @Override
+    public boolean forEachWhile(BiPredicate<? super String, ? super V> action) {
+        List<SegmentFile<V>> files = acquireSegments();
+        try {
+            MergingIterator<V> merged = merge(files);
+            while (merged.hasNext()) {
+                Entry<String, Mutation<V>> entry = merged.next();
+                if (!entry.getValue().isDeletion() && !action.test(entry.getKey(), entry.getValue().value)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            release(files);
+        }
+    }
+
+    /**
+     * Merges the memtable with segments into one iterator over the latest mutation of each key, in key order.
+     *
+     * @param files The segments, newest first
+     * @return The merged mutations
+     */
+    private MergingIterator<V> merge(List<SegmentFile<V>> files) {
+        List<Iterator<Entry<String, Mutation<V>>>> sources = new ArrayList<>(files.size() + 1);
+        sources.add(memtable.entrySet().iterator());
+        for (SegmentFile<V> file : files) {
+            sources.add(file.segment.iterator());
+        }
+        return new MergingIterator<>(sources);
+    }
+
+    /**
+     * Flushes the memtable, waits for a running compaction and closes the segment files.
+     *
+     * @throws IOException if the memtable cannot be flushed, or if a compaction failed
+     */
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            compactor.shutdown();
+            try {
+                compactor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            release(segments);
+            segments = Collections.emptyList();
+        }
+        synchronized (this) {
+            if (compactionFailure != null) {
+                throw new IOException("Compaction failed.", compactionFailure);
+            }
+        }
+    }
+
+    /**
+     * This class converts the map into a String
+     *
+     * @return Returns a string representation of the map
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (Entry<String, V> entry : entrySet()) {
+            sb.append("(");
+            sb.append(entry.getKey());
+            sb.append(", ");
+            sb.append(entry.getValue());
+            sb.append(")");
+            sb.append("\n");
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * A segment together with the id and generation recorded in its file name.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    private static final class SegmentFile<V> {
+        /**
+         * The id of the segment; higher ids are newer.
+         */
+        final long id;
+        /**
+         * The number of compactions which produced the segment.
+         */
+        final int generation;
+        /**
+         * The open segment.
+         */
+        final Segment<V> segment;
+
+        SegmentFile(long id, int generation, Segment<V> segment) {
+            this.id = id;
+            this.generation = generation;
+            this.segment = segment;
+        }
+    }
+
+    /**
+     * Merges iterators of mutations in key order. The sources are ordered newest first; when several sources hold
+     * the same key, only the mutation of the newest source is returned.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    private static final class MergingIterator<V> implements Iterator<Entry<String, Mutation<V>>> {
+        /**
+         * The sources with a pending mutation, ordered by key and then by age.
+         */
+        private final PriorityQueue<Source<V>> heads = new PriorityQueue<>(
+                Comparator.<Source<V>, String>comparing(source -> source.current.getKey())
+                        .thenComparingInt(source -> source.rank));
+
+        MergingIterator(List<Iterator<Entry<String, Mutation<V>>>> sources) {
+            for (int rank = 0; rank < sources.size(); rank++) {
+                Source<V> source = new Source<>(sources.get(rank), rank);
+                if (source.advance()) {
+                    heads.add(source);
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        public Entry<String, Mutation<V>> next() {
+            Source<V> newest = heads.poll();
+            if (newest == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<String, Mutation<V>> result = newest.current;
+            if (newest.advance()) {
+                heads.add(newest);
+            }
+            while (!heads.isEmpty() && heads.peek().current.getKey().equals(result.getKey())) {
+                Source<V> shadowed = heads.poll();
+                if (shadowed.advance()) {
+                    heads.add(shadowed);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * One input of the merge and its pending mutation.
+         */
+        private static final class Source<V> {
+            final Iterator<Entry<String, Mutation<V>>> iterator;
+            final int rank;
+            Entry<String, Mutation<V>> current;
+
+            Source(Iterator<Entry<String, Mutation<V>>> iterator, int rank) {
+                this.iterator = iterator;
+                this.rank = rank;
+            }
+
+            boolean advance() {
+                current = iterator.hasNext() ? iterator.next() : null;
+                return current != null;
+            }
+        }
+    }
+
+    /**
+     * An entry of the map, as returned by entrySet.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    private static final class LsmEntry<V> implements Entry<String, V> {
+        /**
+         * Stores the key of the entry
+         */
+        private final String key;
+        /**
+         * Stores the value of the entry
+         */
+        private final V value;
+
+        LsmEntry(String key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package edu.trinity.cpsc215f23.store;
+
+/**
+ * The latest change of a key recorded in a memtable or segment: either a new value or a deletion.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+final class Mutation<V> {
+
+    /**
+     * The new value, or null if the key was deleted.
+     */
+    final V value;
+
+    /**
+     * Creates an instance of the class Mutation
+     *
+     * @param value : The new value, or null for a deletion
+     */
+    Mutation(V value) {
+        this.value = value;
+    }
+
+    /**
+     * Tests whether this mutation deletes its key.
+     *
+     * @return true if the key was deleted
+     */
+    boolean isDeletion() {
+        return value == null;
+    }
+}
@@ -0,0 +1,663 @@
+package edu.trinity.cpsc215f23.store;
+
+import edu.trinity.cpsc215f23.Communications;
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.map.Map;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A map of contact names to communication options whose data is kept outside the Java heap. Each contact is
+ * serialized as one record into direct byte buffer chunks, and the map itself is a sorted array of int record
+ * addresses. The number of live heap objects therefore stays nearly constant however many contacts are stored;
+ * values are decoded into a fresh HashMap whenever they are read.
+ * <p>
+ * New keys are first inserted into a small sorted buffer of addresses, about the square root of the size of the
+ * map, which is merged into the main index in one backward pass when it fills up. An insert therefore moves
+ * O(sqrt n) addresses rather than O(n), so bulk loads of millions of contacts stay fast. Lookups search both
+ * arrays. Likewise, removing a key of the main index only marks its slot with a tombstone bit; tombstones are
+ * dropped by the next merge, which removes also start once about the square root of the size of the map are
+ * marked, so a remove moves no addresses of the main index. Putting a key back revives its slot.
+ * <p>
+ * A record is laid out as the UTF-8 key length (unsigned short), the key bytes, the number of communication
+ * options (byte), and for each option its ordinal (byte), the UTF-8 length of its handle (unsigned short) and
+ * the handle bytes. Records are aligned to 8 bytes so an int address covers 16 GiB of storage. Replaced and
+ * removed records are reclaimed by compacting the live records into fresh chunks once they make up most of the
+ * storage.
+ * <p>
+ * Keys are ordered by their UTF-8 bytes, which is code point order. This agrees with String.compareTo except for
+ * keys containing characters outside the Basic Multilingual Plane.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class OffHeapContactMap implements Map<String, HashMap<Communications, String>> {
+
+    /**
+     * Number of address bits of a byte offset within a chunk.
+     */
+    private static final int CHUNK_BITS = 20;
+
+    /**
+     * Size of each storage chunk in bytes.
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /**
+     * Records start at multiples of this many bytes.
+     */
+    private static final int ALIGNMENT_BITS = 3;
+
+    /**
+     * Largest key or handle length in UTF-8 bytes.
+     */
+    private static final int MAX_LENGTH = 0xFFFF;
+
+    /**
+     * All communication options, indexed by ordinal.
+     */
+    private static final Communications[] PLATFORMS = Communications.values();
+
+    /**
+     * The off-heap storage chunks.
+     */
+    private List<ByteBuffer> chunks = new ArrayList<>();
+
+    /**
+     * Byte offset at which the next record is appended.
+     */
+    private long tail = 0;
+
+    /**
+     * Addresses of the live records, sorted by key.
+     */
+    private int[] index = new int[16];
+
+    /**
+     * Number of slots in use in the main index, including tombstones.
+     */
+    private int size = 0;
+
+    /**
+     * Tombstone bits of the main index, one per slot: a set bit marks a removed key whose slot is kept until the
+     * next merge.
+     */
+    private long[] tombstones = new long[1];
+
+    /**
+     * Number of tombstones in the main index.
+     */
+    private int tombstoneCount = 0;
+
+    /**
+     * Addresses of recently inserted records, sorted by key; no key is in both arrays.
+     */
+    private int[] pending = new int[16];
+
+    /**
+     * Number of records in the pending buffer.
+     */
+    private int pendingSize = 0;
+
+    /**
+     * Bytes held by records which are no longer live.
+     */
+    private long garbage = 0;
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return size - tombstoneCount + pendingSize;
+    }
+
+    /**
+     * Tests whether the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the number of bytes of off-heap storage allocated by the map.
+     *
+     * @return allocated off-heap bytes
+     */
+    public long allocatedBytes() {
+        return (long) chunks.size() * CHUNK_SIZE;
+    }
+
+    /**
+     * Checks whether a given key is valid.
+     *
+     * @param key Stores the key to be checked
+     */
+    protected void checkKey(String key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key is null.");
+        }
+    }
+
+    /**
+     * Returns the chunk holding the given byte offset.
+     *
+     * @param offset A byte offset into the storage
+     * @return The chunk holding the offset
+     */
+    private ByteBuffer chunk(long offset) {
+        return chunks.get((int) (offset >>> CHUNK_BITS));
+    }
+
+    /**
+     * Returns the byte offset of a record address.
+     *
+     * @param address A record address
+     * @return The byte offset of the record
+     */
+    private static long offset(int address) {
+        return Integer.toUnsignedLong(address) << ALIGNMENT_BITS;
+    }
+
+    /**
+     * Tests whether a slot of the main index holds a tombstone.
+     *
+     * @param slot A slot of the main index
+     * @return true if the key of the slot was removed
+     */
+    private boolean isTombstone(int slot) {
+        return (tombstones[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Compares a key with the key of the record at the given address.
+     *
+     * @param key     The UTF-8 bytes of the key
+     * @param address The address of the record
+     * @return a negative integer, zero, or a positive integer as the key is less than, equal to, or greater than the
+     * key of the record
+     */
+    private int compare(byte[] key, int address) {
+        long offset = offset(address);
+        ByteBuffer chunk = chunk(offset);
+        int position = (int) (offset & (CHUNK_SIZE - 1));
+        int length = Short.toUnsignedInt(chunk.getShort(position));
+        position += Short.BYTES;
+        int common = Math.min(key.length, length);
+        for (int i = 0; i < common; i++) {
+            int comp = Byte.toUnsignedInt(key[i]) - Byte.toUnsignedInt(chunk.get(position + i));
+            if (comp != 0) {
+                return comp;
+            }
+        }
+        return key.length - length;
+    }
+
+    /**
+     * Searches a sorted array of addresses for a key.
+     *
+     * @param addresses The addresses, sorted by key
+     * @param count     The number of addresses in use
+     * @param key       The UTF-8 bytes of the key
+     * @return The slot of the key if present; otherwise (-(insertion slot) - 1)
+     */
+    private int search(int[] addresses, int count, byte[] key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comp = compare(key, addresses[mid]);
+            if (comp > 0) {
+                low = mid + 1;
+            } else if (comp < 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Encodes a string as UTF-8, checking its length fits a record.
+     *
+     * @param text The string to encode
+     * @return The UTF-8 bytes of the string
+     */
+    private static byte[] utf8(String text) throws IllegalArgumentException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Text is too long to store: " + bytes.length + " bytes.");
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the number of bytes of the record at the given address.
+     *
+     * @param address The address of the record
+     * @return The length of the record in bytes
+     */
+    private int recordLength(int address) {
+        long offset = offset(address);
+        return recordLength(chunk(offset), (int) (offset & (CHUNK_SIZE - 1)));
+    }
+
+    /**
+     * Decodes the key of the record at the given address.
+     *
+     * @param address The address of the record
+     * @return The key of the record
+     */
+    private String readKey(int address) {
+        long offset = offset(address);
+        ByteBuffer chunk = chunk(offset);
+        int position = (int) (offset & (CHUNK_SIZE - 1));
+        return readText(chunk, position);
+    }
+
+    /**
+     * Decodes the communication options of the record at the given address.
+     *
+     * @param address The address of the record
+     * @return The communication options of the record
+     */
+    private HashMap<Communications, String> readValue(int address) {
+        long offset = offset(address);
+        ByteBuffer chunk = chunk(offset);
+        int position = (int) (offset & (CHUNK_SIZE - 1));
+        position += Short.BYTES + Short.toUnsignedInt(chunk.getShort(position));
+        int count = chunk.get(position++);
+        HashMap<Communications, String> communications = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            Communications platform = PLATFORMS[chunk.get(position++)];
+            communications.put(platform, readText(chunk, position));
+            position += Short.BYTES + Short.toUnsignedInt(chunk.getShort(position));
+        }
+        return communications;
+    }
+
+    /**
+     * Decodes a length-prefixed UTF-8 string.
+     *
+     * @param chunk    The chunk holding the string
+     * @param position The position of the length prefix
+     * @return The decoded string
+     */
+    private static String readText(ByteBuffer chunk, int position) {
+        byte[] bytes = new byte[Short.toUnsignedInt(chunk.getShort(position))];
+        chunk.get(position + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reserves space for a record at the tail of the storage, starting a new chunk if the record does not fit in
+     * the current one.
+     *
+     * @param length The length of the record in bytes
+     * @return The address of the reserved space
+     */
+    private int reserve(int length) {
+        long alignment = 1L << ALIGNMENT_BITS;
+        long start = (tail + alignment - 1) & -alignment;
+        if ((start & (CHUNK_SIZE - 1)) + length > CHUNK_SIZE || start >>> CHUNK_BITS >= chunks.size()) {
+            start = (long) chunks.size() << CHUNK_BITS;
+            if (start >>> ALIGNMENT_BITS > 0xFFFFFFFFL) {
+                throw new IllegalStateException("Off-heap storage is full.");
+            }
+            chunks.add(ByteBuffer.allocateDirect(CHUNK_SIZE));
+        }
+        tail = start + length;
+        return (int) (start >>> ALIGNMENT_BITS);
+    }
+
+    /**
+     * Appends a record for the given key and communication options.
+     *
+     * @param key            The UTF-8 bytes of the key
+     * @param communications The communication options
+     * @return The address of the record
+     */
+    private int append(byte[] key, HashMap<Communications, String> communications) {
+        int count = communications.size();
+        byte[][] handles = new byte[count][];
+        Communications[] platforms = new Communications[count];
+        int length = Short.BYTES + key.length + Byte.BYTES;
+        int i = 0;
+        for (java.util.Map.Entry<Communications, String> communication : communications.entrySet()) {
+            platforms[i] = communication.getKey();
+            handles[i] = utf8(communication.getValue());
+            length += Byte.BYTES + Short.BYTES + handles[i].length;
+            i++;
+        }
+
+        int address = reserve(length);
+        long offset = offset(address);
+        ByteBuffer chunk = chunk(offset);
+        int position = (int) (offset & (CHUNK_SIZE - 1));
+        chunk.putShort(position, (short) key.length);
+        chunk.put(position + Short.BYTES, key);
+        position += Short.BYTES + key.length;
+        chunk.put(position++, (byte) count);
+        for (i = 0; i < count; i++) {
+            chunk.put(position++, (byte) platforms[i].ordinal());
+            chunk.putShort(position, (short) handles[i].length);
+            chunk.put(position + Short.BYTES, handles[i]);
+            position += Short.BYTES + handles[i].length;
+        }
+        return address;
+    }
+
+    /**
+     * Returns a value whose associated key is k.
+     *
+     * @param key The key whose value is to be found
+     * @return Returns a copy of the value of the associated key
+     */
+    public HashMap<Communications, String> get(String key) throws IllegalArgumentException {
+        checkKey(key);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int slot = search(index, size, keyBytes);
+        if (slot >= 0) {
+            return isTombstone(slot) ? null : readValue(index[slot]);
+        }
+        slot = search(pending, pendingSize, keyBytes);
+        return slot >= 0 ? readValue(pending[slot]) : null;
+    }
+
+    /**
+     * Inserts an entry with a given key and value into the map, returning
+     * the old value whose associated key is key if it exists.
+     *
+     * @param key   : The key whose value is to be replaced
+     * @param value : The new value that replaces the old one
+     * @return : Returns the old value associated to the key
+     */
+    public HashMap<Communications, String> put(String key, HashMap<Communications, String> value)
+            throws IllegalArgumentException {
+        checkKey(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Value is null.");
+        }
+        byte[] keyBytes = utf8(key);
+        int address = append(keyBytes, value);
+        int[] addresses = index;
+        int slot = search(index, size, keyBytes);
+        if (slot < 0) {
+            addresses = pending;
+            slot = search(pending, pendingSize, keyBytes);
+        }
+        if (slot >= 0 && addresses == index && isTombstone(slot)) {
+            index[slot] = address;
+            tombstones[slot >>> 6] &= ~(1L << slot);
+            tombstoneCount--;
+            return null;
+        }
+        if (slot >= 0) {
+            HashMap<Communications, String> old = readValue(addresses[slot]);
+            garbage += recordLength(addresses[slot]);
+            addresses[slot] = address;
+            compactIfWasteful();
+            return old;
+        }
+        slot = -(slot + 1);
+        if (pendingSize == pending.length) {
+            pending = Arrays.copyOf(pending, pendingSize * 2);
+        }
+        System.arraycopy(pending, slot, pending, slot + 1, pendingSize - slot);
+        pending[slot] = address;
+        pendingSize++;
+        if ((long) pendingSize * pendingSize > 4L * size + 1024) {
+            mergePending();
+        }
+        return null;
+    }
+
+    /**
+     * Drops the tombstones of the main index and merges the pending buffer into it. The tombstones are dropped in
+     * one forward pass; the pending buffer is then merged from the back, so every address of the index moves at
+     * most once: each pending key finds its slot by binary search among the index entries not yet moved.
+     */
+    private void mergePending() {
+        if (tombstoneCount > 0) {
+            int live = 0;
+            for (int slot = 0; slot < size; slot++) {
+                if (!isTombstone(slot)) {
+                    index[live++] = index[slot];
+                }
+            }
+            Arrays.fill(tombstones, 0L);
+            size = live;
+            tombstoneCount = 0;
+        }
+        if (pendingSize == 0) {
+            return;
+        }
+        if (size + pendingSize > index.length) {
+            index = Arrays.copyOf(index, Math.max(size + pendingSize, index.length * 2));
+            tombstones = new long[(index.length + 63) >>> 6];
+        }
+        int high = size;
+        for (int p = pendingSize - 1; p >= 0; p--) {
+            int slot = -(search(index, high, keyBytes(pending[p])) + 1);
+            System.arraycopy(index, slot, index, slot + p + 1, high - slot);
+            index[slot + p] = pending[p];
+            high = slot;
+        }
+        size += pendingSize;
+        pendingSize = 0;
+    }
+
+    /**
+     * Reads the UTF-8 bytes of the key of the record at the given address.
+     *
+     * @param address The address of the record
+     * @return The bytes of the key
+     */
+    private byte[] keyBytes(int address) {
+        long offset = offset(address);
+        ByteBuffer chunk = chunk(offset);
+        int position = (int) (offset & (CHUNK_SIZE - 1));
+        byte[] bytes = new byte[Short.toUnsignedInt(chunk.getShort(position))];
+        chunk.get(position + Short.BYTES, bytes);
+        return bytes;
+    }
+
+    /**
+     * Removes from the map the entry whose key is k, returning the value of
+     * the removed entry.
+     *
+     * @param key : The key whose value is to be removed
+     * @return : Returns the removed value
+     */
+    public HashMap<Communications, String> remove(String key) throws IllegalArgumentException {
+        checkKey(key);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int address;
+        int slot = search(index, size, keyBytes);
+        if (slot >= 0) {
+            if (isTombstone(slot)) {
+                return null;
+            }
+            address = index[slot];
+            tombstones[slot >>> 6] |= 1L << slot;
+            tombstoneCount++;
+        } else {
+            slot = search(pending, pendingSize, keyBytes);
+            if (slot < 0) {
+                return null;
+            }
+            address = pending[slot];
+            System.arraycopy(pending, slot + 1, pending, slot, --pendingSize - slot);
+        }
+        HashMap<Communications, String> old = readValue(address);
+        garbage += recordLength(address);
+        if ((long) tombstoneCount * tombstoneCount > 4L * size + 1024) {
+            mergePending();
+        }
+        compactIfWasteful();
+        return old;
+    }
+
+    /**
+     * Copies the live records into fresh chunks, in key order, once dead records take up more than half of the
+     * storage. The old chunks are released to the garbage collector.
+     */
+    private void compactIfWasteful() {
+        if (garbage < CHUNK_SIZE || garbage * 2 < tail) {
+            return;
+        }
+        mergePending();
+        List<ByteBuffer> oldChunks = chunks;
+        chunks = new ArrayList<>();
+        tail = 0;
+        garbage = 0;
+        for (int slot = 0; slot < size; slot++) {
+            long from = offset(index[slot]);
+            ByteBuffer source = oldChunks.get((int) (from >>> CHUNK_BITS));
+            int position = (int) (from & (CHUNK_SIZE - 1));
+            int length = recordLength(source, position);
+            int address = reserve(length);
+            long to = offset(address);
+            chunk(to).put((int) (to & (CHUNK_SIZE - 1)), source, position, length);
+            index[slot] = address;
+        }
+    }
+
+    /**
+     * Returns the number of bytes of the record at the given position of a chunk.
+     *
+     * @param chunk    The chunk holding the record
+     * @param position The position of the record
+     * @return The length of the record in bytes
+     */
+    private static int recordLength(ByteBuffer chunk, int position) {
+        int start = position;
+        position += Short.BYTES + Short.toUnsignedInt(chunk.getShort(position));
+        int count = chunk.get(position++);
+        for (int i = 0; i < count; i++) {
+            position += Byte.BYTES;
+            position += Short.BYTES + Short.toUnsignedInt(chunk.getShort(position));
+        }
+        return position - start;
+    }
+
+    /**
+     * Returns an iterable collection of the keys of all entries stored in the
+     * map.
+     *
+     * @return : Returns an iterable collection of key set
+     */
+    public Iterable<String> keySet() {
+        mergePending();
+        List<String> keyList = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            keyList.add(readKey(index[slot]));
+        }
+        return keyList;
+    }
+
+    /**
+     * Returns an iterable collection of the values of all entries stored in
+     * the map.
+     *
+     * @return : Returns an iterable collection of value set
+     */
+    public Iterable<HashMap<Communications, String>> values() {
+        mergePending();
+        List<HashMap<Communications, String>> valueList = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            valueList.add(readValue(index[slot]));
+        }
+        return valueList;
+    }
+
+    /**
+     * Returns an iterable collection of all entries stored in the map, in key order.
+     *
+     * @return : Returns an iterable collection of entries
+     */
+    public Iterable<Entry<String, HashMap<Communications, String>>> entrySet() {
+        mergePending();
+        List<Entry<String, HashMap<Communications, String>>> entryList = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            entryList.add(new ContactEntry(readKey(index[slot]), readValue(index[slot])));
+        }
+        return entryList;
+    }
+
+    /**
+     * This class converts the map into a String
+     *
+     * @return Returns a string representation of the map
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (Entry<String, HashMap<Communications, String>> entry : entrySet()) {
+            sb.append("(");
+            sb.append(entry.getKey());
+            sb.append(", ");
+            sb.append(entry.getValue());
+            sb.append(")");
+            sb.append("\n");
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * A decoded contact, as returned by entrySet.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    private static class ContactEntry implements Entry<String, HashMap<Communications, String>> {
+        /**
+         * Stores the key of the entry
+         */
+        private final String key;
+        /**
+         * Stores the value of the entry
+         */
+        private final HashMap<Communications, String> value;
+
+        /**
+         * Creates an instance of the class ContactEntry
+         *
+         * @param key   : The contact name
+         * @param value : The communication options of the contact
+         */
+        ContactEntry(String key, HashMap<Communications, String> value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * This method is used to access the key of the entry
+         *
+         * @return : Returns the contact name
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * This method is used to access the value of the entry
+         *
+         * @return : Returns the communication options of the contact
+         */
+        public HashMap<Communications, String> getValue() {
+            return value;
+        }
+    }
+}
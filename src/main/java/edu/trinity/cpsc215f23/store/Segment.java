@@ -0,0 +1,470 @@
+package edu.trinity.cpsc215f23.store;
+
+import edu.trinity.cpsc215f23.map.Entry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An immutable, sorted file of key mutations written by an {@link LsmTreeMap}. The file holds the records in key
+ * order, followed by a footer with the record count, a sparse index of every 32nd key and a Bloom filter over all
+ * keys. The footer is loaded into memory when the segment is opened, so a point lookup reads at most one block of
+ * 32 records from disk, and none at all when the Bloom filter rules the key out.
+ * <p>
+ * Segments are reference counted: the map holds one reference, and every reader acquires another for the duration
+ * of its read. A segment replaced by compaction is deleted once its last reader releases it.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+final class Segment<V> {
+
+    /**
+     * Marks the end of a complete segment file.
+     */
+    private static final int MAGIC = 0x4C534D31;
+
+    /**
+     * Number of records between two keys of the sparse index.
+     */
+    private static final int INDEX_INTERVAL = 32;
+
+    /**
+     * Size of the trailer: the offset of the footer and the magic number.
+     */
+    private static final int TRAILER_BYTES = Long.BYTES + Integer.BYTES;
+
+    /**
+     * The file of the segment.
+     */
+    final Path path;
+
+    /**
+     * The codec used for values.
+     */
+    private final ValueCodec<V> codec;
+
+    /**
+     * The open file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Every 32nd key of the segment.
+     */
+    private final String[] indexKeys;
+
+    /**
+     * The file offsets of the records of the index keys.
+     */
+    private final long[] indexOffsets;
+
+    /**
+     * The file offset at which the records end.
+     */
+    private final long dataEnd;
+
+    /**
+     * The number of records in the segment.
+     */
+    final long count;
+
+    /**
+     * Filter over the keys of the segment.
+     */
+    private final BloomFilter filter;
+
+    /**
+     * The number of holders of the segment, including the map itself.
+     */
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    /**
+     * Whether the file should be deleted once the last reference is released.
+     */
+    private volatile boolean obsolete;
+
+    /**
+     * Creates a segment over an open file.
+     */
+    private Segment(Path path, ValueCodec<V> codec, FileChannel channel, String[] indexKeys, long[] indexOffsets,
+                    long dataEnd, long count, BloomFilter filter) {
+        this.path = path;
+        this.codec = codec;
+        this.channel = channel;
+        this.indexKeys = indexKeys;
+        this.indexOffsets = indexOffsets;
+        this.dataEnd = dataEnd;
+        this.count = count;
+        this.filter = filter;
+    }
+
+    /**
+     * Writes a new segment file from mutations in strictly increasing key order, and opens it. The file is first
+     * written under a temporary name, forced to the disk and then moved into place, so neither a crash nor a power
+     * loss leaves a partial segment.
+     *
+     * @param path            The file to write
+     * @param mutations       The mutations to write, in key order
+     * @param expectedKeys    An upper bound on the number of mutations, used to size the Bloom filter
+     * @param keepDeletions   Whether deletions are written; they may be dropped when no older segment remains
+     * @param codec           The codec for values
+     * @return The new segment
+     * @throws IOException if the file cannot be written
+     */
+    static <V> Segment<V> write(Path path, Iterator<? extends Entry<String, Mutation<V>>> mutations, long expectedKeys,
+                                boolean keepDeletions, ValueCodec<V> codec) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        BloomFilter filter = new BloomFilter(expectedKeys);
+        List<String> indexKeys = new ArrayList<>();
+        long[] indexOffsets = new long[16];
+
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(Channels.newOutputStream(file), 1 << 16));
+             DataOutputStream out = new DataOutputStream(counter)) {
+            long count = 0;
+            while (mutations.hasNext()) {
+                Entry<String, Mutation<V>> mutation = mutations.next();
+                if (mutation.getValue().isDeletion() && !keepDeletions) {
+                    continue;
+                }
+                if (count % INDEX_INTERVAL == 0) {
+                    if (indexKeys.size() == indexOffsets.length) {
+                        indexOffsets = Arrays.copyOf(indexOffsets, indexOffsets.length * 2);
+                    }
+                    indexOffsets[indexKeys.size()] = counter.written;
+                    indexKeys.add(mutation.getKey());
+                }
+                filter.add(mutation.getKey());
+                out.writeBoolean(mutation.getValue().isDeletion());
+                out.writeUTF(mutation.getKey());
+                if (!mutation.getValue().isDeletion()) {
+                    codec.write(out, mutation.getValue().value);
+                }
+                count++;
+            }
+
+            long footer = counter.written;
+            out.writeLong(count);
+            out.writeInt(indexKeys.size());
+            for (int i = 0; i < indexKeys.size(); i++) {
+                out.writeUTF(indexKeys.get(i));
+                out.writeLong(indexOffsets[i]);
+            }
+            filter.write(out);
+            out.writeLong(footer);
+            out.writeInt(MAGIC);
+            out.flush();
+            file.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        try (FileChannel parent = FileChannel.open(path.getParent(), StandardOpenOption.READ)) {
+            parent.force(true);
+        } catch (IOException ex) {
+            // Some platforms cannot open a directory; their file systems make the rename durable on their own.
+        }
+
+        return open(path, codec);
+    }
+
+    /**
+     * Opens an existing segment file and loads its footer.
+     *
+     * @param path  The file to open
+     * @param codec The codec for values
+     * @return The segment
+     * @throws IOException if the file cannot be read or is not a complete segment
+     */
+    static <V> Segment<V> open(Path path, ValueCodec<V> codec) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < TRAILER_BYTES) {
+                throw new IOException("Segment " + path + " is truncated.");
+            }
+            ByteBuffer trailer = readFully(channel, size - TRAILER_BYTES, TRAILER_BYTES);
+            long dataEnd = trailer.getLong();
+            if (trailer.getInt() != MAGIC || dataEnd < 0 || dataEnd > size - TRAILER_BYTES) {
+                throw new IOException("Segment " + path + " is corrupt.");
+            }
+
+            ByteBuffer footer = readFully(channel, dataEnd, (int) (size - TRAILER_BYTES - dataEnd));
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer.array()));
+            long count = in.readLong();
+            String[] indexKeys = new String[in.readInt()];
+            long[] indexOffsets = new long[indexKeys.length];
+            for (int i = 0; i < indexKeys.length; i++) {
+                indexKeys[i] = in.readUTF();
+                indexOffsets[i] = in.readLong();
+            }
+            BloomFilter filter = BloomFilter.read(in);
+
+            return new Segment<>(path, codec, channel, indexKeys, indexOffsets, dataEnd, count, filter);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Reads a range of a file into a new heap buffer.
+     *
+     * @param channel  The file
+     * @param position The offset of the range
+     * @param length   The length of the range
+     * @return The bytes read, positioned at the start
+     * @throws IOException if the range cannot be read
+     */
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of segment.");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Looks up the latest mutation of a key in this segment.
+     *
+     * @param key The key to look up
+     * @return The mutation of the key, or null if the segment holds none
+     * @throws IOException if the file cannot be read
+     */
+    Mutation<V> find(String key) throws IOException {
+        if (!filter.mightContain(key)) {
+            return null;
+        }
+        int low = 0;
+        int high = indexKeys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexKeys[mid].compareTo(key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high < 0) {
+            return null;
+        }
+        long start = indexOffsets[high];
+        long end = high + 1 < indexOffsets.length ? indexOffsets[high + 1] : dataEnd;
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(readFully(channel, start, (int) (end - start)).array()));
+        while (in.available() > 0) {
+            boolean deletion = in.readBoolean();
+            String recordKey = in.readUTF();
+            V value = deletion ? null : codec.read(in);
+            int comp = recordKey.compareTo(key);
+            if (comp == 0) {
+                return new Mutation<>(value);
+            } else if (comp > 0) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns an iterator over all mutations of the segment, in key order. The caller must hold a reference to the
+     * segment while iterating.
+     *
+     * @return An iterator over the mutations of the segment
+     */
+    Iterator<Entry<String, Mutation<V>>> iterator() {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new ChannelInputStream(channel, dataEnd), 1 << 16));
+
+        return new Iterator<>() {
+            private long remaining = count;
+
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            public Entry<String, Mutation<V>> next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    boolean deletion = in.readBoolean();
+                    String key = in.readUTF();
+                    Mutation<V> mutation = new Mutation<>(deletion ? null : codec.read(in));
+                    remaining--;
+                    return new Record<>(key, mutation);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        };
+    }
+
+    /**
+     * Acquires a reference to the segment for reading.
+     *
+     * @return true if the reference was acquired, false if the segment has already been closed
+     */
+    boolean acquire() {
+        for (; ; ) {
+            int current = references.get();
+            if (current == 0) {
+                return false;
+            }
+            if (references.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a reference to the segment. The file is closed when the last reference is released, and deleted as
+     * well if the segment is obsolete.
+     */
+    void release() {
+        if (references.decrementAndGet() == 0) {
+            try {
+                channel.close();
+                if (obsolete) {
+                    Files.deleteIfExists(path);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Marks the segment as replaced and releases the map's reference to it.
+     */
+    void retire() {
+        obsolete = true;
+        release();
+    }
+
+    /**
+     * A mutation read from a segment.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    private static final class Record<V> implements Entry<String, Mutation<V>> {
+        /**
+         * Stores the key of the record
+         */
+        private final String key;
+        /**
+         * Stores the mutation of the record
+         */
+        private final Mutation<V> mutation;
+
+        /**
+         * Creates an instance of the class Record
+         *
+         * @param key      : The key of the record
+         * @param mutation : The mutation of the key
+         */
+        Record(String key, Mutation<V> mutation) {
+            this.key = key;
+            this.mutation = mutation;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Mutation<V> getValue() {
+            return mutation;
+        }
+    }
+
+    /**
+     * An input stream over a range of a file channel using positional reads, so several readers can share the
+     * channel.
+     */
+    private static final class ChannelInputStream extends InputStream {
+        /**
+         * The file to read.
+         */
+        private final FileChannel channel;
+        /**
+         * The offset at which the stream ends.
+         */
+        private final long end;
+        /**
+         * The offset of the next byte to read.
+         */
+        private long position = 0;
+
+        ChannelInputStream(FileChannel channel, long end) {
+            this.channel = channel;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, end - position)), position);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+
+    /**
+     * An output stream which counts the bytes written through it.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        /**
+         * Number of bytes written so far.
+         */
+        long written = 0;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            written += length;
+        }
+    }
+}
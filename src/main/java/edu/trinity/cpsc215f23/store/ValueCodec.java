@@ -0,0 +1,32 @@
+package edu.trinity.cpsc215f23.store;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * An interface for writing values of a map to a binary stream and reading them back.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public interface ValueCodec<V> {
+
+    /**
+     * Writes a value to the output.
+     *
+     * @param out   The output to write to
+     * @param value The value to write, never null
+     * @throws IOException if the output cannot be written
+     */
+    void write(DataOutput out, V value) throws IOException;
+
+    /**
+     * Reads a value written by {@link #write(DataOutput, Object)}.
+     *
+     * @param in The input to read from
+     * @return The value read
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    V read(DataInput in) throws IOException;
+}
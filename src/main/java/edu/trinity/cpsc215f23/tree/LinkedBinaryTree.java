@@ -25,7 +25,24 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
     protected int size = 0;
 
     /**
-     * Factory function to create a new node storing the given element.
+     * Removed nodes kept for reuse, linked through their left references.
+     */
+    private Node<E> freeNodes = null;
+
+    /**
+     * Number of nodes in the free list.
+     */
+    private int freeCount = 0;
+
+    /**
+     * Largest number of removed nodes kept for reuse; 0 disables recycling.
+     */
+    private int maxFreeNodes = 0;
+
+    /**
+     * Factory function to create a new node storing the given element. When node recycling is enabled, a
+     * removed node is reused if one is available, and the node is given a handle for its lifetime so that it
+     * can be recycled later.
      *
      * @param element Stores the value of the element in the node
      * @param parent  Stores the reference to the parent node
@@ -34,26 +51,117 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
      * @return Returns a node with references
      */
     protected Node<E> createNode(E element, Node<E> parent, Node<E> left, Node<E> right) {
-        return new Node<>(element, parent, left, right);
+        Node<E> node = freeNodes;
+        if (node == null) {
+            node = new Node<>(element, parent, left, right);
+            if (maxFreeNodes > 0) {
+                node.handle = new Handle<>(node);
+            }
+            return node;
+        }
+        freeNodes = node.left;
+        freeCount--;
+        node.element = element;
+        node.parent = parent;
+        node.left = left;
+        node.right = right;
+        node.handle = new Handle<>(node);
+        return node;
+    }
+
+    /**
+     * Returns the position handed out for a node: its handle for the current lifetime if the node can be
+     * recycled, or else the node itself. Every accessor returns positions through this method, so two positions
+     * of the same live node are always identical.
+     *
+     * @param node a node of the tree, or null
+     * @return the position of the node, or null if node is null
+     */
+    protected Position<E> position(Node<E> node) {
+        return node == null || node.handle == null ? node : node.handle;
+    }
+
+    /**
+     * Enables or disables node recycling. While enabled, removed nodes are kept in a free list of the tree and
+     * reused by later insertions instead of being left to the garbage collector, so a tree whose size stays
+     * steady under constant insertions and removals stops allocating nodes.
+     * <p>
+     * The Position contract is unchanged: a removed position stays defunct even after its node is reused. Nodes
+     * created while recycling is enabled hand out a small handle for each lifetime instead of themselves, and
+     * {@link #validate(Position)} and {@link Position#getElement()} reject a handle whose node has been removed
+     * since. Only such nodes are kept for reuse; nodes created while recycling was disabled are left to the
+     * garbage collector.
+     *
+     * @param maxFreeNodes The largest number of removed nodes to keep, or 0 to disable recycling
+     * @throws IllegalArgumentException if maxFreeNodes is negative
+     */
+    public void setNodeRecycling(int maxFreeNodes) throws IllegalArgumentException {
+        if (maxFreeNodes < 0) {
+            throw new IllegalArgumentException("The free list cannot have a negative size.");
+        }
+        this.maxFreeNodes = maxFreeNodes;
+        while (freeCount > maxFreeNodes) {
+            freeNodes = freeNodes.left;
+            freeCount--;
+        }
+    }
+
+    /**
+     * Returns the generation of a position, which changes every time its node is removed from the tree.
+     *
+     * @param position a Position of the tree
+     * @return the generation of the position
+     * @throws IllegalArgumentException if position is not a valid Position
+     */
+    public int generation(Position<E> position) throws IllegalArgumentException {
+        return validate(position).generation;
+    }
+
+    /**
+     * Tests whether a position is still the node it was when its generation was recorded, that is, it has not
+     * been removed since, even if its node was recycled.
+     *
+     * @param position   a Position of the tree
+     * @param generation the generation recorded for the position
+     * @return true if the position is in the tree and has the given generation
+     */
+    public boolean isValid(Position<E> position, int generation) {
+        Node<E> node = node(position);
+        return node != null && node.getParent() != node && node.generation == generation;
+    }
+
+    /**
+     * Returns the node a position refers to, or null if the position is not of this tree's type or is a handle
+     * whose node has been removed since the handle was handed out.
+     *
+     * @param position a Position
+     * @return the node, or null
+     */
+    private Node<E> node(Position<E> position) {
+        if (position instanceof Handle<E> handle) {
+            return handle.node.handle == handle ? handle.node : null;
+        }
+        return position instanceof Node<E> node ? node : null;
     }
 
     /**
      * Verifies that a Position belongs to the appropriate class, and is not
      * one that has been previously removed. Note that our current
      * implementation does not actually verify that the position belongs to
-     * this particular list instance.
+     * this particular list instance. A removed position is rejected even if its
+     * node was recycled; see {@link #setNodeRecycling(int)}.
      *
      * @param position a Position (that should belong to this tree)
      * @return the underlying Node instance for the position
      * @throws IllegalArgumentException if an invalid position is detected
      */
     protected Node<E> validate(Position<E> position) throws IllegalArgumentException {
-        if (!(position instanceof Node<E> node)) {
+        if (!(position instanceof Node<E> || position instanceof Handle<E>)) {
             throw new IllegalArgumentException("Not a valid position type.");
         }
 
-        // safe cast
-        if (node.getParent() == node)     // Convention for defunct node
+        Node<E> node = node(position);
+        if (node == null || node.getParent() == node)     // Convention for defunct node
         {
             throw new IllegalArgumentException("position is no longer in the tree");
         }
@@ -79,7 +187,7 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
      * @return root Position of the tree (or null if tree is empty)
      */
     public Position<E> root() {
-        return root;
+        return position(root);
     }
 
     /**
@@ -90,7 +198,7 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
      * @throws IllegalArgumentException if position is not a valid Position
      */
     public Position<E> parent(Position<E> position) throws IllegalArgumentException {
-        return validate(position).getParent();
+        return position(validate(position).getParent());
     }
 
     /**
@@ -101,7 +209,7 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
      * @throws IllegalArgumentException if position is not a valid Position
      */
     public Position<E> left(Position<E> position) throws IllegalArgumentException {
-        return validate(position).getLeft();
+        return position(validate(position).getLeft());
     }
 
     /**
@@ -112,7 +220,7 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
      * @throws IllegalArgumentException if position is not a valid Position
      */
     public Position<E> right(Position<E> position) throws IllegalArgumentException {
-        return validate(position).getRight();
+        return position(validate(position).getRight());
     }
 
     /**
@@ -130,7 +238,7 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
         root = createNode(element, null, null, null);
         size = 1;
 
-        return root;
+        return position(root);
     }
 
     /**
@@ -152,7 +260,7 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
         parent.setLeft(child);
         size++;
 
-        return child;
+        return position(child);
     }
 
     /**
@@ -174,7 +282,7 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
         parent.setRight(child);
         size++;
 
-        return child;
+        return position(child);
     }
 
     /**
@@ -258,10 +366,118 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
         node.setLeft(null);
         node.setRight(null);
         node.setParent(node);                 // our convention for defunct node
+        node.generation++;
+        boolean recyclable = node.handle != null;
+        node.handle = null;                   // retires the handle held by callers
+        if (recyclable && freeCount < maxFreeNodes) {
+            node.left = freeNodes;
+            freeNodes = node;
+            freeCount++;
+        }
 
         return temp;
     }
 
+    /**
+     * Rotates the node at the given position above its parent. The parent becomes a child of the node, and the
+     * node's inner subtree moves across to the parent, so the inorder sequence of the tree is unchanged.
+     *
+     * @param position the position to rotate above its parent
+     * @throws IllegalArgumentException if position is not a valid Position or is the root
+     */
+    protected void rotate(Position<E> position) throws IllegalArgumentException {
+        Node<E> node = validate(position);
+        Node<E> parent = node.getParent();
+        if (parent == null) {
+            throw new IllegalArgumentException("position is the root");
+        }
+        Node<E> grandparent = parent.getParent();
+        if (grandparent == null) {
+            root = node;
+            node.setParent(null);
+        } else {
+            relink(grandparent, node, parent == grandparent.getLeft());
+        }
+        if (node == parent.getLeft()) {
+            relink(parent, node.getRight(), true);
+            relink(node, parent, false);
+        } else {
+            relink(parent, node.getLeft(), false);
+            relink(node, parent, true);
+        }
+    }
+
+    /**
+     * Exchanges the places of two nodes in the tree. Each node keeps its element and takes over the parent and
+     * children of the other, so positions held for either element stay valid.
+     *
+     * @param p a position of the tree
+     * @param q another position of the tree
+     * @throws IllegalArgumentException if either position is not a valid Position
+     */
+    protected void swap(Position<E> p, Position<E> q) throws IllegalArgumentException {
+        Node<E> a = validate(p);
+        Node<E> b = validate(q);
+        if (a == b) {
+            return;
+        }
+        Node<E> aParent = a.parent;
+        Node<E> aLeft = a.left;
+        Node<E> aRight = a.right;
+        Node<E> bParent = b.parent;
+        Node<E> bLeft = b.left;
+        Node<E> bRight = b.right;
+
+        if (aParent != null && aParent == bParent) {
+            Node<E> left = aParent.left;
+            aParent.left = aParent.right;
+            aParent.right = left;
+        } else {
+            if (aParent == null) {
+                root = b;
+            } else if (aParent != b) {
+                relink(aParent, b, aParent.left == a);
+            }
+            if (bParent == null) {
+                root = a;
+            } else if (bParent != a) {
+                relink(bParent, a, bParent.left == b);
+            }
+        }
+        a.parent = bParent == a ? b : bParent;
+        a.left = bLeft == a ? b : bLeft;
+        a.right = bRight == a ? b : bRight;
+        b.parent = aParent == b ? a : aParent;
+        b.left = aLeft == b ? a : aLeft;
+        b.right = aRight == b ? a : aRight;
+        for (Node<E> child : List.of(a, b)) {
+            if (child.left != null) {
+                child.left.parent = child;
+            }
+            if (child.right != null) {
+                child.right.parent = child;
+            }
+        }
+    }
+
+    /**
+     * Makes a node the left or right child of a parent.
+     *
+     * @param parent    the new parent
+     * @param child     the new child, or null
+     * @param leftChild whether the child becomes the left child
+     */
+    private void relink(Node<E> parent, Node<E> child, boolean leftChild) {
+        if (child != null) {
+            child.setParent(parent);
+        }
+        if (leftChild) {
+            parent.setLeft(child);
+        } else {
+            parent.setRight(child);
+        }
+    }
+
     /**
      * It returns an iterable collection by preorder traversal of elements in the BinaryTree
      *
@@ -380,6 +596,16 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
          */
         private Node<E> right;
 
+        /**
+         * The number of times the node was removed from the tree.
+         */
+        private int generation;
+
+        /**
+         * The position handed out for the current lifetime of the node, or null if the node is its own position.
+         */
+        private Handle<E> handle;
+
         /**
          * Constructs a node with the given element and neighbors.
          *
@@ -468,4 +694,38 @@ public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
         }
     }
 
+    /**
+     * The position of a recyclable node for one lifetime of the node. The handle is retired when the node is
+     * removed, so it cannot be mistaken for the node's next lifetime.
+     */
+    private static final class Handle<E> implements Position<E> {
+        /**
+         * The node the handle refers to.
+         */
+        private final Node<E> node;
+
+        /**
+         * Creates a handle for the current lifetime of a node.
+         *
+         * @param node the node the handle refers to
+         */
+        private Handle(Node<E> node) {
+            this.node = node;
+        }
+
+        /**
+         * Returns the element stored at the node, if the handle is still current.
+         *
+         * @return the stored element
+         * @throws IllegalStateException if the node was removed since the handle was handed out
+         */
+        @Override
+        public E getElement() throws IllegalStateException {
+            if (node.handle != this) {
+                throw new IllegalStateException("position is no longer in the tree");
+            }
+            return node.element;
+        }
+    }
+
 }
@@ -0,0 +1,620 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.map.Map;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Realization of a map by means of a B+ tree. Every node holds up to {@code order} keys in a sorted array, so a
+ * search touches a handful of wide nodes instead of one node per comparison. Entries are stored only in the
+ * leaves, which are linked in key order so that iterating over the map is a sequential scan.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class BPlusTreeMap<K, V> implements Map<K, V> {
+
+    /**
+     * The number of keys per node used by default.
+     */
+    public static final int DEFAULT_ORDER = 64;
+
+    /**
+     * It is used to compare elements in the class
+     */
+    protected final Comparator<K> comparator;
+
+    /**
+     * The maximum number of keys in a node.
+     */
+    private final int order;
+
+    /**
+     * The minimum number of keys in a node other than the root.
+     */
+    private final int minKeys;
+
+    /**
+     * The leftmost leaf, where iteration starts. Since merges always keep the left node, it never changes.
+     */
+    private final Leaf first;
+
+    /**
+     * The root of the tree.
+     */
+    private Node root;
+
+    /**
+     * The number of entries in the map.
+     */
+    private int size = 0;
+
+    /**
+     * The separator key produced by the most recent node split.
+     */
+    private Object splitKey;
+
+    /**
+     * Creates a BPlusTreeMap with a default comparator and order.
+     */
+    public BPlusTreeMap() {
+        this(new DefaultComparator<>(), DEFAULT_ORDER);
+    }
+
+    /**
+     * Creates a BPlusTreeMap with comparator parameter
+     *
+     * @param comparator Stores the comparison value of objects in the class
+     */
+    public BPlusTreeMap(Comparator<K> comparator) {
+        this(comparator, DEFAULT_ORDER);
+    }
+
+    /**
+     * Creates a BPlusTreeMap with comparator and order parameters
+     *
+     * @param comparator Stores the comparison value of objects in the class
+     * @param order      The maximum number of keys in a node, at least 3
+     */
+    public BPlusTreeMap(Comparator<K> comparator, int order) {
+        if (order < 3) {
+            throw new IllegalArgumentException("Order must be at least 3.");
+        }
+        this.comparator = comparator;
+        this.order = order;
+        this.minKeys = order / 2;
+        first = new Leaf();
+        root = first;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tests whether the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks whether a given key is valid.
+     *
+     * @param key Stores the key to be checked
+     */
+    protected void checkKey(K key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key is null.");
+        }
+    }
+
+    /**
+     * Compares a key with a key stored in a node.
+     *
+     * @param key    The key to compare
+     * @param stored The stored key
+     * @return a negative integer, zero, or a positive integer as key is less than, equal to, or greater than stored
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(K key, Object stored) {
+        return comparator.compare(key, (K) stored);
+    }
+
+    /**
+     * Returns the leaf whose key range covers the given key.
+     *
+     * @param key The key to search for
+     * @return The leaf which holds the key if it is present
+     */
+    private Leaf findLeaf(K key) {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[inner.childIndex(key)];
+        }
+        return (Leaf) node;
+    }
+
+    /**
+     * Returns a value whose associated key is k.
+     *
+     * @param key The key whose value is to be found
+     * @return Returns the value of the associated key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Leaf leaf = findLeaf(key);
+        int slot = leaf.search(key);
+        return slot >= 0 ? (V) leaf.values[slot] : null;
+    }
+
+    /**
+     * Inserts an entry with a given key and value into the map, returning
+     * the old value whose associated key is key if it exists.
+     *
+     * @param key   : The key whose value is to be replaced
+     * @param value : The new value that replaces the old one
+     * @return : Returns the old value associated to the key
+     */
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        Leaf leaf = findLeaf(key);
+        int slot = leaf.search(key);
+        if (slot >= 0) {
+            V old = (V) leaf.values[slot];
+            leaf.values[slot] = value;
+            return old;
+        }
+        Node sibling = root.insert(key, value);
+        if (sibling != null) {
+            Inner newRoot = new Inner();
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = sibling;
+            newRoot.count = 1;
+            root = newRoot;
+        }
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes from the map the entry whose key is k, returning the value of
+     * the removed entry.
+     *
+     * @param key : The key whose value is to be removed
+     * @return : Returns the removed value
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Leaf leaf = findLeaf(key);
+        int slot = leaf.search(key);
+        if (slot < 0) {
+            return null;
+        }
+        V old = (V) leaf.values[slot];
+        root.delete(key);
+        if (root instanceof Inner inner && inner.count == 0) {
+            root = inner.children[0];
+        }
+        size--;
+        return old;
+    }
+
+    /**
+     * Returns an iterable collection of the keys of all entries stored in the
+     * map.
+     *
+     * @return : Returns an iterable collection of key set
+     */
+    @SuppressWarnings("unchecked")
+    public Iterable<K> keySet() {
+        List<K> keyList = new ArrayList<>(size);
+        for (Leaf leaf = first; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                keyList.add((K) leaf.keys[i]);
+            }
+        }
+        return keyList;
+    }
+
+    /**
+     * Returns an iterable collection of the values of all entries stored in
+     * the map.
+     *
+     * @return : Returns an iterable collection of value set
+     */
+    @SuppressWarnings("unchecked")
+    public Iterable<V> values() {
+        List<V> valueList = new ArrayList<>(size);
+        for (Leaf leaf = first; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                valueList.add((V) leaf.values[i]);
+            }
+        }
+        return valueList;
+    }
+
+    /**
+     * Returns an iterable collection of all entries stored in the map, in key order.
+     *
+     * @return : Returns an iterable collection of entries
+     */
+    @SuppressWarnings("unchecked")
+    public Iterable<Entry<K, V>> entrySet() {
+        List<Entry<K, V>> entryList = new ArrayList<>(size);
+        for (Leaf leaf = first; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                entryList.add(new LeafEntry<>((K) leaf.keys[i], (V) leaf.values[i]));
+            }
+        }
+        return entryList;
+    }
+
+    /**
+     * This class converts a tree into a String
+     *
+     * @return Returns a string representation of a tree
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (Entry<K, V> entry : entrySet()) {
+            sb.append("(");
+            sb.append(entry.getKey());
+            sb.append(", ");
+            sb.append(entry.getValue());
+            sb.append(")");
+            sb.append("\n");
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * A node of the tree, holding a sorted array of keys.
+     */
+    private abstract class Node {
+        /**
+         * The keys of the node; one spare slot holds a key before the node is split.
+         */
+        final Object[] keys = new Object[order + 1];
+
+        /**
+         * The number of keys in the node.
+         */
+        int count;
+
+        /**
+         * Binary search for a key among the keys of the node.
+         *
+         * @param key The key to search for
+         * @return The slot of the key if present; otherwise (-(insertion slot) - 1)
+         */
+        int search(K key) {
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int comp = compare(key, keys[mid]);
+                if (comp > 0) {
+                    low = mid + 1;
+                } else if (comp < 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * Inserts a key which is not yet in the subtree of this node.
+         *
+         * @param key   The key to insert
+         * @param value The value to bind to the key
+         * @return The new right sibling if the node was split, with its separator in splitKey; otherwise null
+         */
+        abstract Node insert(K key, V value);
+
+        /**
+         * Deletes a key which is present in the subtree of this node. The node may underflow, which is repaired
+         * by its parent.
+         *
+         * @param key The key to delete
+         */
+        abstract void delete(K key);
+    }
+
+    /**
+     * A leaf node, holding the entries of the map.
+     */
+    private class Leaf extends Node {
+        /**
+         * The values bound to the keys of the leaf.
+         */
+        final Object[] values = new Object[order + 1];
+
+        /**
+         * The next leaf in key order, or null if this is the last leaf.
+         */
+        Leaf next;
+
+        @Override
+        Node insert(K key, V value) {
+            int slot = -(search(key) + 1);
+            System.arraycopy(keys, slot, keys, slot + 1, count - slot);
+            System.arraycopy(values, slot, values, slot + 1, count - slot);
+            keys[slot] = key;
+            values[slot] = value;
+            count++;
+            if (count <= order) {
+                return null;
+            }
+            Leaf right = new Leaf();
+            int mid = count / 2;
+            right.count = count - mid;
+            System.arraycopy(keys, mid, right.keys, 0, right.count);
+            System.arraycopy(values, mid, right.values, 0, right.count);
+            clear(mid, count);
+            count = mid;
+            right.next = next;
+            next = right;
+            splitKey = right.keys[0];
+            return right;
+        }
+
+        @Override
+        void delete(K key) {
+            int slot = search(key);
+            System.arraycopy(keys, slot + 1, keys, slot, count - slot - 1);
+            System.arraycopy(values, slot + 1, values, slot, count - slot - 1);
+            count--;
+            clear(count, count + 1);
+        }
+
+        /**
+         * Releases the references held in a range of slots.
+         *
+         * @param from The first slot to clear
+         * @param to   The slot after the last one to clear
+         */
+        void clear(int from, int to) {
+            for (int i = from; i < to; i++) {
+                keys[i] = null;
+                values[i] = null;
+            }
+        }
+    }
+
+    /**
+     * An inner node, holding separator keys and children. Child i holds the keys less than separator i, and
+     * child i + 1 the keys greater than or equal to it.
+     */
+    private class Inner extends Node {
+        /**
+         * The children of the node; one spare slot holds a child before the node is split.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Node[] children = new BPlusTreeMap.Node[order + 2];
+
+        /**
+         * Returns the slot of the child whose key range covers the given key.
+         *
+         * @param key The key to search for
+         * @return The slot of the child
+         */
+        int childIndex(K key) {
+            int slot = search(key);
+            return slot >= 0 ? slot + 1 : -(slot + 1);
+        }
+
+        @Override
+        Node insert(K key, V value) {
+            int child = childIndex(key);
+            Node sibling = children[child].insert(key, value);
+            if (sibling == null) {
+                return null;
+            }
+            System.arraycopy(keys, child, keys, child + 1, count - child);
+            System.arraycopy(children, child + 1, children, child + 2, count - child);
+            keys[child] = splitKey;
+            children[child + 1] = sibling;
+            count++;
+            if (count <= order) {
+                return null;
+            }
+            Inner right = new Inner();
+            int mid = count / 2;
+            Object promoted = keys[mid];
+            right.count = count - mid - 1;
+            System.arraycopy(keys, mid + 1, right.keys, 0, right.count);
+            System.arraycopy(children, mid + 1, right.children, 0, right.count + 1);
+            for (int i = mid; i < count; i++) {
+                keys[i] = null;
+                children[i + 1] = null;
+            }
+            count = mid;
+            splitKey = promoted;
+            return right;
+        }
+
+        @Override
+        void delete(K key) {
+            int child = childIndex(key);
+            children[child].delete(key);
+            if (children[child].count < minKeys) {
+                rebalance(child);
+            }
+        }
+
+        /**
+         * Repairs an underflowing child by borrowing a key from a sibling, or else merging it with a sibling.
+         *
+         * @param child The slot of the underflowing child
+         */
+        private void rebalance(int child) {
+            Node left = child > 0 ? children[child - 1] : null;
+            Node right = child < count ? children[child + 1] : null;
+            if (left != null && left.count > minKeys) {
+                borrowFromLeft(child);
+            } else if (right != null && right.count > minKeys) {
+                borrowFromRight(child);
+            } else if (left != null) {
+                merge(child - 1);
+            } else {
+                merge(child);
+            }
+        }
+
+        /**
+         * Moves the last key of child - 1 into child.
+         *
+         * @param child The slot of the child which receives a key
+         */
+        private void borrowFromLeft(int child) {
+            Node node = children[child];
+            Node left = children[child - 1];
+            System.arraycopy(node.keys, 0, node.keys, 1, node.count);
+            if (node instanceof Leaf leaf) {
+                Leaf leftLeaf = (Leaf) left;
+                System.arraycopy(leaf.values, 0, leaf.values, 1, leaf.count);
+                leaf.keys[0] = leftLeaf.keys[leftLeaf.count - 1];
+                leaf.values[0] = leftLeaf.values[leftLeaf.count - 1];
+                leftLeaf.clear(leftLeaf.count - 1, leftLeaf.count);
+                keys[child - 1] = leaf.keys[0];
+            } else {
+                Inner inner = (Inner) node;
+                Inner leftInner = (Inner) left;
+                System.arraycopy(inner.children, 0, inner.children, 1, inner.count + 1);
+                inner.keys[0] = keys[child - 1];
+                inner.children[0] = leftInner.children[leftInner.count];
+                keys[child - 1] = leftInner.keys[leftInner.count - 1];
+                leftInner.keys[leftInner.count - 1] = null;
+                leftInner.children[leftInner.count] = null;
+            }
+            left.count--;
+            node.count++;
+        }
+
+        /**
+         * Moves the first key of child + 1 into child.
+         *
+         * @param child The slot of the child which receives a key
+         */
+        private void borrowFromRight(int child) {
+            Node node = children[child];
+            Node right = children[child + 1];
+            if (node instanceof Leaf leaf) {
+                Leaf rightLeaf = (Leaf) right;
+                leaf.keys[leaf.count] = rightLeaf.keys[0];
+                leaf.values[leaf.count] = rightLeaf.values[0];
+                System.arraycopy(rightLeaf.keys, 1, rightLeaf.keys, 0, rightLeaf.count - 1);
+                System.arraycopy(rightLeaf.values, 1, rightLeaf.values, 0, rightLeaf.count - 1);
+                rightLeaf.clear(rightLeaf.count - 1, rightLeaf.count);
+                keys[child] = rightLeaf.keys[0];
+            } else {
+                Inner inner = (Inner) node;
+                Inner rightInner = (Inner) right;
+                inner.keys[inner.count] = keys[child];
+                inner.children[inner.count + 1] = rightInner.children[0];
+                keys[child] = rightInner.keys[0];
+                System.arraycopy(rightInner.keys, 1, rightInner.keys, 0, rightInner.count - 1);
+                System.arraycopy(rightInner.children, 1, rightInner.children, 0, rightInner.count);
+                rightInner.keys[rightInner.count - 1] = null;
+                rightInner.children[rightInner.count] = null;
+            }
+            right.count--;
+            node.count++;
+        }
+
+        /**
+         * Merges child + 1 into child and removes the separator between them.
+         *
+         * @param child The slot of the child which absorbs its right sibling
+         */
+        private void merge(int child) {
+            Node node = children[child];
+            Node right = children[child + 1];
+            if (node instanceof Leaf leaf) {
+                Leaf rightLeaf = (Leaf) right;
+                System.arraycopy(rightLeaf.keys, 0, leaf.keys, leaf.count, rightLeaf.count);
+                System.arraycopy(rightLeaf.values, 0, leaf.values, leaf.count, rightLeaf.count);
+                leaf.count += rightLeaf.count;
+                leaf.next = rightLeaf.next;
+            } else {
+                Inner inner = (Inner) node;
+                Inner rightInner = (Inner) right;
+                inner.keys[inner.count] = keys[child];
+                System.arraycopy(rightInner.keys, 0, inner.keys, inner.count + 1, rightInner.count);
+                System.arraycopy(rightInner.children, 0, inner.children, inner.count + 1, rightInner.count + 1);
+                inner.count += rightInner.count + 1;
+            }
+            System.arraycopy(keys, child + 1, keys, child, count - child - 1);
+            System.arraycopy(children, child + 2, children, child + 1, count - child - 1);
+            count--;
+            keys[count] = null;
+            children[count + 1] = null;
+        }
+    }
+
+    /**
+     * An entry of the map, as returned by entrySet.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    private static class LeafEntry<K, V> implements Entry<K, V> {
+        /**
+         * Stores the key of the entry
+         */
+        private final K key;
+        /**
+         * Stores the value of the entry
+         */
+        private final V value;
+
+        /**
+         * Creates an instance of the class LeafEntry
+         *
+         * @param key   : The key of the entry
+         * @param value : The value of the entry
+         */
+        LeafEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * This method is used to access the key of the entry
+         *
+         * @return : Returns the key of the entry
+         */
+        public K getKey() {
+            return key;
+        }
+
+        /**
+         * This method is used to access the value of the entry
+         *
+         * @return : Returns the value of the entry
+         */
+        public V getValue() {
+            return value;
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package edu.trinity.cpsc215f23.treemap;
 
+import edu.trinity.cpsc215f23.feed.ChangeEvent;
+import edu.trinity.cpsc215f23.feed.ChangeFeed;
 import edu.trinity.cpsc215f23.map.Entry;
 import edu.trinity.cpsc215f23.map.Map;
 import edu.trinity.cpsc215f23.tree.LinkedBinaryTree;
 import edu.trinity.cpsc215f23.tree.Position;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 
 /**
  * Realization of a map by means of a binary search tree.
@@ -28,6 +34,58 @@ public class BinarySearchTreeMap<K, V> extends LinkedBinaryTree<Entry<K, V>> imp
      */
     protected Position<Entry<K, V>> actionPos; // a node variable
 
+    /**
+     * The metrics recorded by the operations of the map, or null while metrics are disabled.
+     */
+    protected TreeMapMetrics metrics;
+
+    /**
+     * The feed to which every change is published, or null while no feed is enabled.
+     */
+    protected ChangeFeed<K, V> changeFeed;
+
+    /**
+     * The filter answering lookups of absent keys without a search, or null while no filter is enabled.
+     */
+    protected CountingBloomFilter bloomFilter;
+
+    /**
+     * The false positive rate the Bloom filter is sized for.
+     */
+    private double bloomFalsePositiveRate;
+
+    /**
+     * The default largest ratio of the depth of an insert to log2 of the number of entries before a subtree is
+     * rebuilt.
+     */
+    public static final double DEFAULT_REBUILD_FACTOR = 3.0;
+
+    /**
+     * The largest ratio of the depth of an insert to log2 of the number of entries before a subtree is rebuilt.
+     */
+    protected double rebuildFactor = DEFAULT_REBUILD_FACTOR;
+
+    /**
+     * An upper bound on the height of the tree in entries. Inserts raise it to the depth of the new entry; removes
+     * and rebuilds of subtrees leave it unchanged; a rebuild of the whole tree sets it to the exact height.
+     */
+    protected int heightBound;
+
+    /**
+     * The largest number of entries since the whole tree was last rebuilt.
+     */
+    private int maxSize;
+
+    /**
+     * The number of entries visited by the last search.
+     */
+    protected int lastSearchDepth;
+
+    /**
+     * The number of times the tree was rebuilt.
+     */
+    private int rebuilds;
+
     /**
      * Creates a BinarySearchTreeMap with a default comparator.
      */
@@ -97,6 +155,19 @@ public class BinarySearchTreeMap<K, V> extends LinkedBinaryTree<Entry<K, V>> imp
         return set(position, entry).getValue();
     }
 
+    /**
+     * Factory function to create a new entry for the given key and value. Subclasses may override this
+     * to store additional per-entry data alongside the key.
+     *
+     * @param key      The key of the new entry
+     * @param value    The value of the new entry
+     * @param position The position at which the entry is stored
+     * @return The new entry
+     */
+    protected BSTEntry<K, V> createEntry(K key, V value, Position<Entry<K, V>> position) {
+        return new BSTEntry<>(key, value, position);
+    }
+
     /**
      * Checks whether a given key is valid.
      *
@@ -165,26 +236,517 @@ public class BinarySearchTreeMap<K, V> extends LinkedBinaryTree<Entry<K, V>> imp
 
 
     /**
-     * An auxiliary method used by get, put, and remove.
+     * An auxiliary method used by get, put, and remove. The search descends in a loop, so a degenerate tree
+     * cannot overflow the call stack, and records its depth in the metrics when they are enabled.
      *
      * @param key      The node to search for.
      * @param position The starting tree position
      * @return The found node position
      */
     protected Position<Entry<K, V>> treeSearch(K key, Position<Entry<K, V>> position) {
-        if (isExternal(position)) {
-            return position;
+        int depth = 0;
+        while (isInternal(position)) {
+            depth++;
+            int comp = comparator.compare(key, key(position));
+            if (comp < 0) {
+                position = left(position);
+            } else if (comp > 0) {
+                position = right(position);
+            } else {
+                break;
+            }
         }
-        K curKey = key(position);
-        int comp = comparator.compare(key, curKey);
-        if (comp < 0) {
-            return treeSearch(key, left(position));
-        } else if (comp > 0) {
-            return treeSearch(key, right(position));
+        lastSearchDepth = depth;
+        if (metrics != null) {
+            metrics.recordSearch(depth, depth);
         }
         return position;
     }
 
+    /**
+     * Starts publishing every insert, replacement and removal to a change feed, if not already publishing.
+     *
+     * @param capacity The number of recent events the feed retains for subscribers
+     * @return The change feed of this map
+     */
+    public ChangeFeed<K, V> enableChangeFeed(int capacity) {
+        if (changeFeed == null) {
+            changeFeed = new ChangeFeed<>(capacity);
+        }
+        return changeFeed;
+    }
+
+    /**
+     * Returns the change feed of this map.
+     *
+     * @return The change feed, or null if none is enabled
+     */
+    public ChangeFeed<K, V> changeFeed() {
+        return changeFeed;
+    }
+
+    /**
+     * Starts answering get and remove of absent keys from a counting Bloom filter, without searching the tree.
+     * The filter is updated by every insertion and removal, and rebuilt at twice the size whenever the map
+     * outgrows it, so the rate of absent keys which still search the tree stays near the given rate.
+     * <p>
+     * The comparator must be consistent with equals, because the filter finds keys by hashCode and equals: a key
+     * which compares equal to a key of the map, but has another hash code, is reported absent without searching.
+     *
+     * @param falsePositiveRate The fraction of absent keys which may still search the tree, between 0 and 1
+     * @throws IllegalArgumentException if the rate is not between 0 and 1
+     */
+    public void enableBloomFilter(double falsePositiveRate) throws IllegalArgumentException {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("The false positive rate must be between 0 and 1.");
+        }
+        bloomFalsePositiveRate = falsePositiveRate;
+        rebuildBloomFilter(Math.max(1024, 2 * size()));
+    }
+
+    /**
+     * Adds a key to the Bloom filter, first rebuilding the filter at twice the size if the map has outgrown it.
+     *
+     * @param key The key inserted
+     */
+    private void addToBloomFilter(K key) {
+        if (size() > bloomFilter.capacity()) {
+            rebuildBloomFilter(2 * bloomFilter.capacity());
+        } else {
+            bloomFilter.add(key);
+        }
+    }
+
+    /**
+     * Replaces the Bloom filter with a new one holding every key of the map.
+     *
+     * @param capacity The number of keys the new filter is sized for
+     */
+    private void rebuildBloomFilter(int capacity) {
+        CountingBloomFilter filter = new CountingBloomFilter(capacity, bloomFalsePositiveRate);
+        forEachEntryWhile(root, entry -> {
+            filter.add(entry.getKey());
+            return true;
+        });
+        bloomFilter = filter;
+    }
+
+    /**
+     * Publishes a change to the change feed, if one is enabled.
+     *
+     * @param type     The kind of change
+     * @param key      The key of the changed entry
+     * @param oldValue The value before the change
+     * @param newValue The value after the change
+     */
+    protected void publish(ChangeEvent.Type type, K key, V oldValue, V newValue) {
+        if (changeFeed != null) {
+            changeFeed.publish(type, key, oldValue, newValue);
+        }
+    }
+
+    /**
+     * Copies the map into an immutable, array-based map laid out for fast lookups, for read-mostly periods. Later
+     * changes to this map do not affect the copy.
+     *
+     * @return A read-only snapshot of this map
+     */
+    public EytzingerMap<K, V> freeze() {
+        return new EytzingerMap<>(this, comparator);
+    }
+
+    /**
+     * Starts recording metrics for the operations of this map, if not already recording.
+     *
+     * @return The metrics of this map
+     */
+    public TreeMapMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new TreeMapMetrics(this);
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the metrics of this map.
+     *
+     * @return The metrics of this map, or null if metrics are not enabled
+     */
+    public TreeMapMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the largest ratio of the depth of an insert to log2 of the number of entries, in the manner of a
+     * scapegoat tree. An insert deeper than this climbs from the new entry to the first ancestor whose subtree is
+     * not alpha-weight-balanced, where one child holds more than alpha = 2^(-1/factor) of its entries, and rebuilds
+     * only that subtree into a perfectly balanced shape. A remove which leaves fewer than alpha times the largest
+     * number of entries since the last full rebuild rebuilds the whole tree. Searches then take O(log n) time in
+     * the worst case, and rebuilds cost O(log n) amortized time per update.
+     *
+     * @param factor The largest ratio, greater than 1; positive infinity disables rebuilding
+     * @throws IllegalArgumentException if the factor is not greater than 1
+     */
+    public void setRebuildFactor(double factor) throws IllegalArgumentException {
+        if (!(factor > 1)) {
+            throw new IllegalArgumentException("Rebuild factor must be greater than 1.");
+        }
+        rebuildFactor = factor;
+    }
+
+    /**
+     * Returns an upper bound on the height of the tree in entries, maintained in constant time per update. It is
+     * exact unless entries were removed or subtrees rebuilt since the tallest insert.
+     *
+     * @return An upper bound on the number of entries on the longest path from the root
+     */
+    public int heightBound() {
+        return heightBound;
+    }
+
+    /**
+     * Returns the number of times the tree or one of its subtrees was rebuilt.
+     *
+     * @return the number of rebuilds
+     */
+    public int rebuildCount() {
+        return rebuilds;
+    }
+
+    /**
+     * Rebuilds the subtree of the scapegoat of a new entry if the entry is deeper than the rebuild factor allows.
+     * Climbing from the entry, the sizes of the subtrees are computed by counting the subtrees of the siblings,
+     * until an ancestor is found one of whose children holds more than alpha of its entries.
+     *
+     * @param inserted The node of the new entry
+     * @param depth    The depth of the new entry in entries
+     */
+    private void rebuildIfDeep(Node<Entry<K, V>> inserted, int depth) {
+        maxSize = Math.max(maxSize, size());
+        if (depth <= 2 || depth <= rebuildFactor * (Math.log(maxSize) / Math.log(2))) {
+            return;
+        }
+        double alpha = Math.pow(2, -1 / rebuildFactor);
+        Node<Entry<K, V>> child = inserted;
+        int childSize = 1;
+        while (child.getParent() != null) {
+            Node<Entry<K, V>> parent = child.getParent();
+            Node<Entry<K, V>> sibling = child == parent.getLeft() ? parent.getRight() : parent.getLeft();
+            int parentSize = childSize + 1 + countEntries(sibling);
+            if (childSize > alpha * parentSize) {
+                rebuild(parent, parentSize);
+                return;
+            }
+            child = parent;
+            childSize = parentSize;
+        }
+    }
+
+    /**
+     * Rebuilds the whole tree if removes have left it with fewer than alpha times the largest number of entries
+     * since the last full rebuild.
+     */
+    private void rebuildIfShrunk() {
+        if (rebuildFactor != Double.POSITIVE_INFINITY && size() < Math.pow(2, -1 / rebuildFactor) * maxSize) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Counts the entries of a subtree with an explicit stack.
+     *
+     * @param start The root of the subtree
+     * @return The number of entries
+     */
+    private int countEntries(Node<Entry<K, V>> start) {
+        int[] count = new int[1];
+        forEachEntryWhile(start, entry -> ++count[0] > 0);
+        return count[0];
+    }
+
+    /**
+     * Rebuilds the whole tree into a perfectly balanced shape in O(n) time. The existing nodes are relinked rather
+     * than copied, so every position, including those held by entries, stays valid.
+     */
+    public void rebuild() {
+        rebuild(root, size());
+        heightBound = size() == 0 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(size());
+        maxSize = size();
+    }
+
+    /**
+     * Rebuilds a subtree into a perfectly balanced shape in time linear in its size, relinking its nodes in place
+     * under the same parent.
+     *
+     * @param top   The root of the subtree
+     * @param count The number of entries of the subtree
+     */
+    private void rebuild(Node<Entry<K, V>> top, int count) {
+        List<Node<Entry<K, V>>> nodes = new ArrayList<>(2 * count + 1);
+        ArrayDeque<Node<Entry<K, V>>> path = new ArrayDeque<>();
+        Node<Entry<K, V>> node = top;
+        for (; ; ) {
+            while (node.getLeft() != null) {
+                path.push(node);
+                node = node.getLeft();
+            }
+            nodes.add(node);
+            if (path.isEmpty()) {
+                break;
+            }
+            node = path.pop();
+            nodes.add(node);
+            node = node.getRight();
+        }
+
+        Node<Entry<K, V>> parent = top.getParent();
+        Node<Entry<K, V>> balanced = link(nodes, 0, count - 1);
+        balanced.setParent(parent);
+        if (parent == null) {
+            root = balanced;
+        } else if (parent.getLeft() == top) {
+            parent.setLeft(balanced);
+        } else {
+            parent.setRight(balanced);
+        }
+        rebuilds++;
+    }
+
+    /**
+     * Links a balanced subtree from the nodes in order, where the internal nodes alternate with the externals:
+     * the entry with index i is at 2i + 1 and the externals are at the even indices.
+     *
+     * @param nodes The nodes of the tree in order
+     * @param low   The index of the first entry of the subtree
+     * @param high  The index of the last entry of the subtree
+     * @return The root of the subtree
+     */
+    private Node<Entry<K, V>> link(List<Node<Entry<K, V>>> nodes, int low, int high) {
+        if (low > high) {
+            return nodes.get(2 * low);
+        }
+        int middle = (low + high) >>> 1;
+        Node<Entry<K, V>> node = nodes.get(2 * middle + 1);
+        Node<Entry<K, V>> left = link(nodes, low, middle - 1);
+        Node<Entry<K, V>> right = link(nodes, middle + 1, high);
+        node.setLeft(left);
+        node.setRight(right);
+        left.setParent(node);
+        right.setParent(node);
+        return node;
+    }
+
+    /**
+     * Computes the height of the tree counting only entries, so an empty map has height 0. The sentinels are not
+     * counted. This walks every node with an explicit stack, so it takes O(n) time.
+     *
+     * @return The number of entries on the longest path from the root
+     */
+    public int entryHeight() {
+        int height = 0;
+        ArrayDeque<Node<Entry<K, V>>> nodes = new ArrayDeque<>();
+        ArrayDeque<Integer> depths = new ArrayDeque<>();
+        nodes.push(root);
+        depths.push(0);
+        while (!nodes.isEmpty()) {
+            Node<Entry<K, V>> node = nodes.pop();
+            int depth = depths.pop();
+            if (node.getLeft() != null) {
+                height = Math.max(height, depth + 1);
+                nodes.push(node.getLeft());
+                depths.push(depth + 1);
+                nodes.push(node.getRight());
+                depths.push(depth + 1);
+            }
+        }
+        return height;
+    }
+
+    /**
+     * Merges another map into a new map in O(n + m) time. Both maps are walked in order side by side, and the
+     * merged entries are linked into a perfectly balanced tree, so no search or rebalancing is done per entry. The
+     * other map must order its keys by the same comparator. Neither map is changed.
+     *
+     * @param other    The map to merge with this one
+     * @param resolver Decides the value of keys present in both maps
+     * @return The merged map, which uses the comparator of this map, and the differences of the other map
+     */
+    public MergeResult<K, V> merge(BinarySearchTreeMap<K, V> other, ConflictResolver<K, V> resolver) {
+        return merge(other, resolver, new BinarySearchTreeMap<>(comparator));
+    }
+
+    /**
+     * Merges another map into an empty target map in O(n + m) time, so the merged map can be of a subclass.
+     *
+     * @param other    The map to merge with this one
+     * @param resolver Decides the value of keys present in both maps
+     * @param target   The empty map which receives the merged entries
+     * @return The target map and the differences of the other map
+     * @throws IllegalArgumentException if the target is not empty
+     */
+    public MergeResult<K, V> merge(BinarySearchTreeMap<K, V> other, ConflictResolver<K, V> resolver,
+                                   BinarySearchTreeMap<K, V> target) throws IllegalArgumentException {
+        if (!target.isEmpty() || target == this || target == other) {
+            throw new IllegalArgumentException("The target of a merge must be a new, empty map.");
+        }
+        List<K> keys = new ArrayList<>(size() + other.size());
+        List<V> values = new ArrayList<>(size() + other.size());
+        List<K> added = new ArrayList<>();
+        List<K> removed = new ArrayList<>();
+        List<K> changed = new ArrayList<>();
+
+        InorderIterator<K, V> ours = new InorderIterator<>(root);
+        InorderIterator<K, V> theirs = new InorderIterator<>(other.root);
+        Entry<K, V> a = ours.next();
+        Entry<K, V> b = theirs.next();
+        while (a != null || b != null) {
+            int comp = a == null ? 1 : b == null ? -1 : comparator.compare(a.getKey(), b.getKey());
+            if (comp < 0) {
+                keys.add(a.getKey());
+                values.add(a.getValue());
+                removed.add(a.getKey());
+                a = ours.next();
+            } else if (comp > 0) {
+                keys.add(b.getKey());
+                values.add(b.getValue());
+                added.add(b.getKey());
+                b = theirs.next();
+            } else {
+                V value = resolver.resolve(a.getKey(), a.getValue(), b.getValue());
+                if (value != null) {
+                    keys.add(a.getKey());
+                    values.add(value);
+                }
+                if (!Objects.equals(a.getValue(), b.getValue())) {
+                    changed.add(a.getKey());
+                }
+                a = ours.next();
+                b = theirs.next();
+            }
+        }
+
+        target.loadSorted(keys, values);
+        return new MergeResult<>(target, added, removed, changed);
+    }
+
+    /**
+     * Fills an empty map with entries in key order, linking them into a perfectly balanced tree in O(n) time.
+     *
+     * @param keys   The keys in strictly ascending order
+     * @param values The values in the order of their keys
+     */
+    protected void loadSorted(List<K> keys, List<V> values) {
+        root = build(keys, values, 0, keys.size() - 1, null);
+        size = 2 * keys.size() + 1;
+        heightBound = keys.isEmpty() ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(keys.size());
+        maxSize = keys.size();
+        if (bloomFilter != null) {
+            rebuildBloomFilter(Math.max(bloomFilter.capacity(), 2 * keys.size()));
+        }
+    }
+
+    /**
+     * Creates a balanced subtree of new nodes for a range of sorted entries, with sentinel externals.
+     *
+     * @param keys   The keys in order
+     * @param values The values in the order of their keys
+     * @param low    The index of the first entry of the subtree
+     * @param high   The index of the last entry of the subtree
+     * @param parent The parent of the subtree
+     * @return The root of the subtree
+     */
+    private Node<Entry<K, V>> build(List<K> keys, List<V> values, int low, int high, Node<Entry<K, V>> parent) {
+        Node<Entry<K, V>> node = createNode(null, parent, null, null);
+        if (low <= high) {
+            int middle = (low + high) >>> 1;
+            node.setElement(createEntry(keys.get(middle), values.get(middle), position(node)));
+            node.setLeft(build(keys, values, low, middle - 1, node));
+            node.setRight(build(keys, values, middle + 1, high, node));
+        }
+        return node;
+    }
+
+    /**
+     * Returns a cursor at the first entry of the map.
+     *
+     * @return The cursor, past the end if the map is empty
+     */
+    public Cursor cursor() {
+        Node<Entry<K, V>> node = root;
+        while (node.getLeft() != null && node.getLeft().getLeft() != null) {
+            node = node.getLeft();
+        }
+        return new Cursor(node.getLeft() == null ? null : node);
+    }
+
+    /**
+     * Returns a cursor at the first entry whose key is equal to or greater than the key, searching from the root.
+     *
+     * @param key The key to seek
+     * @return The cursor, past the end if every key is smaller
+     */
+    public Cursor seek(K key) throws IllegalArgumentException {
+        checkKey(key);
+        return new Cursor(ceiling(validate(treeSearch(key)), key));
+    }
+
+    /**
+     * Returns a cursor at the first entry whose key is equal to or greater than the key, searching from the entry
+     * of another cursor: the search climbs from that entry only until it reaches the subtree which must hold the
+     * key, and descends from there. A key d entries away from the cursor is found in O(log d) steps in a
+     * balanced tree, rather than O(log n) from the root.
+     *
+     * @param from The cursor to search from; a cursor past the end searches from the root
+     * @param key  The key to seek
+     * @return A new cursor, past the end if every key is smaller
+     * @throws IllegalStateException if the entry of the cursor was removed
+     */
+    public Cursor seekFrom(Cursor from, K key) throws IllegalArgumentException, IllegalStateException {
+        checkKey(key);
+        Node<Entry<K, V>> node = from.current();
+        if (node == null) {
+            return seek(key);
+        }
+        for (; ; ) {
+            int comp = comparator.compare(key, node.getElement().getKey());
+            if (comp == 0) {
+                return new Cursor(node);
+            }
+            Node<Entry<K, V>> top = node;
+            while (top.getParent() != null && (comp > 0 ? top == top.getParent().getRight()
+                    : top == top.getParent().getLeft())) {
+                top = top.getParent();
+            }
+            Node<Entry<K, V>> bound = top.getParent();
+            int boundComp = bound == null ? -comp : comparator.compare(key, bound.getElement().getKey());
+            if (boundComp == 0) {
+                return new Cursor(bound);
+            }
+            if (Integer.signum(boundComp) != Integer.signum(comp)) {
+                return new Cursor(ceiling(validate(treeSearch(key, node)), key));
+            }
+            node = bound;
+        }
+    }
+
+    /**
+     * Returns the node a search for a key ended at, or for a search which ended at an external node, the node of
+     * the next greater key.
+     *
+     * @param node The node the search ended at
+     * @param key  The key searched for
+     * @return The node of the first key equal to or greater than the key, or null if there is none
+     */
+    private Node<Entry<K, V>> ceiling(Node<Entry<K, V>> node, K key) {
+        if (node.getLeft() != null) {
+            return node;
+        }
+        while (node.getParent() != null && node == node.getParent().getRight()) {
+            node = node.getParent();
+        }
+        return node.getParent();
+    }
+
     /**
      * Returns a value whose associated key is k.
      *
@@ -193,10 +755,22 @@ public class BinarySearchTreeMap<K, V> extends LinkedBinaryTree<Entry<K, V>> imp
      */
     public V get(K key) throws IllegalArgumentException {
         checkKey(key);
+        long start = metrics == null ? 0 : System.nanoTime();
+        if (bloomFilter != null && !bloomFilter.mightContain(key)) {
+            actionPos = null;
+            if (metrics != null) {
+                metrics.getLatency().record(System.nanoTime() - start);
+            }
+            return null;
+        }
         Position<Entry<K, V>> currentPos = treeSearch(key);
         actionPos = currentPos;
 
-        return isInternal(currentPos) ? value(currentPos) : null;
+        V value = isInternal(currentPos) ? value(currentPos) : null;
+        if (metrics != null) {
+            metrics.getLatency().record(System.nanoTime() - start);
+        }
+        return value;
     }
 
     /**
@@ -209,15 +783,27 @@ public class BinarySearchTreeMap<K, V> extends LinkedBinaryTree<Entry<K, V>> imp
      */
     public V put(K key, V value) throws IllegalArgumentException {
         checkKey(key);
+        long start = metrics == null ? 0 : System.nanoTime();
         Position<Entry<K, V>> insPos = treeSearch(key);
-        BSTEntry<K, V> entry = new BSTEntry<>(key, value, insPos);
+        BSTEntry<K, V> entry = createEntry(key, value, insPos);
         actionPos = insPos;
+        V old = null;
         if (isExternal(insPos)) {
-            insertAtExternal(insPos, entry).getValue();
-            return null;
+            insertAtExternal(insPos, entry);
+            heightBound = Math.max(heightBound, lastSearchDepth + 1);
+            rebuildIfDeep(validate(insPos), lastSearchDepth + 1);
+            if (bloomFilter != null) {
+                addToBloomFilter(key);
+            }
+            publish(ChangeEvent.Type.INSERT, key, null, value);
+        } else {
+            old = replaceEntry(insPos, entry);
+            publish(ChangeEvent.Type.REPLACE, key, old, value);
         }
-
-        return replaceEntry(insPos, entry);
+        if (metrics != null) {
+            metrics.putLatency().record(System.nanoTime() - start);
+        }
+        return old;
     }
 
     /**
@@ -229,26 +815,49 @@ public class BinarySearchTreeMap<K, V> extends LinkedBinaryTree<Entry<K, V>> imp
      */
     public V remove(K key) throws IllegalArgumentException {
         checkKey(key);
-        Position<Entry<K, V>> remPos = treeSearch(key);
-        if (isExternal(remPos)) {
-            return null;
+        long start = metrics == null ? 0 : System.nanoTime();
+        V old = null;
+        if (bloomFilter == null || bloomFilter.mightContain(key)) {
+            Position<Entry<K, V>> remPos = treeSearch(key);
+            old = isExternal(remPos) ? null : removeAt(remPos);
+        } else {
+            actionPos = null;
         }
+        if (metrics != null) {
+            metrics.removeLatency().record(System.nanoTime() - start);
+        }
+        return old;
+    }
+
+    /**
+     * Removes the entry at an internal position. A node with two children first swaps places with the node of its
+     * inorder predecessor, so every other entry keeps its node and position.
+     *
+     * @param remPos The internal position of the entry to remove
+     * @return The value of the removed entry
+     */
+    protected V removeAt(Position<Entry<K, V>> remPos) {
         Entry<K, V> toReturn = entry(remPos);
         if (isExternal(left(remPos))) {
             remPos = left(remPos);
         } else if (isExternal(right(remPos))) {
             remPos = right(remPos);
         } else {
-            Position<Entry<K, V>> swapPos = remPos;
-            remPos = left(swapPos);
-            do {
-                remPos = right(remPos);
-            } while (isInternal(remPos));
-            replaceEntry(swapPos, parent(remPos).getElement());
+            Position<Entry<K, V>> predecessor = left(remPos);
+            while (isInternal(right(predecessor))) {
+                predecessor = right(predecessor);
+            }
+            swap(remPos, predecessor);
+            remPos = right(remPos);
         }
         actionPos = sibling(remPos);
         removeExternal(remPos);
+        rebuildIfShrunk();
 
+        if (bloomFilter != null) {
+            bloomFilter.remove(toReturn.getKey());
+        }
+        publish(ChangeEvent.Type.REMOVE, toReturn.getKey(), toReturn.getValue(), null);
         return toReturn.getValue();
     }
 
@@ -286,28 +895,89 @@ public class BinarySearchTreeMap<K, V> extends LinkedBinaryTree<Entry<K, V>> imp
      * @return : Returns an iterable collection of entries
      */
     public Iterable<Entry<K, V>> entrySet() {
-        List<Entry<K, V>> entryValue = new ArrayList<>(size);
-        if (!isEmpty()) {
-            inorderAddEntries(root(), entryValue);
-        }
+        List<Entry<K, V>> entryValue = new ArrayList<>(size());
+        forEachEntryWhile(root, entry -> entryValue.add(entry));
         return entryValue;
     }
 
     /**
-     * This method traverses a tree in a tree inorder and stores the value as a list
+     * Visits the entries in key order until the action returns false, without collecting them first.
      *
-     * @param pos         The position from where the inorder traversal is to be done
-     * @param entriesList The list to which inorder traversal is added
+     * @param action The action applied to the key and value of each entry; returns false to stop
+     * @return true if every entry was visited, false if the action stopped the traversal
      */
-    protected void inorderAddEntries(Position<Entry<K, V>> pos, List<Entry<K, V>> entriesList) {
-        if (left(pos) != null) {
-            inorderAddEntries(left(pos), entriesList);
-        }
-        if (isInternal(pos)) {
-            entriesList.add(entry(pos));
+    @Override
+    public boolean forEachWhile(BiPredicate<? super K, ? super V> action) {
+        return forEachEntryWhile(root, entry -> action.test(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Visits the entries of the subtree rooted at a position in key order until the action returns false.
+     *
+     * @param position The root of the subtree
+     * @param action   The action applied to the key and value of each entry; returns false to stop
+     * @return true if every entry was visited, false if the action stopped the traversal
+     */
+    public boolean forEachInSubtree(Position<Entry<K, V>> position, BiPredicate<? super K, ? super V> action) {
+        return forEachEntryWhile(validate(position), entry -> action.test(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Divides the entries into ranges of consecutive keys by cutting the tree at the given depth. The positions
+     * returned alternate between the roots of subtrees and single entries separating them, in key order: subtree,
+     * entry, subtree, ..., subtree. A subtree root may be a sentinel, in which case the subtree is empty. Each
+     * range can be visited independently with {@link #forEachInSubtree(Position, BiPredicate)}.
+     *
+     * @param depth The depth at which to cut; at most 2 to the power depth subtrees are returned
+     * @return The subtree roots and separating entries in key order
+     */
+    public List<Position<Entry<K, V>>> partition(int depth) {
+        List<Position<Entry<K, V>>> parts = new ArrayList<>();
+        partition(root(), depth, parts);
+        return parts;
+    }
+
+    /**
+     * Adds the partition of the subtree rooted at a position to a list.
+     *
+     * @param position The root of the subtree
+     * @param depth    The remaining depth at which to cut
+     * @param parts    The list of subtree roots and separating entries
+     */
+    private void partition(Position<Entry<K, V>> position, int depth, List<Position<Entry<K, V>>> parts) {
+        if (depth <= 0 || isExternal(position)) {
+            parts.add(position);
+            return;
         }
-        if (right(pos) != null) {
-            inorderAddEntries(right(pos), entriesList);
+        partition(left(position), depth - 1, parts);
+        parts.add(position);
+        partition(right(position), depth - 1, parts);
+    }
+
+    /**
+     * Walks the internal nodes of a subtree in order with an explicit stack, so a degenerate tree cannot overflow
+     * the call stack, until the action returns false.
+     *
+     * @param start  The root of the subtree
+     * @param action The action applied to each entry; returns false to stop
+     * @return true if every entry was visited, false if the action stopped the traversal
+     */
+    protected boolean forEachEntryWhile(Node<Entry<K, V>> start, Predicate<Entry<K, V>> action) {
+        ArrayDeque<Node<Entry<K, V>>> path = new ArrayDeque<>();
+        Node<Entry<K, V>> node = start;
+        for (; ; ) {
+            while (node.getLeft() != null) {
+                path.push(node);
+                node = node.getLeft();
+            }
+            if (path.isEmpty()) {
+                return true;
+            }
+            node = path.pop();
+            if (!action.test(node.getElement())) {
+                return false;
+            }
+            node = node.getRight();
         }
     }
 
@@ -333,6 +1003,179 @@ public class BinarySearchTreeMap<K, V> extends LinkedBinaryTree<Entry<K, V>> imp
         return sb.toString();
     }
 
+    /**
+     * A position in the key order of the map which can step to the next or previous entry in amortized O(1)
+     * time without searching from the root. A cursor stays usable while the map changes, as long as its own
+     * entry is not removed; after that its methods throw IllegalStateException.
+     */
+    public class Cursor {
+        /**
+         * The node of the current entry, or null past the end.
+         */
+        private Node<Entry<K, V>> node;
+
+        /**
+         * The generation of the node when the cursor moved to it.
+         */
+        private int generation;
+
+        /**
+         * Creates a cursor at a node.
+         *
+         * @param node The node of an entry, or null for past the end
+         */
+        private Cursor(Node<Entry<K, V>> node) {
+            moveTo(node);
+        }
+
+        /**
+         * Moves to a node and records its generation.
+         *
+         * @param target The node of an entry, or null for past the end
+         */
+        private void moveTo(Node<Entry<K, V>> target) {
+            node = target;
+            generation = target == null ? 0 : generation(target);
+        }
+
+        /**
+         * Returns the current node after checking it is still in the map.
+         *
+         * @return The node of the current entry, or null past the end
+         * @throws IllegalStateException if the entry of the cursor was removed
+         */
+        private Node<Entry<K, V>> current() throws IllegalStateException {
+            if (node != null && !isValid(node, generation)) {
+                throw new IllegalStateException("The entry of the cursor was removed.");
+            }
+            return node;
+        }
+
+        /**
+         * Tests whether the cursor is at an entry rather than past either end.
+         *
+         * @return true if the cursor has an entry
+         */
+        public boolean hasEntry() {
+            return current() != null;
+        }
+
+        /**
+         * Returns the key of the current entry.
+         *
+         * @return The key, or null past the end
+         */
+        public K key() {
+            Node<Entry<K, V>> current = current();
+            return current == null ? null : current.getElement().getKey();
+        }
+
+        /**
+         * Returns the value of the current entry.
+         *
+         * @return The value, or null past the end
+         */
+        public V value() {
+            Node<Entry<K, V>> current = current();
+            return current == null ? null : current.getElement().getValue();
+        }
+
+        /**
+         * Moves to the next entry in key order.
+         *
+         * @return true if the cursor is at an entry, false if it moved past the end
+         */
+        public boolean next() {
+            Node<Entry<K, V>> current = current();
+            if (current == null) {
+                return false;
+            }
+            if (current.getRight().getLeft() != null) {
+                current = current.getRight();
+                while (current.getLeft().getLeft() != null) {
+                    current = current.getLeft();
+                }
+            } else {
+                while (current.getParent() != null && current == current.getParent().getRight()) {
+                    current = current.getParent();
+                }
+                current = current.getParent();
+            }
+            moveTo(current);
+            return current != null;
+        }
+
+        /**
+         * Moves to the previous entry in key order.
+         *
+         * @return true if the cursor is at an entry, false if it moved before the start
+         */
+        public boolean prev() {
+            Node<Entry<K, V>> current = current();
+            if (current == null) {
+                return false;
+            }
+            if (current.getLeft().getLeft() != null) {
+                current = current.getLeft();
+                while (current.getRight().getLeft() != null) {
+                    current = current.getRight();
+                }
+            } else {
+                while (current.getParent() != null && current == current.getParent().getLeft()) {
+                    current = current.getParent();
+                }
+                current = current.getParent();
+            }
+            moveTo(current);
+            return current != null;
+        }
+    }
+
+    /**
+     * Walks the entries of a tree in order with an explicit stack.
+     */
+    private static class InorderIterator<K, V> {
+        /**
+         * The ancestors whose entries are still to be visited, nearest first.
+         */
+        private final ArrayDeque<Node<Entry<K, V>>> path = new ArrayDeque<>();
+
+        /**
+         * Creates an iterator positioned before the first entry.
+         *
+         * @param root The root of the tree
+         */
+        InorderIterator(Node<Entry<K, V>> root) {
+            descend(root);
+        }
+
+        /**
+         * Pushes the path to the leftmost entry of a subtree.
+         *
+         * @param node The root of the subtree
+         */
+        private void descend(Node<Entry<K, V>> node) {
+            while (node.getLeft() != null) {
+                path.push(node);
+                node = node.getLeft();
+            }
+        }
+
+        /**
+         * Returns the next entry.
+         *
+         * @return The next entry, or null after the last
+         */
+        Entry<K, V> next() {
+            if (path.isEmpty()) {
+                return null;
+            }
+            Node<Entry<K, V>> node = path.pop();
+            descend(node.getRight());
+            return node.getElement();
+        }
+    }
+
     /**
      * Nested class for location-aware binary search tree entries
      *
@@ -385,12 +1228,20 @@ public class BinarySearchTreeMap<K, V> extends LinkedBinaryTree<Entry<K, V>> imp
         }
 
         /**
-         * This method is used to access the position of the node
+         * This method is used to access the position of the node. An entry which was removed or replaced no longer
+         * has a position, even if its node was recycled for another entry.
          *
-         * @return : Returns the position of the node
+         * @return : Returns the position of the node, or null if the entry is no longer in the map
          */
         public Position<Entry<K, V>> position() {
-            return position;
+            if (position == null) {
+                return null;
+            }
+            try {
+                return position.getElement() == this ? position : null;
+            } catch (IllegalStateException e) {
+                return null;                  // the node was removed, and perhaps recycled
+            }
         }
     }
 }
@@ -0,0 +1,39 @@
+package edu.trinity.cpsc215f23.treemap;
+
+/**
+ * Decides the value of a key present in both maps of a merge.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+@FunctionalInterface
+public interface ConflictResolver<K, V> {
+
+    /**
+     * Returns the value the merged map keeps for a key present in both maps.
+     *
+     * @param key    The key present in both maps
+     * @param ours   The value in the map merged into
+     * @param theirs The value in the other map
+     * @return The merged value, or null to leave the key out of the merged map
+     */
+    V resolve(K key, V ours, V theirs);
+
+    /**
+     * Returns a resolver which keeps the value of the map merged into.
+     *
+     * @return The resolver
+     */
+    static <K, V> ConflictResolver<K, V> ours() {
+        return (key, ours, theirs) -> ours;
+    }
+
+    /**
+     * Returns a resolver which keeps the value of the other map.
+     *
+     * @return The resolver
+     */
+    static <K, V> ConflictResolver<K, V> theirs() {
+        return (key, ours, theirs) -> theirs;
+    }
+}
@@ -0,0 +1,143 @@
+package edu.trinity.cpsc215f23.treemap;
+
+/**
+ * A counting Bloom filter over the keys of a map. Each key increments k four-bit counters chosen by double hashing
+ * of its hash code, and removing the key decrements them again, so the filter follows insertions and removals
+ * without being rebuilt. A key with any zero counter is certainly absent; a key whose counters are all non-zero
+ * may be present. A counter which reaches 15 stays there, which can only add false positives.
+ * <p>
+ * Equal keys must have equal hash codes, as for a hash map.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class CountingBloomFilter {
+
+    /**
+     * The largest value of a counter.
+     */
+    private static final int SATURATED = 15;
+
+    /**
+     * The counters, sixteen to a long.
+     */
+    private final long[] counters;
+
+    /**
+     * The number of counters minus one; the number of counters is a power of two.
+     */
+    private final int mask;
+
+    /**
+     * The number of counters for each key.
+     */
+    private final int hashes;
+
+    /**
+     * The number of keys the filter was sized for.
+     */
+    private final int capacity;
+
+    /**
+     * Creates an empty filter.
+     *
+     * @param capacity          The number of keys the filter is sized for
+     * @param falsePositiveRate The fraction of absent keys which may pass the filter at capacity, between 0 and 1
+     * @throws IllegalArgumentException if the capacity is not positive or the rate is not between 0 and 1
+     */
+    public CountingBloomFilter(int capacity, double falsePositiveRate) throws IllegalArgumentException {
+        if (capacity < 1 || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("The capacity must be positive and the rate between 0 and 1.");
+        }
+        double bits = -capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int size = Integer.highestOneBit((int) Math.min(bits, 1 << 29) * 2 - 1);
+        this.counters = new long[Math.max(1, size / 16)];
+        this.mask = counters.length * 16 - 1;
+        this.hashes = Math.max(1, (int) Math.round(bits / capacity * Math.log(2)));
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the number of keys the filter was sized for; beyond it the false positive rate rises.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Spreads the hash code of a key over 64 bits.
+     *
+     * @param key The key
+     * @return The mixed hash
+     */
+    private static long mix(Object key) {
+        long z = key.hashCode() * 0x9E3779B97F4A7C15L;
+        z = (z ^ z >>> 32) * 0xD6E8FEB86659FD93L;
+        return z ^ z >>> 32;
+    }
+
+    /**
+     * Returns the value of a counter.
+     *
+     * @param index The index of the counter
+     * @return The value
+     */
+    private int counter(int index) {
+        return (int) (counters[index >>> 4] >>> ((index & 15) << 2)) & SATURATED;
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param key The key
+     */
+    public void add(Object key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int index = h1 + i * h2 & mask;
+            if (counter(index) < SATURATED) {
+                counters[index >>> 4] += 1L << ((index & 15) << 2);
+            }
+        }
+    }
+
+    /**
+     * Removes a key which was added.
+     *
+     * @param key The key
+     */
+    public void remove(Object key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int index = h1 + i * h2 & mask;
+            int value = counter(index);
+            if (value > 0 && value < SATURATED) {
+                counters[index >>> 4] -= 1L << ((index & 15) << 2);
+            }
+        }
+    }
+
+    /**
+     * Tests whether a key may have been added.
+     *
+     * @param key The key
+     * @return false if the key is certainly absent, true if it may be present
+     */
+    public boolean mightContain(Object key) {
+        long hash = mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            if (counter(h1 + i * h2 & mask) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,147 @@
+package edu.trinity.cpsc215f23.treemap;
+
+/**
+ * An open-addressing hash table from keys to the entries of a binary search tree. Collisions are resolved by
+ * linear probing, and removals shift later entries of the probe sequence back instead of leaving tombstones, so
+ * lookups stay short however many removals there are. The table doubles when it is more than half full.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+class EntryIndex<K, V> {
+
+    /**
+     * The slots of the table; null slots are free.
+     */
+    private BinarySearchTreeMap.BSTEntry<K, V>[] slots;
+
+    /**
+     * The hashes of the keys in the slots, so probes and resizes do not call hashCode again.
+     */
+    private int[] hashes;
+
+    /**
+     * The number of entries in the table.
+     */
+    private int size;
+
+    /**
+     * Creates an empty index.
+     */
+    EntryIndex() {
+        allocate(16);
+    }
+
+    /**
+     * Allocates empty slots.
+     *
+     * @param capacity The number of slots, a power of two
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void allocate(int capacity) {
+        slots = (BinarySearchTreeMap.BSTEntry<K, V>[]) new BinarySearchTreeMap.BSTEntry[capacity];
+        hashes = new int[capacity];
+    }
+
+    /**
+     * Spreads the hash code of a key so that keys differing only in high bits use different slots.
+     *
+     * @param key The key
+     * @return The spread hash code
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the slot holding the key, or the free slot where it would be stored.
+     *
+     * @param key  The key
+     * @param hash The hash of the key
+     * @return The index of the slot
+     */
+    private int slot(K key, int hash) {
+        int mask = slots.length - 1;
+        int i = hash & mask;
+        while (slots[i] != null && (hashes[i] != hash || !slots[i].getKey().equals(key))) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the entry with the key.
+     *
+     * @param key The key
+     * @return the entry with the key, or null
+     */
+    BinarySearchTreeMap.BSTEntry<K, V> get(K key) {
+        return slots[slot(key, hash(key))];
+    }
+
+    /**
+     * Stores an entry, replacing any entry with the same key.
+     *
+     * @param entry The entry to store
+     */
+    void put(BinarySearchTreeMap.BSTEntry<K, V> entry) {
+        int hash = hash(entry.getKey());
+        int i = slot(entry.getKey(), hash);
+        if (slots[i] == null) {
+            size++;
+        }
+        slots[i] = entry;
+        hashes[i] = hash;
+        if (2 * size > slots.length) {
+            resize(2 * slots.length);
+        }
+    }
+
+    /**
+     * Removes the entry with the key, if present, and moves entries later in its probe sequence back.
+     *
+     * @param key The key
+     */
+    void remove(K key) {
+        int mask = slots.length - 1;
+        int free = slot(key, hash(key));
+        if (slots[free] == null) {
+            return;
+        }
+        slots[free] = null;
+        size--;
+        for (int i = (free + 1) & mask; slots[i] != null; i = (i + 1) & mask) {
+            int home = hashes[i] & mask;
+            // The entry may move to the free slot unless its home lies cyclically after the free slot.
+            if (((i - home) & mask) >= ((i - free) & mask)) {
+                slots[free] = slots[i];
+                hashes[free] = hashes[i];
+                slots[i] = null;
+                free = i;
+            }
+        }
+    }
+
+    /**
+     * Moves the entries to a table of the given capacity.
+     *
+     * @param capacity The new number of slots, a power of two
+     */
+    private void resize(int capacity) {
+        BinarySearchTreeMap.BSTEntry<K, V>[] oldSlots = slots;
+        int[] oldHashes = hashes;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int j = 0; j < oldSlots.length; j++) {
+            if (oldSlots[j] != null) {
+                int i = oldHashes[j] & mask;
+                while (slots[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = oldSlots[j];
+                hashes[i] = oldHashes[j];
+            }
+        }
+    }
+}
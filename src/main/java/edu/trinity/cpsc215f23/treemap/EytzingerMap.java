@@ -0,0 +1,295 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.map.Map;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * An immutable map which stores the keys of another map in one array in Eytzinger order: the root of an implicit
+ * balanced search tree at index 1 and the children of index i at 2i and 2i + 1. A search walks down the array
+ * without following references between nodes, and the first levels of the tree share a few cache lines, so
+ * lookups touch far less memory than in a linked tree. Values are kept in a parallel array.
+ * <p>
+ * A map frozen from a {@link StringTreeMap} also keeps the packed four-character prefix of every key in a
+ * parallel long array, so most steps of a search compare two longs in contiguous memory and never load the key.
+ * <p>
+ * The map is read-only; put and remove throw UnsupportedOperationException.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class EytzingerMap<K, V> implements Map<K, V> {
+
+    /**
+     * It is used to compare elements in the class
+     */
+    private final Comparator<K> comparator;
+
+    /**
+     * The keys in Eytzinger order from index 1; index 0 is unused.
+     */
+    private final Object[] keys;
+
+    /**
+     * The values parallel to keys.
+     */
+    private final Object[] values;
+
+    /**
+     * The packed prefixes of String keys parallel to keys, or null if the keys are not compared as Strings.
+     */
+    private final long[] prefixes;
+
+    /**
+     * The number of entries in the map.
+     */
+    private final int size;
+
+    /**
+     * Creates a snapshot of a map whose entries iterate in the order of the comparator.
+     *
+     * @param source     The map to copy
+     * @param comparator The order of the keys of the source
+     */
+    public EytzingerMap(Map<K, V> source, Comparator<K> comparator) {
+        this.comparator = comparator;
+        this.size = source.size();
+        Object[] sortedKeys = new Object[size];
+        Object[] sortedValues = new Object[size];
+        int[] count = new int[1];
+        source.forEach((key, value) -> {
+            sortedKeys[count[0]] = key;
+            sortedValues[count[0]++] = value;
+        });
+
+        keys = new Object[size + 1];
+        values = new Object[size + 1];
+        fill(sortedKeys, sortedValues, 1, 0);
+
+        if (source instanceof StringTreeMap) {
+            prefixes = new long[size + 1];
+            for (int i = 1; i <= size; i++) {
+                prefixes[i] = StringTreeMap.prefix((String) keys[i]);
+            }
+        } else {
+            prefixes = null;
+        }
+    }
+
+    /**
+     * Places the sorted entries into the subtree rooted at index i by an inorder walk of the implicit tree.
+     *
+     * @param sortedKeys   The keys in order
+     * @param sortedValues The values in the order of their keys
+     * @param i            The root of the subtree
+     * @param next         The index of the next sorted entry to place
+     * @return The index of the next sorted entry after the subtree
+     */
+    private int fill(Object[] sortedKeys, Object[] sortedValues, int i, int next) {
+        if (i <= size) {
+            next = fill(sortedKeys, sortedValues, 2 * i, next);
+            keys[i] = sortedKeys[next];
+            values[i] = sortedValues[next++];
+            next = fill(sortedKeys, sortedValues, 2 * i + 1, next);
+        }
+        return next;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tests whether the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry exists.
+     *
+     * @param key - the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     * @throws IllegalArgumentException if the key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key is null.");
+        }
+        int i = 1;
+        if (prefixes != null) {
+            long keyPrefix = StringTreeMap.prefix((String) key);
+            while (i <= size) {
+                int comp = Long.compareUnsigned(keyPrefix, prefixes[i]);
+                if (comp == 0) {
+                    comp = ((String) key).compareTo((String) keys[i]);
+                    if (comp == 0) {
+                        return (V) values[i];
+                    }
+                }
+                i = 2 * i + (comp >>> 31 ^ 1);
+            }
+            return null;
+        }
+        while (i <= size) {
+            int comp = comparator.compare(key, (K) keys[i]);
+            if (comp == 0) {
+                return (V) values[i];
+            }
+            i = 2 * i + (comp >>> 31 ^ 1);
+        }
+        return null;
+    }
+
+    /**
+     * Rejects the change; the map is read-only.
+     *
+     * @param key   - key with which the specified value is to be associated
+     * @param value - value to be associated with the specified key
+     * @return never returns
+     * @throws UnsupportedOperationException always
+     */
+    public V put(K key, V value) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("The map is read-only.");
+    }
+
+    /**
+     * Rejects the change; the map is read-only.
+     *
+     * @param key - the key whose entry is to be removed from the map
+     * @return never returns
+     * @throws UnsupportedOperationException always
+     */
+    public V remove(K key) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("The map is read-only.");
+    }
+
+    /**
+     * Visits the entries in key order, by an inorder walk of the implicit tree, until the action returns false.
+     *
+     * @param action The action applied to the key and value of each entry; returns false to stop
+     * @return true if every entry was visited, false if the action stopped the traversal
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean forEachWhile(BiPredicate<? super K, ? super V> action) {
+        if (size == 0) {
+            return true;
+        }
+        int i = 1;
+        while (2 * i <= size) {
+            i = 2 * i;
+        }
+        while (i > 0) {
+            if (!action.test((K) keys[i], (V) values[i])) {
+                return false;
+            }
+            if (2 * i + 1 <= size) {
+                i = 2 * i + 1;
+                while (2 * i <= size) {
+                    i = 2 * i;
+                }
+            } else {
+                while (i > 1 && (i & 1) == 1) {
+                    i >>= 1;
+                }
+                i >>= 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns an iterable collection of the keys in order.
+     *
+     * @return iterable collection of the map's keys
+     */
+    public Iterable<K> keySet() {
+        List<K> keyList = new ArrayList<>(size);
+        forEach((key, value) -> keyList.add(key));
+        return keyList;
+    }
+
+    /**
+     * Returns an iterable collection of the values in the order of their keys.
+     *
+     * @return iterable collection of the map's values
+     */
+    public Iterable<V> values() {
+        List<V> valueList = new ArrayList<>(size);
+        forEach((key, value) -> valueList.add(value));
+        return valueList;
+    }
+
+    /**
+     * Returns an iterable collection of the entries in the order of their keys.
+     *
+     * @return iterable collection of the map's entries
+     */
+    public Iterable<Entry<K, V>> entrySet() {
+        List<Entry<K, V>> entryList = new ArrayList<>(size);
+        forEach((key, value) -> entryList.add(new ArrayEntry<>(key, value)));
+        return entryList;
+    }
+
+    /**
+     * This class converts a map into a String
+     *
+     * @return Returns a string representation of the map
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        forEach((key, value) -> sb.append("(").append(key).append(", ").append(value).append(")").append("\n"));
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * An entry copied out of the map.
+     */
+    private static class ArrayEntry<K, V> implements Entry<K, V> {
+        /**
+         * The key of the entry.
+         */
+        private final K key;
+
+        /**
+         * The value of the entry.
+         */
+        private final V value;
+
+        /**
+         * Creates an entry.
+         *
+         * @param key   The key of the entry
+         * @param value The value of the entry
+         */
+        ArrayEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.map.Map;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Realization of an ordered map with String keys which stores the keys compressed by front coding. The sorted
+ * keys are cut into blocks of at most {@link #MAX_BLOCK_SIZE} keys; within a block every key is stored in UTF-8 as
+ * the length of the prefix it shares with the previous key and the remaining suffix bytes. Sorted names such as
+ * "Smith, Ann" and "Smith, Anna" share long prefixes, so the keys take a fraction of the memory of String objects.
+ * <p>
+ * A search binary searches the first keys of the blocks and then scans one block. The scan compares only the
+ * suffixes of keys whose shared prefix equals the part of the searched key matched so far, and never decodes a
+ * key into a String. Inserting or removing a key re-encodes its block, which holds at most 64 keys.
+ * <p>
+ * Keys are ordered by their UTF-8 bytes, which is the order of their code points. This is the order of
+ * {@link String#compareTo(String)} except for supplementary characters.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class FrontCodedTreeMap<V> implements Map<String, V> {
+
+    /**
+     * The largest number of keys in a block; a block which grows beyond it is split in two.
+     */
+    public static final int MAX_BLOCK_SIZE = 64;
+
+    /**
+     * The blocks in key order.
+     */
+    private final List<Block> blocks = new ArrayList<>();
+
+    /**
+     * The number of entries in the map.
+     */
+    private int size;
+
+    /**
+     * Creates an empty FrontCodedTreeMap.
+     */
+    public FrontCodedTreeMap() {
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tests whether the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks whether a given key is valid.
+     *
+     * @param key The key to check
+     * @throws IllegalArgumentException if the key is null
+     */
+    private static void checkKey(String key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key is null.");
+        }
+    }
+
+    /**
+     * Finds the block which holds the key if the map has it: the last block whose first key is not greater.
+     *
+     * @param key The UTF-8 bytes of the key
+     * @return The index of the block, or 0 if the key precedes every block
+     */
+    private int findBlock(byte[] key) {
+        int low = 1;
+        int high = blocks.size() - 1;
+        int found = 0;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (Arrays.compareUnsigned(blocks.get(middle).first, key) <= 0) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the value associated with the specified key, or null if no such entry exists.
+     *
+     * @param key - the key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     * @throws IllegalArgumentException if the key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(String key) throws IllegalArgumentException {
+        checkKey(key);
+        if (size == 0) {
+            return null;
+        }
+        Block block = blocks.get(findBlock(utf8(key)));
+        int index = block.search(utf8(key));
+        return index < 0 ? null : (V) block.values[index];
+    }
+
+    /**
+     * Associates the value with the key, returning the previous value or null.
+     *
+     * @param key   - key with which the specified value is to be associated
+     * @param value - value to be associated with the specified key
+     * @return the previous value associated with the key, or null
+     * @throws IllegalArgumentException if the key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(String key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        byte[] bytes = utf8(key);
+        if (size == 0) {
+            Block block = new Block();
+            block.encode(new byte[][]{bytes}, new Object[]{value}, 1);
+            blocks.add(block);
+            size++;
+            return null;
+        }
+
+        int blockIndex = findBlock(bytes);
+        Block block = blocks.get(blockIndex);
+        int index = block.search(bytes);
+        if (index >= 0) {
+            V old = (V) block.values[index];
+            block.values[index] = value;
+            return old;
+        }
+
+        int position = -index - 1;
+        int count = block.count + 1;
+        byte[][] keys = new byte[count][];
+        Object[] values = new Object[count];
+        block.decode(keys);
+        System.arraycopy(keys, position, keys, position + 1, block.count - position);
+        System.arraycopy(block.values, 0, values, 0, position);
+        System.arraycopy(block.values, position, values, position + 1, block.count - position);
+        keys[position] = bytes;
+        values[position] = value;
+        if (count <= MAX_BLOCK_SIZE) {
+            block.encode(keys, values, count);
+        } else {
+            int half = count / 2;
+            Block upper = new Block();
+            upper.encode(Arrays.copyOfRange(keys, half, count), Arrays.copyOfRange(values, half, count), count - half);
+            block.encode(keys, Arrays.copyOf(values, half), half);
+            blocks.add(blockIndex + 1, upper);
+        }
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the entry with the key, if present, and returns its value.
+     *
+     * @param key - the key whose entry is to be removed from the map
+     * @return the value of the removed entry, or null
+     * @throws IllegalArgumentException if the key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(String key) throws IllegalArgumentException {
+        checkKey(key);
+        if (size == 0) {
+            return null;
+        }
+        byte[] bytes = utf8(key);
+        int blockIndex = findBlock(bytes);
+        Block block = blocks.get(blockIndex);
+        int index = block.search(bytes);
+        if (index < 0) {
+            return null;
+        }
+
+        V old = (V) block.values[index];
+        if (block.count == 1) {
+            blocks.remove(blockIndex);
+        } else {
+            byte[][] keys = new byte[block.count][];
+            block.decode(keys);
+            System.arraycopy(keys, index + 1, keys, index, block.count - index - 1);
+            Object[] values = new Object[block.count - 1];
+            System.arraycopy(block.values, 0, values, 0, index);
+            System.arraycopy(block.values, index + 1, values, index, block.count - index - 1);
+            block.encode(keys, values, block.count - 1);
+        }
+        size--;
+        return old;
+    }
+
+    /**
+     * Visits the entries in key order until the action returns false. Each key is decoded once into a String.
+     *
+     * @param action The action applied to the key and value of each entry; returns false to stop
+     * @return true if every entry was visited, false if the action stopped the traversal
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean forEachWhile(BiPredicate<? super String, ? super V> action) {
+        byte[] key = new byte[64];
+        for (Block block : blocks) {
+            int offset = 0;
+            int length = 0;
+            for (int i = 0; i < block.count; i++) {
+                int shared = block.data[offset++] & 0xff;
+                int suffix = block.data[offset++] & 0xff;
+                if (shared == 0xff) {
+                    shared = readInt(block.data, offset);
+                    offset += 4;
+                }
+                if (suffix == 0xff) {
+                    suffix = readInt(block.data, offset);
+                    offset += 4;
+                }
+                length = shared + suffix;
+                if (length > key.length) {
+                    key = Arrays.copyOf(key, Math.max(length, 2 * key.length));
+                }
+                System.arraycopy(block.data, offset, key, shared, suffix);
+                offset += suffix;
+                if (!action.test(new String(key, 0, length, StandardCharsets.UTF_8), (V) block.values[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bytes holding the keys: the front coded blocks and the first key of every block.
+     *
+     * @return the bytes of key storage
+     */
+    public long keyBytes() {
+        long bytes = 0;
+        for (Block block : blocks) {
+            bytes += block.data.length + block.first.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns an iterable collection of the keys in order.
+     *
+     * @return iterable collection of the map's keys
+     */
+    public Iterable<String> keySet() {
+        List<String> keyList = new ArrayList<>(size);
+        forEach((key, value) -> keyList.add(key));
+        return keyList;
+    }
+
+    /**
+     * Returns an iterable collection of the values in the order of their keys.
+     *
+     * @return iterable collection of the map's values
+     */
+    public Iterable<V> values() {
+        List<V> valueList = new ArrayList<>(size);
+        forEach((key, value) -> valueList.add(value));
+        return valueList;
+    }
+
+    /**
+     * Returns an iterable collection of the entries in the order of their keys.
+     *
+     * @return iterable collection of the map's entries
+     */
+    public Iterable<Entry<String, V>> entrySet() {
+        List<Entry<String, V>> entryList = new ArrayList<>(size);
+        forEach((key, value) -> entryList.add(new BlockEntry<>(key, value)));
+        return entryList;
+    }
+
+    /**
+     * This class converts a map into a String
+     *
+     * @return Returns a string representation of the map
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        forEach((key, value) -> sb.append("(").append(key).append(", ").append(value).append(")").append("\n"));
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * Encodes a key in UTF-8.
+     *
+     * @param key The key
+     * @return The bytes of the key
+     */
+    private static byte[] utf8(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a big-endian int.
+     *
+     * @param data   The bytes
+     * @param offset The offset of the int
+     * @return The int
+     */
+    private static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xff) << 24 | (data[offset + 1] & 0xff) << 16 | (data[offset + 2] & 0xff) << 8
+                | data[offset + 3] & 0xff;
+    }
+
+    /**
+     * A block of consecutive keys. Each key is stored as a byte with the length of the prefix it shares with the
+     * previous key, a byte with the length of the rest, and the rest; a length of 255 or more is stored as the
+     * byte 255 followed by the length as a four byte int after both length bytes.
+     */
+    private static class Block {
+        /**
+         * The first key of the block in full.
+         */
+        byte[] first;
+
+        /**
+         * The front coded keys.
+         */
+        byte[] data;
+
+        /**
+         * The values in the order of their keys.
+         */
+        Object[] values;
+
+        /**
+         * The number of keys in the block.
+         */
+        int count;
+
+        /**
+         * Replaces the contents of the block.
+         *
+         * @param keys   The keys in order, at least count of them
+         * @param values The values in the order of their keys, at least count of them
+         * @param count  The number of entries
+         */
+        void encode(byte[][] keys, Object[] values, int count) {
+            int length = 0;
+            byte[] previous = new byte[0];
+            for (int i = 0; i < count; i++) {
+                int shared = Arrays.mismatch(previous, keys[i]);
+                shared = shared < 0 ? previous.length : shared;
+                int suffix = keys[i].length - shared;
+                length += 2 + (shared >= 0xff ? 4 : 0) + (suffix >= 0xff ? 4 : 0) + suffix;
+                previous = keys[i];
+            }
+
+            byte[] encoded = new byte[length];
+            int offset = 0;
+            previous = new byte[0];
+            for (int i = 0; i < count; i++) {
+                int shared = Arrays.mismatch(previous, keys[i]);
+                shared = shared < 0 ? previous.length : shared;
+                int suffix = keys[i].length - shared;
+                encoded[offset++] = (byte) Math.min(shared, 0xff);
+                encoded[offset++] = (byte) Math.min(suffix, 0xff);
+                if (shared >= 0xff) {
+                    offset = writeInt(encoded, offset, shared);
+                }
+                if (suffix >= 0xff) {
+                    offset = writeInt(encoded, offset, suffix);
+                }
+                System.arraycopy(keys[i], shared, encoded, offset, suffix);
+                offset += suffix;
+                previous = keys[i];
+            }
+
+            this.first = keys[0];
+            this.data = encoded;
+            this.values = Arrays.copyOf(values, count);
+            this.count = count;
+        }
+
+        /**
+         * Writes a big-endian int.
+         *
+         * @param data   The bytes
+         * @param offset The offset of the int
+         * @param value  The int
+         * @return The offset after the int
+         */
+        private static int writeInt(byte[] data, int offset, int value) {
+            data[offset] = (byte) (value >>> 24);
+            data[offset + 1] = (byte) (value >>> 16);
+            data[offset + 2] = (byte) (value >>> 8);
+            data[offset + 3] = (byte) value;
+            return offset + 4;
+        }
+
+        /**
+         * Decodes every key of the block.
+         *
+         * @param keys The array receiving the keys from index 0
+         */
+        void decode(byte[][] keys) {
+            int offset = 0;
+            byte[] previous = null;
+            for (int i = 0; i < count; i++) {
+                int shared = data[offset++] & 0xff;
+                int suffix = data[offset++] & 0xff;
+                if (shared == 0xff) {
+                    shared = readInt(data, offset);
+                    offset += 4;
+                }
+                if (suffix == 0xff) {
+                    suffix = readInt(data, offset);
+                    offset += 4;
+                }
+                byte[] key = new byte[shared + suffix];
+                if (shared > 0) {
+                    System.arraycopy(previous, 0, key, 0, shared);
+                }
+                System.arraycopy(data, offset, key, shared, suffix);
+                offset += suffix;
+                keys[i] = key;
+                previous = key;
+            }
+        }
+
+        /**
+         * Searches the block for a key. The scan keeps the length of the prefix the current key shares with the
+         * searched key: a key sharing less with its predecessor than that is greater than the searched key, a key
+         * sharing more is still smaller, and only a key sharing exactly as much is compared byte by byte.
+         *
+         * @param key The UTF-8 bytes of the key
+         * @return The index of the key, or -(insertion point) - 1 if the block does not have it
+         */
+        int search(byte[] key) {
+            int offset = 0;
+            int matched = 0;
+            for (int i = 0; i < count; i++) {
+                int shared = data[offset++] & 0xff;
+                int suffix = data[offset++] & 0xff;
+                if (shared == 0xff) {
+                    shared = readInt(data, offset);
+                    offset += 4;
+                }
+                if (suffix == 0xff) {
+                    suffix = readInt(data, offset);
+                    offset += 4;
+                }
+                if (i > 0 && shared < matched) {
+                    return -i - 1;
+                }
+                if (i == 0 || shared == matched) {
+                    int j = 0;
+                    while (j < suffix && matched + j < key.length && data[offset + j] == key[matched + j]) {
+                        j++;
+                    }
+                    matched += j;
+                    if (j == suffix && matched == key.length) {
+                        return i;
+                    }
+                    if (j < suffix && (matched == key.length
+                            || (data[offset + j] & 0xff) > (key[matched] & 0xff))) {
+                        return -i - 1;
+                    }
+                }
+                offset += suffix;
+            }
+            return -count - 1;
+        }
+    }
+
+    /**
+     * An entry copied out of the map.
+     */
+    private static class BlockEntry<K, V> implements Entry<K, V> {
+        /**
+         * The key of the entry.
+         */
+        private final K key;
+
+        /**
+         * The value of the entry.
+         */
+        private final V value;
+
+        /**
+         * Creates an entry.
+         *
+         * @param key   The key of the entry
+         * @param value The value of the entry
+         */
+        BlockEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.feed.ChangeEvent;
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.tree.Position;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A binary search tree map with a hash index from each key to its entry. Exact lookups go through the index in
+ * expected O(1) time without comparing keys, and removals jump straight to the node of the entry; the tree still
+ * keeps the entries in key order for iteration. Entries know their position in the tree, and the tree keeps those
+ * positions current when entries move, so the index never has to be updated for changes of shape.
+ * <p>
+ * The comparator must be consistent with equals, because the index finds keys by hashCode and equals.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class HashIndexedTreeMap<K, V> extends BinarySearchTreeMap<K, V> {
+
+    /**
+     * The index from keys to the entries of the tree.
+     */
+    private final EntryIndex<K, V> index = new EntryIndex<>();
+
+    /**
+     * Creates an empty HashIndexedTreeMap with a default comparator.
+     */
+    public HashIndexedTreeMap() {
+        super();
+    }
+
+    /**
+     * Creates an empty HashIndexedTreeMap with the given comparator.
+     *
+     * @param comparator The comparator ordering the keys, consistent with equals
+     */
+    public HashIndexedTreeMap(Comparator<K> comparator) {
+        super(comparator);
+    }
+
+    /**
+     * Returns the value associated with the key, found through the hash index. The position of the entry, or
+     * null if there is none, becomes the last action position.
+     *
+     * @param key The key whose value is to be found
+     * @return the value associated with the key, or null
+     */
+    @Override
+    public V get(K key) throws IllegalArgumentException {
+        checkKey(key);
+        long start = metrics == null ? 0 : System.nanoTime();
+        BSTEntry<K, V> entry = index.get(key);
+        actionPos = entry == null ? null : entry.position();
+        if (metrics != null) {
+            metrics.getLatency().record(System.nanoTime() - start);
+        }
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * Associates the value with the key. An existing entry is replaced in place without searching the tree.
+     *
+     * @param key   The key with which the value is to be associated
+     * @param value The value to associate
+     * @return the previous value associated with the key, or null
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        BSTEntry<K, V> existing = index.get(key);
+        if (existing == null) {
+            V old = super.put(key, value);
+            index.put((BSTEntry<K, V>) entry(actionPos));
+            return old;
+        }
+
+        long start = metrics == null ? 0 : System.nanoTime();
+        Position<Entry<K, V>> position = existing.position();
+        BSTEntry<K, V> entry = createEntry(key, value, position);
+        actionPos = position;
+        V old = replaceEntry(position, entry);
+        index.put(entry);
+        publish(ChangeEvent.Type.REPLACE, key, old, value);
+        if (metrics != null) {
+            metrics.putLatency().record(System.nanoTime() - start);
+        }
+        return old;
+    }
+
+    /**
+     * Fills an empty map with entries in key order and indexes every entry.
+     *
+     * @param keys   The keys in strictly ascending order
+     * @param values The values in the order of their keys
+     */
+    @Override
+    protected void loadSorted(List<K> keys, List<V> values) {
+        super.loadSorted(keys, values);
+        forEachEntryWhile(root, entry -> {
+            index.put((BSTEntry<K, V>) entry);
+            return true;
+        });
+    }
+
+    /**
+     * Removes the entry with the key, found through the hash index.
+     *
+     * @param key The key whose entry is to be removed
+     * @return the value of the removed entry, or null
+     */
+    @Override
+    public V remove(K key) throws IllegalArgumentException {
+        checkKey(key);
+        long start = metrics == null ? 0 : System.nanoTime();
+        BSTEntry<K, V> entry = index.get(key);
+        V old = null;
+        if (entry != null) {
+            index.remove(key);
+            old = removeAt(entry.position());
+        } else {
+            actionPos = null;
+        }
+        if (metrics != null) {
+            metrics.removeLatency().record(System.nanoTime() - start);
+        }
+        return old;
+    }
+}
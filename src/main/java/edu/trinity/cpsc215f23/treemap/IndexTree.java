@@ -0,0 +1,384 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * The shape of a binary search tree stored in parallel arrays, shared by the maps with primitive keys. A node is an
+ * index into the arrays of values and left and right children; the subclass keeps the keys in an array of its own
+ * primitive type and does the comparisons, while this class links, unlinks and rebalances nodes without looking at
+ * keys.
+ * <p>
+ * The tree is balanced in the manner of a scapegoat tree. An insert deeper than
+ * {@link BinarySearchTreeMap#DEFAULT_REBUILD_FACTOR} times log2 of the number of entries climbs its search path to
+ * the first ancestor whose subtree is not alpha-weight-balanced and relinks only that subtree into a perfectly
+ * balanced shape, in place; a remove which leaves fewer than alpha times the largest number of entries since the
+ * last full rebuild relinks the whole tree. Rebuilds cost O(log n) amortized time per update, and reuse scratch
+ * arrays kept by the tree, so they allocate nothing once the tree has stopped growing.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+abstract class IndexTree<V> {
+
+    /**
+     * The index standing for no node.
+     */
+    protected static final int NIL = -1;
+
+    /**
+     * The largest fraction of the entries of a subtree which one of its children may hold.
+     */
+    private static final double ALPHA = Math.pow(2, -1 / BinarySearchTreeMap.DEFAULT_REBUILD_FACTOR);
+
+    /**
+     * The values of the nodes.
+     */
+    protected Object[] values;
+
+    /**
+     * The left child of each node; for a free node, the next free node.
+     */
+    protected int[] left;
+
+    /**
+     * The right child of each node.
+     */
+    protected int[] right;
+
+    /**
+     * The root node.
+     */
+    protected int root = NIL;
+
+    /**
+     * The first free node below used, or NIL.
+     */
+    private int free = NIL;
+
+    /**
+     * The number of nodes ever allocated; nodes from used onwards have never been used.
+     */
+    private int used;
+
+    /**
+     * The number of entries in the map.
+     */
+    protected int size;
+
+    /**
+     * An upper bound on the height of the tree.
+     */
+    protected int heightBound;
+
+    /**
+     * The largest number of entries since the whole tree was last rebuilt.
+     */
+    private int maxSize;
+
+    /**
+     * The number of times the tree or one of its subtrees was rebuilt.
+     */
+    private int rebuilds;
+
+    /**
+     * The nodes on the path of the last search, from the root; longer than the height bound.
+     */
+    private int[] path = new int[16];
+
+    /**
+     * A stack for walking subtrees; longer than the height bound.
+     */
+    private int[] stack = new int[16];
+
+    /**
+     * The nodes of a subtree being rebuilt, in key order.
+     */
+    private int[] order = new int[16];
+
+    /**
+     * Creates an empty tree.
+     *
+     * @param capacity The number of nodes the arrays hold before they grow
+     */
+    IndexTree(int capacity) {
+        values = new Object[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+    }
+
+    /**
+     * Grows the array of keys of the subclass.
+     *
+     * @param capacity The new number of nodes
+     */
+    protected abstract void growKeys(int capacity);
+
+    /**
+     * Returns the array to record a search path in, long enough for any path in the tree plus one node.
+     *
+     * @return The path array
+     */
+    protected int[] searchPath() {
+        if (path.length <= heightBound + 1) {
+            path = new int[2 * (heightBound + 2)];
+        }
+        return path;
+    }
+
+    /**
+     * Links a new node holding the value below the last node of the search path, which ended at an empty child,
+     * and rebuilds the subtree of its scapegoat if the new node is too deep. The subclass then stores the key.
+     *
+     * @param depth    The number of nodes on the search path, 0 for an empty tree
+     * @param leftSide Whether the node becomes the left child of the last node of the path
+     * @param value    The value of the new entry
+     * @return The new node
+     */
+    protected int insert(int depth, boolean leftSide, V value) {
+        int created = newNode(value);
+        if (depth == 0) {
+            root = created;
+        } else if (leftSide) {
+            left[path[depth - 1]] = created;
+        } else {
+            right[path[depth - 1]] = created;
+        }
+        size++;
+        heightBound = Math.max(heightBound, depth + 1);
+        maxSize = Math.max(maxSize, size);
+        if (depth + 1 > 2 && depth + 1 > BinarySearchTreeMap.DEFAULT_REBUILD_FACTOR * (Math.log(maxSize) / Math.log(2))) {
+            rebuildScapegoat(created, depth);
+        }
+        return created;
+    }
+
+    /**
+     * Takes a free node, growing the arrays if there is none.
+     *
+     * @param value The value of the node
+     * @return The new node
+     */
+    private int newNode(V value) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = left[node];
+        } else {
+            if (used == left.length) {
+                int capacity = left.length + (left.length >> 1) + 1;
+                values = Arrays.copyOf(values, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                growKeys(capacity);
+            }
+            node = used++;
+        }
+        values[node] = value;
+        left[node] = NIL;
+        right[node] = NIL;
+        return node;
+    }
+
+    /**
+     * Removes the last node of the search path. A node with two children is replaced by its inorder successor,
+     * which is relinked into its place, so every other node keeps its entry.
+     *
+     * @param depth The number of nodes on the search path, the last of which is removed
+     */
+    protected void unlink(int depth) {
+        int node = path[depth - 1];
+        int parent = depth > 1 ? path[depth - 2] : NIL;
+        int child;
+        if (left[node] == NIL) {
+            child = right[node];
+        } else if (right[node] == NIL) {
+            child = left[node];
+        } else {
+            int successorParent = node;
+            int successor = right[node];
+            while (left[successor] != NIL) {
+                successorParent = successor;
+                successor = left[successor];
+            }
+            if (successorParent != node) {
+                left[successorParent] = right[successor];
+                right[successor] = right[node];
+            }
+            left[successor] = left[node];
+            child = successor;
+        }
+        replaceChild(parent, node, child);
+        values[node] = null;
+        left[node] = free;
+        free = node;
+        size--;
+        if (size < ALPHA * maxSize) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Makes a node take the place of a child of a parent.
+     *
+     * @param parent      The parent, or NIL for the root
+     * @param child       The child to replace
+     * @param replacement The node taking its place, or NIL
+     */
+    private void replaceChild(int parent, int child, int replacement) {
+        if (parent == NIL) {
+            root = replacement;
+        } else if (left[parent] == child) {
+            left[parent] = replacement;
+        } else {
+            right[parent] = replacement;
+        }
+    }
+
+    /**
+     * Climbs the search path from a new node to the first ancestor one of whose children holds more than alpha
+     * of its entries, and rebuilds the subtree of that ancestor. The sizes are found by counting the subtrees of
+     * the siblings on the way up.
+     *
+     * @param created The new node
+     * @param depth   The number of ancestors of the new node on the search path
+     */
+    private void rebuildScapegoat(int created, int depth) {
+        int child = created;
+        int childSize = 1;
+        for (int i = depth - 1; i >= 0; i--) {
+            int parent = path[i];
+            int parentSize = childSize + 1 + walk(left[parent] == child ? right[parent] : left[parent], false);
+            if (childSize > ALPHA * parentSize) {
+                rebuild(i > 0 ? path[i - 1] : NIL, parent, parentSize);
+                return;
+            }
+            child = parent;
+            childSize = parentSize;
+        }
+    }
+
+    /**
+     * Relinks the whole tree into a perfectly balanced shape in O(n) time.
+     */
+    public void rebuild() {
+        rebuild(NIL, root, size);
+        heightBound = Integer.SIZE - Integer.numberOfLeadingZeros(size);
+        maxSize = size;
+    }
+
+    /**
+     * Relinks a subtree into a perfectly balanced shape in time linear in its size. The nodes stay where they are
+     * in the arrays; only their children change.
+     *
+     * @param parent The parent of the subtree, or NIL for the whole tree
+     * @param top    The root of the subtree
+     * @param count  The number of entries of the subtree
+     */
+    private void rebuild(int parent, int top, int count) {
+        if (order.length < count) {
+            order = new int[Math.max(count, 2 * order.length)];
+        }
+        walk(top, true);
+        replaceChild(parent, top, link(0, count - 1));
+        rebuilds++;
+    }
+
+    /**
+     * Walks a subtree in order with an explicit stack, counting its nodes and optionally recording them.
+     *
+     * @param top    The root of the subtree
+     * @param record Whether the nodes are stored in key order at the start of the order array
+     * @return The number of nodes of the subtree
+     */
+    private int walk(int top, boolean record) {
+        if (stack.length <= heightBound) {
+            stack = new int[2 * (heightBound + 1)];
+        }
+        int count = 0;
+        int depth = 0;
+        int node = top;
+        while (node != NIL || depth > 0) {
+            while (node != NIL) {
+                stack[depth++] = node;
+                node = left[node];
+            }
+            node = stack[--depth];
+            if (record) {
+                order[count] = node;
+            }
+            count++;
+            node = right[node];
+        }
+        return count;
+    }
+
+    /**
+     * Links the nodes of the order array from low to high, which are in key order, into a balanced subtree.
+     *
+     * @param low  The index of the first node of the subtree in the order array
+     * @param high The index of the last node of the subtree in the order array
+     * @return The root of the subtree, or NIL if it is empty
+     */
+    private int link(int low, int high) {
+        if (low > high) {
+            return NIL;
+        }
+        int middle = (low + high) >>> 1;
+        int node = order[middle];
+        left[node] = link(low, middle - 1);
+        right[node] = link(middle + 1, high);
+        return node;
+    }
+
+    /**
+     * Visits the nodes in key order until the action returns false.
+     *
+     * @param action The action applied to each node; returns false to stop
+     * @return true if every node was visited, false if the action stopped the traversal
+     */
+    protected boolean forEachNode(IntPredicate action) {
+        int[] nodes = new int[heightBound + 1];
+        int depth = 0;
+        int node = root;
+        while (node != NIL || depth > 0) {
+            while (node != NIL) {
+                nodes[depth++] = node;
+                node = left[node];
+            }
+            node = nodes[--depth];
+            if (!action.test(node)) {
+                return false;
+            }
+            node = right[node];
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tests whether the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of times the tree or one of its subtrees was rebuilt.
+     *
+     * @return the number of rebuilds
+     */
+    public int rebuildCount() {
+        return rebuilds;
+    }
+}
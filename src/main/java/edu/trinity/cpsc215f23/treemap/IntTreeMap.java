@@ -0,0 +1,290 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.map.Map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Realization of a map with int keys by means of a binary search tree stored in parallel arrays. A node is an
+ * index into the arrays of keys, values and left and right children, so the keys are never boxed and get, put
+ * of an existing key and remove allocate nothing. Keys are compared as primitives rather than through a
+ * comparator. The methods of {@link Map} are also provided for boxed keys.
+ * <p>
+ * The shape of the tree is kept by {@link IndexTree}, which rebuilds the subtree of a scapegoat in place when an
+ * insert is too deep, so ascending IDs do not degrade the tree into a list.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class IntTreeMap<V> extends IndexTree<V> implements Map<Integer, V> {
+
+    /**
+     * The keys of the nodes.
+     */
+    private int[] keys;
+
+    /**
+     * Creates an empty IntTreeMap.
+     */
+    public IntTreeMap() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty IntTreeMap with room for the given number of entries before its arrays grow.
+     *
+     * @param capacity The initial capacity
+     */
+    public IntTreeMap(int capacity) {
+        super(Math.max(1, capacity));
+        keys = new int[Math.max(1, capacity)];
+    }
+
+    /**
+     * Grows the array of keys.
+     *
+     * @param capacity The new number of nodes
+     */
+    @Override
+    protected void growKeys(int capacity) {
+        keys = Arrays.copyOf(keys, capacity);
+    }
+
+    /**
+     * Returns the node with the key.
+     *
+     * @param key The key to search for
+     * @return The node with the key, or NIL
+     */
+    private int find(int key) {
+        int node = root;
+        while (node != NIL) {
+            int nodeKey = keys[node];
+            if (key < nodeKey) {
+                node = left[node];
+            } else if (key > nodeKey) {
+                node = right[node];
+            } else {
+                return node;
+            }
+        }
+        return NIL;
+    }
+
+    /**
+     * Tests whether the map has an entry with the key.
+     *
+     * @param key The key to search for
+     * @return true if the key is present
+     */
+    public boolean containsKey(int key) {
+        return find(key) != NIL;
+    }
+
+    /**
+     * Returns the value associated with the key, or null if no such entry exists.
+     *
+     * @param key The key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int node = find(key);
+        return node == NIL ? null : (V) values[node];
+    }
+
+    /**
+     * Associates the value with the key, returning the previous value or null.
+     *
+     * @param key   The key with which the value is to be associated
+     * @param value The value to be associated with the key
+     * @return the previous value associated with the key
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int[] path = searchPath();
+        int depth = 0;
+        int node = root;
+        while (node != NIL) {
+            int nodeKey = keys[node];
+            if (key == nodeKey) {
+                V old = (V) values[node];
+                values[node] = value;
+                return old;
+            }
+            path[depth++] = node;
+            node = key < nodeKey ? left[node] : right[node];
+        }
+        int created = insert(depth, depth > 0 && key < keys[path[depth - 1]], value);
+        keys[created] = key;
+        return null;
+    }
+
+    /**
+     * Removes the entry with the key, if present, and returns its value. An entry with two children is replaced
+     * by its inorder successor.
+     *
+     * @param key The key whose entry is to be removed
+     * @return the value of the removed entry, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int[] path = searchPath();
+        int depth = 0;
+        int node = root;
+        while (node != NIL) {
+            path[depth++] = node;
+            int nodeKey = keys[node];
+            if (key == nodeKey) {
+                V old = (V) values[node];
+                unlink(depth);
+                return old;
+            }
+            node = key < nodeKey ? left[node] : right[node];
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a boxed key is valid.
+     *
+     * @param key The key to check
+     * @throws IllegalArgumentException if the key is null
+     */
+    private static void checkKey(Integer key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key is null.");
+        }
+    }
+
+    /**
+     * Returns the value associated with a boxed key.
+     *
+     * @param key The key whose associated value is to be returned
+     * @return the associated value, or null if no such entry exists
+     */
+    public V get(Integer key) throws IllegalArgumentException {
+        checkKey(key);
+        return get(key.intValue());
+    }
+
+    /**
+     * Associates the value with a boxed key.
+     *
+     * @param key   The key with which the value is to be associated
+     * @param value The value to be associated with the key
+     * @return the previous value associated with the key
+     */
+    public V put(Integer key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        return put(key.intValue(), value);
+    }
+
+    /**
+     * Removes the entry with a boxed key.
+     *
+     * @param key The key whose entry is to be removed
+     * @return the value of the removed entry, or null
+     */
+    public V remove(Integer key) throws IllegalArgumentException {
+        checkKey(key);
+        return remove(key.intValue());
+    }
+
+    /**
+     * Visits the entries in key order until the action returns false.
+     *
+     * @param action The action applied to the key and value of each entry; returns false to stop
+     * @return true if every entry was visited, false if the action stopped the traversal
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean forEachWhile(BiPredicate<? super Integer, ? super V> action) {
+        return forEachNode(node -> action.test(keys[node], (V) values[node]));
+    }
+
+    /**
+     * Returns an iterable collection of the keys in ascending order.
+     *
+     * @return iterable collection of the map's keys
+     */
+    public Iterable<Integer> keySet() {
+        List<Integer> keyList = new ArrayList<>(size);
+        forEach((key, value) -> keyList.add(key));
+        return keyList;
+    }
+
+    /**
+     * Returns an iterable collection of the values in the order of their keys.
+     *
+     * @return iterable collection of the map's values
+     */
+    public Iterable<V> values() {
+        List<V> valueList = new ArrayList<>(size);
+        forEach((key, value) -> valueList.add(value));
+        return valueList;
+    }
+
+    /**
+     * Returns an iterable collection of the entries in the order of their keys.
+     *
+     * @return iterable collection of the map's entries
+     */
+    public Iterable<Entry<Integer, V>> entrySet() {
+        List<Entry<Integer, V>> entryList = new ArrayList<>(size);
+        forEach((key, value) -> entryList.add(new IntEntry<>(key, value)));
+        return entryList;
+    }
+
+    /**
+     * This class converts a tree into a String
+     *
+     * @return Returns a string representation of a tree
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        forEach((key, value) -> sb.append("(").append(key).append(", ").append(value).append(")").append("\n"));
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * An entry copied out of the map.
+     */
+    private static class IntEntry<V> implements Entry<Integer, V> {
+        /**
+         * The key of the entry.
+         */
+        private final Integer key;
+
+        /**
+         * The value of the entry.
+         */
+        private final V value;
+
+        /**
+         * Creates an entry.
+         *
+         * @param key   The key of the entry
+         * @param value The value of the entry
+         */
+        IntEntry(Integer key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public Integer getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+    }
+}
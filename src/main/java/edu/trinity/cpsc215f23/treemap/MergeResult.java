@@ -0,0 +1,84 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import java.util.List;
+
+/**
+ * The outcome of merging two binary search tree maps: the merged map and the differences of the other map from
+ * the map merged into.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class MergeResult<K, V> {
+
+    /**
+     * The merged map.
+     */
+    private final BinarySearchTreeMap<K, V> merged;
+
+    /**
+     * The keys only in the other map, in order.
+     */
+    private final List<K> added;
+
+    /**
+     * The keys only in the map merged into, in order.
+     */
+    private final List<K> removed;
+
+    /**
+     * The keys in both maps with unequal values, in order.
+     */
+    private final List<K> changed;
+
+    /**
+     * Creates a merge result.
+     *
+     * @param merged  The merged map
+     * @param added   The keys only in the other map
+     * @param removed The keys only in the map merged into
+     * @param changed The keys in both maps with unequal values
+     */
+    MergeResult(BinarySearchTreeMap<K, V> merged, List<K> added, List<K> removed, List<K> changed) {
+        this.merged = merged;
+        this.added = added;
+        this.removed = removed;
+        this.changed = changed;
+    }
+
+    /**
+     * Returns the merged map, which holds every key of either map, resolving keys present in both.
+     *
+     * @return the merged map
+     */
+    public BinarySearchTreeMap<K, V> merged() {
+        return merged;
+    }
+
+    /**
+     * Returns the keys present only in the other map.
+     *
+     * @return the added keys in order
+     */
+    public List<K> added() {
+        return added;
+    }
+
+    /**
+     * Returns the keys present only in the map merged into.
+     *
+     * @return the removed keys in order
+     */
+    public List<K> removed() {
+        return removed;
+    }
+
+    /**
+     * Returns the keys present in both maps whose values are not equal.
+     *
+     * @return the changed keys in order
+     */
+    public List<K> changed() {
+        return changed;
+    }
+}
@@ -0,0 +1,656 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.map.Map;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Realization of a map by means of a persistent (immutable) binary search tree. Nodes are never modified once
+ * created: put and remove copy the nodes on the search path and share every other subtree with the previous
+ * version of the tree. The tree is weight-balanced: the weights of the two subtrees of every node, their numbers
+ * of entries plus one, differ by at most a factor of three, restored by rotating copies of the nodes on
+ * the path, so the tree is O(log n) deep whatever the order of the keys and each update copies O(log n) nodes. A snapshot of the map is therefore taken in O(1) and can be read and iterated without
+ * locking while writers continue to modify the map.
+ * <p>
+ * Writers are serialized with each other; readers never block. Several changes can be grouped into a
+ * {@link Transaction} which reads from the snapshot it began with and publishes all of its changes at once on
+ * commit, so other readers never observe a partially applied group of changes.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class PersistentTreeMap<K, V> implements Map<K, V> {
+
+    /**
+     * The largest ratio between the weights of the two subtrees of a node, where the weight of a subtree is its
+     * number of entries plus one.
+     */
+    private static final int DELTA = 3;
+
+    /**
+     * The ratio between the weights of the inner and outer subtrees of a heavy child below which one rotation
+     * restores the balance; at or above it, two are needed.
+     */
+    private static final int GAMMA = 2;
+
+    /**
+     * It is used to compare elements in the class
+     */
+    protected final Comparator<K> comparator;
+
+    /**
+     * The current version of the tree. Root and size are published together so a reader always sees a
+     * consistent pair.
+     */
+    protected volatile Version<K, V> head;
+
+    /**
+     * The last stamp given to a write. Every put or remove of the map, and every transaction, takes a new stamp
+     * and marks the entries it writes with it.
+     */
+    private final AtomicLong stamps = new AtomicLong();
+
+    /**
+     * Creates an empty PersistentTreeMap with a default comparator.
+     */
+    public PersistentTreeMap() {
+        this(new DefaultComparator<>());
+    }
+
+    /**
+     * Creates an empty PersistentTreeMap with comparator parameter
+     *
+     * @param comparator Stores the comparison value of objects in the class
+     */
+    public PersistentTreeMap(Comparator<K> comparator) {
+        this(comparator, new Version<>(null, 0));
+    }
+
+    /**
+     * Creates a PersistentTreeMap starting from an existing version of a tree.
+     *
+     * @param comparator The comparator the version was built with
+     * @param head       The version to start from
+     */
+    protected PersistentTreeMap(Comparator<K> comparator, Version<K, V> head) {
+        this.comparator = comparator;
+        this.head = head;
+    }
+
+    /**
+     * Returns an independent copy of this map in O(1). Later changes to either map are not visible in the other.
+     *
+     * @return A snapshot of the map
+     */
+    public PersistentTreeMap<K, V> snapshot() {
+        return new PersistentTreeMap<>(comparator, head);
+    }
+
+    /**
+     * Begins a transaction reading from the current version of the map.
+     *
+     * @return A new transaction
+     */
+    public Transaction begin() {
+        return new Transaction(head);
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return number of entries in the map
+     */
+    public int size() {
+        return head.size;
+    }
+
+    /**
+     * Tests whether the map is empty.
+     *
+     * @return true if the map is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Checks whether a given key is valid.
+     *
+     * @param key Stores the key to be checked
+     */
+    protected void checkKey(K key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException("Key is null.");
+        }
+    }
+
+    /**
+     * Searches the tree of the given root for a key.
+     *
+     * @param root The root of the tree to search
+     * @param key  The key to search for
+     * @return The node holding the key, or null if no such node exists
+     */
+    protected Node<K, V> find(Node<K, V> root, K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int comp = comparator.compare(key, node.key);
+            if (comp < 0) {
+                node = node.left;
+            } else if (comp > 0) {
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a value whose associated key is k.
+     *
+     * @param key The key whose value is to be found
+     * @return Returns the value of the associated key
+     */
+    public V get(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Node<K, V> node = find(head.root, key);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Inserts an entry with a given key and value into the map, returning
+     * the old value whose associated key is key if it exists.
+     *
+     * @param key   : The key whose value is to be replaced
+     * @param value : The new value that replaces the old one
+     * @return : Returns the old value associated to the key
+     */
+    public synchronized V put(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        Version<K, V> current = head;
+        Node<K, V> old = find(current.root, key);
+        head = new Version<>(insert(current.root, key, value, stamps.incrementAndGet()),
+                old == null ? current.size + 1 : current.size);
+        return old == null ? null : old.value;
+    }
+
+    /**
+     * Removes from the map the entry whose key is k, returning the value of
+     * the removed entry.
+     *
+     * @param key : The key whose value is to be removed
+     * @return : Returns the removed value
+     */
+    public synchronized V remove(K key) throws IllegalArgumentException {
+        checkKey(key);
+        Version<K, V> current = head;
+        Node<K, V> old = find(current.root, key);
+        if (old == null) {
+            return null;
+        }
+        head = new Version<>(delete(current.root, key), current.size - 1);
+        return old.value;
+    }
+
+    /**
+     * Returns the number of entries of a subtree plus one, the weight by which subtrees are balanced.
+     *
+     * @param node The root of the subtree, or null
+     * @return The weight of the subtree
+     */
+    private static int weight(Node<?, ?> node) {
+        return node == null ? 1 : node.size + 1;
+    }
+
+    /**
+     * Returns a node holding an entry above two subtrees, each balanced and off balance with the other by at most
+     * one entry inserted or deleted, rotating once or twice if the weight of one side exceeds DELTA times the
+     * weight of the other. Rotations create new nodes; the subtrees given are shared, not modified.
+     *
+     * @param key   The key of the entry
+     * @param value The value of the entry
+     * @param stamp The stamp of the entry
+     * @param left  The left subtree
+     * @param right The right subtree
+     * @return The root of the balanced subtree
+     */
+    private Node<K, V> balance(K key, V value, long stamp, Node<K, V> left, Node<K, V> right) {
+        if (weight(right) > DELTA * weight(left)) {
+            Node<K, V> inner = right.left;
+            if (weight(inner) < GAMMA * weight(right.right)) {
+                return new Node<>(right.key, right.value, new Node<>(key, value, left, inner, stamp), right.right,
+                        right.stamp);
+            }
+            return new Node<>(inner.key, inner.value, new Node<>(key, value, left, inner.left, stamp),
+                    new Node<>(right.key, right.value, inner.right, right.right, right.stamp), inner.stamp);
+        }
+        if (weight(left) > DELTA * weight(right)) {
+            Node<K, V> inner = left.right;
+            if (weight(inner) < GAMMA * weight(left.left)) {
+                return new Node<>(left.key, left.value, left.left, new Node<>(key, value, inner, right, stamp),
+                        left.stamp);
+            }
+            return new Node<>(inner.key, inner.value, new Node<>(left.key, left.value, left.left, inner.left,
+                    left.stamp), new Node<>(key, value, inner.right, right, stamp), inner.stamp);
+        }
+        return new Node<>(key, value, left, right, stamp);
+    }
+
+    /**
+     * Returns a copy of the tree of the given root with the key bound to the value. Only the nodes on the search
+     * path, and those rotated to rebalance it, are copied; the copies keep their stamps, and the entry of the key
+     * gets the given one. The recursion is as deep as the tree, which is O(log n).
+     *
+     * @param node  The root of the tree
+     * @param key   The key to insert
+     * @param value The value to bind to the key
+     * @param stamp The stamp of the write
+     * @return The root of the new tree
+     */
+    protected Node<K, V> insert(Node<K, V> node, K key, V value, long stamp) {
+        if (node == null) {
+            return new Node<>(key, value, null, null, stamp);
+        }
+        int comp = comparator.compare(key, node.key);
+        if (comp < 0) {
+            return balance(node.key, node.value, node.stamp, insert(node.left, key, value, stamp), node.right);
+        } else if (comp > 0) {
+            return balance(node.key, node.value, node.stamp, node.left, insert(node.right, key, value, stamp));
+        }
+        return new Node<>(key, value, node.left, node.right, stamp);
+    }
+
+    /**
+     * Returns a copy of the tree of the given root without the key, which must be present. Only the nodes on the
+     * search path (and the path to the entry taking the place of the key, if any), and those rotated to
+     * rebalance them, are copied.
+     *
+     * @param node The root of the tree
+     * @param key  The key to delete
+     * @return The root of the new tree
+     */
+    protected Node<K, V> delete(Node<K, V> node, K key) {
+        int comp = comparator.compare(key, node.key);
+        if (comp < 0) {
+            return balance(node.key, node.value, node.stamp, delete(node.left, key), node.right);
+        } else if (comp > 0) {
+            return balance(node.key, node.value, node.stamp, node.left, delete(node.right, key));
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else if (node.left.size > node.right.size) {
+            Node<K, V> predecessor = node.left;
+            while (predecessor.right != null) {
+                predecessor = predecessor.right;
+            }
+            return balance(predecessor.key, predecessor.value, predecessor.stamp, deleteMax(node.left), node.right);
+        }
+        Node<K, V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, successor.stamp, node.left, deleteMin(node.right));
+    }
+
+    /**
+     * Returns a copy of the non-empty tree of the given root without its smallest key.
+     *
+     * @param node The root of the tree
+     * @return The root of the new tree
+     */
+    private Node<K, V> deleteMin(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.key, node.value, node.stamp, deleteMin(node.left), node.right);
+    }
+
+    /**
+     * Returns a copy of the non-empty tree of the given root without its largest key.
+     *
+     * @param node The root of the tree
+     * @return The root of the new tree
+     */
+    private Node<K, V> deleteMax(Node<K, V> node) {
+        if (node.right == null) {
+            return node.left;
+        }
+        return balance(node.key, node.value, node.stamp, node.left, deleteMax(node.right));
+    }
+
+    /**
+     * Returns an iterable collection of the keys of all entries stored in the
+     * map.
+     *
+     * @return : Returns an iterable collection of key set
+     */
+    public Iterable<K> keySet() {
+        List<K> keyList = new ArrayList<>();
+        for (Entry<K, V> entryValue : entrySet()) {
+            keyList.add(entryValue.getKey());
+        }
+        return keyList;
+    }
+
+    /**
+     * Returns an iterable collection of the values of all entries stored in
+     * the map.
+     *
+     * @return : Returns an iterable collection of value set
+     */
+    public Iterable<V> values() {
+        List<V> valueList = new ArrayList<>();
+        for (Entry<K, V> entryValue : entrySet()) {
+            valueList.add(entryValue.getValue());
+        }
+        return valueList;
+    }
+
+    /**
+     * Returns an iterable collection of all entries stored in the map, in key order, as of the moment of the call.
+     *
+     * @return : Returns an iterable collection of entries
+     */
+    public Iterable<Entry<K, V>> entrySet() {
+        Version<K, V> current = head;
+        List<Entry<K, V>> entryValue = new ArrayList<>(current.size);
+        inorderAddEntries(current.root, entryValue);
+        return entryValue;
+    }
+
+    /**
+     * This method traverses a tree in a tree inorder and stores the value as a list. The traversal keeps its path
+     * on an explicit stack instead of recursing.
+     *
+     * @param node        The node from where the inorder traversal is to be done
+     * @param entriesList The list to which inorder traversal is added
+     */
+    protected void inorderAddEntries(Node<K, V> node, List<Entry<K, V>> entriesList) {
+        ArrayDeque<Node<K, V>> path = new ArrayDeque<>();
+        while (node != null || !path.isEmpty()) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+            node = path.pop();
+            entriesList.add(node);
+            node = node.right;
+        }
+    }
+
+    /**
+     * This class converts a tree into a String
+     *
+     * @return Returns a string representation of a tree
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (Entry<K, V> entry : entrySet()) {
+            sb.append("(");
+            sb.append(entry.getKey());
+            sb.append(", ");
+            sb.append(entry.getValue());
+            sb.append(")");
+            sb.append("\n");
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * A group of changes applied to the map atomically. A transaction reads from the version of the map it began
+     * with, plus its own changes, and is not affected by concurrent writers. On commit, if any key written by the
+     * transaction was also changed by another writer since the transaction began, the commit fails; otherwise
+     * the transaction's changes are applied to the latest version and published in a single step.
+     * <p>
+     * Changes are detected by the stamp of each entry, not by its value, so a key which another writer set to a
+     * different value and back, or removed and added again, is a conflict. A key which was absent when the
+     * transaction began and is absent again at commit leaves no entry to compare and is not a conflict.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    public class Transaction {
+        /**
+         * The version of the map the transaction began with.
+         */
+        private final Version<K, V> base;
+
+        /**
+         * The private version of the map including the transaction's changes.
+         */
+        private Version<K, V> working;
+
+        /**
+         * The keys written by the transaction, in order of writing.
+         */
+        private final List<K> writtenKeys = new ArrayList<>();
+
+        /**
+         * The stamp of the entries written by the transaction.
+         */
+        private final long stamp = stamps.incrementAndGet();
+
+        /**
+         * Whether the transaction has been committed or rolled back.
+         */
+        private boolean finished;
+
+        /**
+         * Creates a transaction reading from the given version.
+         *
+         * @param base The version of the map the transaction begins with
+         */
+        private Transaction(Version<K, V> base) {
+            this.base = base;
+            this.working = base;
+        }
+
+        /**
+         * Checks that the transaction can still be used.
+         */
+        private void checkActive() throws IllegalStateException {
+            if (finished) {
+                throw new IllegalStateException("Transaction is already finished.");
+            }
+        }
+
+        /**
+         * Returns the value associated with the key as seen by this transaction.
+         *
+         * @param key The key whose value is to be found
+         * @return Returns the value of the associated key
+         */
+        public V get(K key) throws IllegalArgumentException, IllegalStateException {
+            checkKey(key);
+            checkActive();
+            Node<K, V> node = find(working.root, key);
+            return node == null ? null : node.value;
+        }
+
+        /**
+         * Binds the key to the value within this transaction.
+         *
+         * @param key   : The key whose value is to be replaced
+         * @param value : The new value that replaces the old one
+         * @return : Returns the old value associated to the key as seen by this transaction
+         */
+        public V put(K key, V value) throws IllegalArgumentException, IllegalStateException {
+            checkKey(key);
+            checkActive();
+            Node<K, V> old = find(working.root, key);
+            working = new Version<>(insert(working.root, key, value, stamp), old == null ? working.size + 1 : working.size);
+            writtenKeys.add(key);
+            return old == null ? null : old.value;
+        }
+
+        /**
+         * Removes the key within this transaction.
+         *
+         * @param key : The key whose value is to be removed
+         * @return : Returns the removed value as seen by this transaction
+         */
+        public V remove(K key) throws IllegalArgumentException, IllegalStateException {
+            checkKey(key);
+            checkActive();
+            Node<K, V> old = find(working.root, key);
+            if (old == null) {
+                return null;
+            }
+            working = new Version<>(delete(working.root, key), working.size - 1);
+            writtenKeys.add(key);
+            return old.value;
+        }
+
+        /**
+         * Publishes the transaction's changes to the map in a single step.
+         *
+         * @throws IllegalStateException if the transaction is finished, or another writer changed a key written by
+         *                               this transaction since it began. The map is left unchanged in that case.
+         */
+        public void commit() throws IllegalStateException {
+            checkActive();
+            finished = true;
+            synchronized (PersistentTreeMap.this) {
+                Version<K, V> current = head;
+                if (current == base) {
+                    head = working;
+                    return;
+                }
+                for (K key : writtenKeys) {
+                    Node<K, V> before = find(base.root, key);
+                    Node<K, V> now = find(current.root, key);
+                    if (before == null ? now != null : now == null || now.stamp != before.stamp) {
+                        throw new IllegalStateException("Transaction conflicts with a concurrent change of " + key + ".");
+                    }
+                }
+                for (K key : writtenKeys) {
+                    Node<K, V> mine = find(working.root, key);
+                    Node<K, V> now = find(current.root, key);
+                    if (mine != null) {
+                        current = new Version<>(insert(current.root, key, mine.value, stamp),
+                                now == null ? current.size + 1 : current.size);
+                    } else if (now != null) {
+                        current = new Version<>(delete(current.root, key), current.size - 1);
+                    }
+                }
+                head = current;
+            }
+        }
+
+        /**
+         * Discards the transaction's changes.
+         */
+        public void rollback() throws IllegalStateException {
+            checkActive();
+            finished = true;
+            working = base;
+        }
+    }
+
+    /**
+     * An immutable version of the tree: its root together with its number of entries.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    protected static class Version<K, V> {
+        /**
+         * The root of the tree, or null if the tree is empty.
+         */
+        protected final Node<K, V> root;
+        /**
+         * The number of entries in the tree.
+         */
+        protected final int size;
+
+        /**
+         * Creates an instance of the class Version
+         *
+         * @param root : The root of the tree
+         * @param size : The number of entries in the tree
+         */
+        Version(Node<K, V> root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Immutable tree node, which is also the entry it stores.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    protected static class Node<K, V> implements Entry<K, V> {
+        /**
+         * Stores the key of the node
+         */
+        protected final K key;
+        /**
+         * Stores the value of the node
+         */
+        protected final V value;
+        /**
+         * The left subtree, or null if empty
+         */
+        protected final Node<K, V> left;
+        /**
+         * The right subtree, or null if empty
+         */
+        protected final Node<K, V> right;
+        /**
+         * The number of entries of the subtree of the node
+         */
+        protected final int size;
+        /**
+         * The stamp of the write which bound the key to the value
+         */
+        protected final long stamp;
+
+        /**
+         * Creates an instance of the class Node
+         *
+         * @param key   : The key value of a node
+         * @param value : The value of the node
+         * @param left  : The left subtree
+         * @param right : The right subtree
+         * @param stamp : The stamp of the write which bound the key to the value
+         */
+        Node(K key, V value, Node<K, V> left, Node<K, V> right, long stamp) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + (left == null ? 0 : left.size) + (right == null ? 0 : right.size);
+            this.stamp = stamp;
+        }
+
+        /**
+         * This method is used to access the key of the node
+         *
+         * @return : Returns the key value of the node
+         */
+        public K getKey() {
+            return key;
+        }
+
+        /**
+         * This method is used to access the value of the node
+         *
+         * @return : Returns the value of the node
+         */
+        public V getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.tree.Position;
+
+import java.util.Comparator;
+
+/**
+ * Realization of a map by means of a splay tree. After each get, put and remove the entry touched, which the
+ * binary search tree records in actionPos, is rotated to the root. Entries that are looked up again soon are
+ * therefore found within a few comparisons, and every operation takes O(log n) amortized time.
+ * <p>
+ * Splaying replaces the height-triggered rebuild of {@link BinarySearchTreeMap}, which is disabled, and since
+ * get also restructures the tree, concurrent readers need the same lock as writers.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class SplayTreeMap<K, V> extends BinarySearchTreeMap<K, V> {
+
+    /**
+     * Creates an empty SplayTreeMap with a default comparator.
+     */
+    public SplayTreeMap() {
+        super();
+        rebuildFactor = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Creates an empty SplayTreeMap with the given comparator.
+     *
+     * @param comparator The comparator ordering the keys
+     */
+    public SplayTreeMap(Comparator<K> comparator) {
+        super(comparator);
+        rebuildFactor = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the value associated with the key and splays the entry, or the last entry visited if the key is
+     * absent, to the root.
+     *
+     * @param key The key whose value is to be found
+     * @return the value associated with the key, or null
+     */
+    @Override
+    public V get(K key) throws IllegalArgumentException {
+        V value = super.get(key);
+        splayAction();
+        return value;
+    }
+
+    /**
+     * Associates the value with the key and splays the entry to the root.
+     *
+     * @param key   The key with which the value is to be associated
+     * @param value The value to associate
+     * @return the previous value associated with the key, or null
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+        V old = super.put(key, value);
+        splayAction();
+        return old;
+    }
+
+    /**
+     * Removes the entry with the key and splays the parent of the removed node to the root.
+     *
+     * @param key The key whose entry is to be removed
+     * @return the value of the removed entry, or null
+     */
+    @Override
+    public V remove(K key) throws IllegalArgumentException {
+        V old = super.remove(key);
+        splayAction();
+        return old;
+    }
+
+    /**
+     * Splays the position recorded by the last operation, or its parent if it is a sentinel.
+     */
+    private void splayAction() {
+        Position<Entry<K, V>> position = actionPos;
+        if (position == null) {
+            return;
+        }
+        if (isExternal(position)) {
+            position = parent(position);
+        }
+        if (position != null) {
+            splay(position);
+        }
+    }
+
+    /**
+     * Rotates an internal position to the root by zig, zig-zig and zig-zag steps.
+     *
+     * @param position The position to move to the root
+     */
+    protected void splay(Position<Entry<K, V>> position) {
+        while (!isRoot(position)) {
+            Position<Entry<K, V>> parent = parent(position);
+            Position<Entry<K, V>> grandparent = parent(parent);
+            if (grandparent == null) {
+                rotate(position);
+            } else if ((parent == left(grandparent)) == (position == left(parent))) {
+                rotate(parent);
+                rotate(position);
+            } else {
+                rotate(position);
+                rotate(position);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.tree.Position;
+
+/**
+ * A binary search tree map specialized for String keys. Each entry caches the first four characters of its key
+ * packed into a single long, so most comparisons during a search are decided by one primitive comparison instead
+ * of a cast and a call to String.compareTo. Only keys sharing the same four leading characters fall back to the
+ * full string comparison.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class StringTreeMap<V> extends BinarySearchTreeMap<String, V> {
+
+    /**
+     * Number of UTF-16 characters packed into a key prefix.
+     */
+    private static final int PREFIX_CHARS = Long.SIZE / Character.SIZE;
+
+    /**
+     * Creates an empty StringTreeMap ordered by String.compareTo.
+     */
+    public StringTreeMap() {
+        super(String::compareTo);
+    }
+
+    /**
+     * Packs the first four characters of a key into a long, most significant character first. Keys shorter than
+     * four characters are padded with zero, so unsigned comparison of two prefixes agrees with String.compareTo
+     * whenever the prefixes differ.
+     *
+     * @param key The key to pack
+     * @return The packed prefix of the key
+     */
+    static long prefix(String key) {
+        int length = Math.min(key.length(), PREFIX_CHARS);
+        long prefix = 0;
+        for (int i = 0; i < PREFIX_CHARS; i++) {
+            prefix = (prefix << Character.SIZE) | (i < length ? key.charAt(i) : 0);
+        }
+        return prefix;
+    }
+
+    /**
+     * Creates an entry which caches the packed prefix of its key.
+     *
+     * @param key      The key of the new entry
+     * @param value    The value of the new entry
+     * @param position The position at which the entry is stored
+     * @return The new entry
+     */
+    @Override
+    protected BSTEntry<String, V> createEntry(String key, V value, Position<Entry<String, V>> position) {
+        return new PrefixEntry<>(key, value, position);
+    }
+
+    /**
+     * Searches the subtree rooted at the given position, comparing the cached prefixes first and only comparing
+     * the full keys when the prefixes are equal. Only the full comparisons are counted as comparator calls in the
+     * metrics.
+     *
+     * @param key      The key to search for.
+     * @param position The starting tree position
+     * @return The found node position, or the external position where the key would be inserted
+     */
+    @Override
+    protected Position<Entry<String, V>> treeSearch(String key, Position<Entry<String, V>> position) {
+        long keyPrefix = prefix(key);
+        int depth = 0;
+        int fullComparisons = 0;
+        while (isInternal(position)) {
+            depth++;
+            PrefixEntry<V> entry = (PrefixEntry<V>) entry(position);
+            int comp = Long.compareUnsigned(keyPrefix, entry.prefix);
+            if (comp == 0) {
+                fullComparisons++;
+                comp = key.compareTo(entry.getKey());
+            }
+            if (comp < 0) {
+                position = left(position);
+            } else if (comp > 0) {
+                position = right(position);
+            } else {
+                break;
+            }
+        }
+        lastSearchDepth = depth;
+        if (metrics != null) {
+            metrics.recordSearch(depth, fullComparisons);
+        }
+        return position;
+    }
+
+    /**
+     * Location-aware entry which also stores the packed prefix of its key.
+     *
+     * @author Shivanshu Dwivedi
+     * @version 1.0.0, 9th December 2023
+     */
+    protected static class PrefixEntry<V> extends BSTEntry<String, V> {
+        /**
+         * The first four characters of the key packed into a long.
+         */
+        protected final long prefix;
+
+        /**
+         * Creates an instance of the class PrefixEntry
+         *
+         * @param key      : The key value of a node
+         * @param value    : The value of the node
+         * @param position : Stores the position of the node
+         */
+        PrefixEntry(String key, V value, Position<Entry<String, V>> position) {
+            super(key, value, position);
+            this.prefix = prefix(key);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Operation counts, latency histograms and search statistics of a {@link BinarySearchTreeMap}. The map records
+ * into its metrics only after {@link BinarySearchTreeMap#enableMetrics()}, and recording costs two clock reads and
+ * a few uncontended additions per operation, so the metrics may stay enabled in production. The metrics can be
+ * published as a JMX MBean with {@link #register(String)}.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public class TreeMapMetrics implements TreeMapMetricsMBean {
+
+    /**
+     * The map being measured.
+     */
+    private final BinarySearchTreeMap<?, ?> map;
+
+    /**
+     * Latencies of get.
+     */
+    private final LatencyHistogram getLatency = new LatencyHistogram();
+
+    /**
+     * Latencies of put.
+     */
+    private final LatencyHistogram putLatency = new LatencyHistogram();
+
+    /**
+     * Latencies of remove.
+     */
+    private final LatencyHistogram removeLatency = new LatencyHistogram();
+
+    /**
+     * The number of searches.
+     */
+    private final LongAdder searches = new LongAdder();
+
+    /**
+     * The total number of entries visited by searches.
+     */
+    private final LongAdder searchDepth = new LongAdder();
+
+    /**
+     * The largest number of entries visited by a search.
+     */
+    private final LongAccumulator maxSearchDepth = new LongAccumulator(Math::max, 0);
+
+    /**
+     * The number of comparator calls made by searches.
+     */
+    private final LongAdder comparisons = new LongAdder();
+
+    /**
+     * The name under which the metrics are registered with JMX, or null.
+     */
+    private ObjectName objectName;
+
+    /**
+     * Creates the metrics of a map.
+     *
+     * @param map The map being measured
+     */
+    TreeMapMetrics(BinarySearchTreeMap<?, ?> map) {
+        this.map = map;
+    }
+
+    /**
+     * Records a search of the tree.
+     *
+     * @param depth           The number of entries visited
+     * @param comparatorCalls The number of comparator calls made
+     */
+    void recordSearch(int depth, int comparatorCalls) {
+        searches.increment();
+        searchDepth.add(depth);
+        maxSearchDepth.accumulate(depth);
+        comparisons.add(comparatorCalls);
+    }
+
+    /**
+     * Returns the latency histogram of get.
+     *
+     * @return the latencies of get
+     */
+    public LatencyHistogram getLatency() {
+        return getLatency;
+    }
+
+    /**
+     * Returns the latency histogram of put.
+     *
+     * @return the latencies of put
+     */
+    public LatencyHistogram putLatency() {
+        return putLatency;
+    }
+
+    /**
+     * Returns the latency histogram of remove.
+     *
+     * @return the latencies of remove
+     */
+    public LatencyHistogram removeLatency() {
+        return removeLatency;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server under the name
+     * "edu.trinity.cpsc215f23:type=TreeMapMetrics,name=" followed by the given name.
+     *
+     * @param name The name distinguishing this map from others
+     * @throws JMException if the metrics cannot be registered
+     */
+    public synchronized void register(String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName newName = new ObjectName("edu.trinity.cpsc215f23:type=TreeMapMetrics,name=" + ObjectName.quote(name));
+        server.registerMBean(this, newName);
+        objectName = newName;
+    }
+
+    /**
+     * Removes the metrics from the platform MBean server, if they were registered.
+     *
+     * @throws JMException if the metrics cannot be unregistered
+     */
+    public synchronized void unregister() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return map.size();
+    }
+
+    /**
+     * {@inheritDoc} This is the height bound the map maintains, read without walking the tree, so it is safe to
+     * call from a JMX thread while the map is being updated; it may exceed the exact height.
+     */
+    @Override
+    public int getHeight() {
+        return map.heightBound();
+    }
+
+    @Override
+    public int getRebuildCount() {
+        return map.rebuildCount();
+    }
+
+    @Override
+    public long getGetCount() {
+        return getLatency.count();
+    }
+
+    @Override
+    public long getPutCount() {
+        return putLatency.count();
+    }
+
+    @Override
+    public long getRemoveCount() {
+        return removeLatency.count();
+    }
+
+    @Override
+    public long getComparisonCount() {
+        return comparisons.sum();
+    }
+
+    @Override
+    public double getMeanSearchDepth() {
+        long count = searches.sum();
+        return count == 0 ? 0 : (double) searchDepth.sum() / count;
+    }
+
+    @Override
+    public long getMaxSearchDepth() {
+        return maxSearchDepth.get();
+    }
+
+    @Override
+    public long getGetLatencyP50() {
+        return getLatency.percentile(50);
+    }
+
+    @Override
+    public long getGetLatencyP99() {
+        return getLatency.percentile(99);
+    }
+
+    @Override
+    public long getPutLatencyP50() {
+        return putLatency.percentile(50);
+    }
+
+    @Override
+    public long getPutLatencyP99() {
+        return putLatency.percentile(99);
+    }
+
+    @Override
+    public long getRemoveLatencyP50() {
+        return removeLatency.percentile(50);
+    }
+
+    @Override
+    public long getRemoveLatencyP99() {
+        return removeLatency.percentile(99);
+    }
+
+    @Override
+    public void reset() {
+        getLatency.reset();
+        putLatency.reset();
+        removeLatency.reset();
+        searches.reset();
+        searchDepth.reset();
+        maxSearchDepth.reset();
+        comparisons.reset();
+    }
+
+    /**
+     * Returns a report of the metrics for the console.
+     *
+     * @return a report of the metrics
+     */
+    @Override
+    public String toString() {
+        return String.format("entries: %d, height: %d, rebuilds: %d%n", getSize(), getHeight(), getRebuildCount()) +
+                String.format("searches: mean depth %.1f, max depth %d, comparator calls %d%n",
+                        getMeanSearchDepth(), getMaxSearchDepth(), getComparisonCount()) +
+                latencyLine("get", getLatency) +
+                latencyLine("put", putLatency) +
+                latencyLine("remove", removeLatency);
+    }
+
+    /**
+     * Formats the count and latency percentiles of one operation.
+     *
+     * @param operation The name of the operation
+     * @param latency   The latencies of the operation
+     * @return a line of the report
+     */
+    private static String latencyLine(String operation, LatencyHistogram latency) {
+        return String.format("%s: %d calls, p50 %d ns, p99 %d ns, p99.9 %d ns, max %d ns%n", operation,
+                latency.count(), latency.percentile(50), latency.percentile(99), latency.percentile(99.9),
+                latency.max());
+    }
+}
@@ -0,0 +1,122 @@
+package edu.trinity.cpsc215f23.treemap;
+
+/**
+ * The management interface through which JMX clients read the metrics of a binary search tree map. Latencies are
+ * in nanoseconds.
+ *
+ * @author Shivanshu Dwivedi
+ * @version 1.0.0, 9th December 2023
+ */
+public interface TreeMapMetricsMBean {
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the number of entries
+     */
+    int getSize();
+
+    /**
+     * Returns an upper bound on the height of the tree, counting entries on the longest path from the root. It is
+     * exact unless entries were removed or subtrees rebuilt since the tallest insert.
+     *
+     * @return the height bound of the tree
+     */
+    int getHeight();
+
+    /**
+     * Returns the number of times the tree was rebuilt because its height degraded.
+     *
+     * @return the number of rebuilds
+     */
+    int getRebuildCount();
+
+    /**
+     * Returns the number of get operations.
+     *
+     * @return the number of get operations
+     */
+    long getGetCount();
+
+    /**
+     * Returns the number of put operations.
+     *
+     * @return the number of put operations
+     */
+    long getPutCount();
+
+    /**
+     * Returns the number of remove operations.
+     *
+     * @return the number of remove operations
+     */
+    long getRemoveCount();
+
+    /**
+     * Returns the number of calls to the key comparator during searches.
+     *
+     * @return the number of comparator calls
+     */
+    long getComparisonCount();
+
+    /**
+     * Returns the mean number of entries visited by a search.
+     *
+     * @return the mean search depth
+     */
+    double getMeanSearchDepth();
+
+    /**
+     * Returns the largest number of entries visited by a search.
+     *
+     * @return the largest search depth
+     */
+    long getMaxSearchDepth();
+
+    /**
+     * Returns the median latency of get.
+     *
+     * @return the median latency of get
+     */
+    long getGetLatencyP50();
+
+    /**
+     * Returns the 99th percentile latency of get.
+     *
+     * @return the 99th percentile latency of get
+     */
+    long getGetLatencyP99();
+
+    /**
+     * Returns the median latency of put.
+     *
+     * @return the median latency of put
+     */
+    long getPutLatencyP50();
+
+    /**
+     * Returns the 99th percentile latency of put.
+     *
+     * @return the 99th percentile latency of put
+     */
+    long getPutLatencyP99();
+
+    /**
+     * Returns the median latency of remove.
+     *
+     * @return the median latency of remove
+     */
+    long getRemoveLatencyP50();
+
+    /**
+     * Returns the 99th percentile latency of remove.
+     *
+     * @return the 99th percentile latency of remove
+     */
+    long getRemoveLatencyP99();
+
+    /**
+     * Discards all counts and latencies recorded so far.
+     */
+    void reset();
+}
@@ -0,0 +1,115 @@
+package edu.trinity.cpsc215f23;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Measures the contact list reports of {@link ContactsApp} on a large binary search tree, against the approach
+ * they replaced, which collected every name with keySet and, for the communications report, looked each name up
+ * again. This is not a unit test: run its main method with the test classes on the class path, e.g.
+ * {@code java -cp build/classes/java/main:build/classes/java/test edu.trinity.cpsc215f23.ContactReportBenchmark
+ * 1000000}. The reports are written to a null writer, so only the traversal and formatting are measured; the best
+ * of several rounds after a warm-up round is reported.
+ */
+final class ContactReportBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private ContactReportBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The number of contacts; 1000000 by default
+     */
+    public static void main(String[] args) throws IOException {
+        int size = args.length == 0 ? 1_000_000 : Integer.parseInt(args[0]);
+        ContactsApp app = new ContactsApp();
+        Random random = new Random(size);
+        for (int i = 0; i < size; i++) {
+            HashMap<Communications, String> coms = new HashMap<>();
+            coms.put(Communications.EMAIL, "contact" + i + "@trinity.edu");
+            app.getContacts().put(String.format("Name%09d, First%d", random.nextInt(1_000_000_000), i), coms);
+        }
+        Writer out = Writer.nullWriter();
+
+        report(size, "names, collected with keySet", () -> writeNamesFromKeySet(app, out));
+        report(size, "names, one in-order pass", () -> app.writeAllContactNames(out, 0, Integer.MAX_VALUE));
+        report(size, "communications, keySet and get", () -> writeCommunicationsByLookup(app, out));
+        report(size, "communications, one in-order pass",
+                () -> app.writeAllContactCommunications(out, 0, Integer.MAX_VALUE));
+        report(size, "first page of 50 contacts", () -> app.writeAllContacts(out, 0, 50));
+    }
+
+    /**
+     * Writes the names the way the report did before the in-order pass: every name is collected first.
+     *
+     * @param app The application
+     * @param out The writer
+     */
+    private static void writeNamesFromKeySet(ContactsApp app, Writer out) throws IOException {
+        out.write("\nAll Names\n------------\n");
+        int written = 0;
+        for (String name : app.getContacts().keySet()) {
+            if (written++ > 0) {
+                out.write('\n');
+            }
+            out.write(name);
+        }
+        out.write('\n');
+    }
+
+    /**
+     * Writes the communications the way the report did before the in-order pass: every name is collected first
+     * and then looked up again.
+     *
+     * @param app The application
+     * @param out The writer
+     */
+    private static void writeCommunicationsByLookup(ContactsApp app, Writer out) throws IOException {
+        out.write("\nAll Communications\n------------\n");
+        int written = 0;
+        for (String name : app.getContacts().keySet()) {
+            if (written++ > 0) {
+                out.write('\n');
+            }
+            out.write(app.getContacts().get(name).toString());
+        }
+        out.write('\n');
+    }
+
+    /**
+     * Runs a report a warm-up round and several measured rounds, and prints the best round.
+     *
+     * @param size   The number of contacts
+     * @param name   The name of the report
+     * @param report Writes the report
+     */
+    private static void report(int size, String name, Report report) throws IOException {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            report.write();
+            long elapsed = System.nanoTime() - start;
+            if (round > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        System.out.printf("%-36s %,10d contacts: %,9.2f ms%n", name, size, best / 1e6);
+    }
+
+    /**
+     * A report written to a writer.
+     */
+    private interface Report {
+        /**
+         * Writes the report.
+         *
+         * @throws IOException if the writer fails
+         */
+        void write() throws IOException;
+    }
+}
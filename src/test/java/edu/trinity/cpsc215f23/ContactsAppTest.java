@@ -1,8 +1,12 @@
 package edu.trinity.cpsc215f23;
 
+import edu.trinity.cpsc215f23.treemap.PersistentTreeMap;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -38,6 +42,18 @@ class ContactsAppTest {
         assertTrue(app.getContacts().isEmpty());
     }
 
+    @Test
+    void renameInOneStep() {
+        ContactsApp app = new ContactsApp(new PersistentTreeMap<>(String::compareTo));
+        app.getContacts().put("Muir, John", app.parseCommunications("email: john.muir@sierraclub.org"));
+
+        assertTrue(app.renameContact("Muir, John", "Muir, Johnny"));
+        assertNull(app.getContacts().get("Muir, John"));
+        assertEquals("john.muir@sierraclub.org", app.getContacts().get("Muir, Johnny").get(Communications.EMAIL));
+        assertEquals(1, app.getContacts().size());
+        assertFalse(app.renameContact("Muir, John", "Muir, Jon"), "A missing contact is not renamed.");
+    }
+
     @Test
     @Order(3)
     void addMode() {
@@ -85,6 +101,20 @@ class ContactsAppTest {
                         allValues.length(), allValues));
     }
 
+    @Test
+    void writeContactNamesPage() throws IOException {
+        ContactsApp app = getPopulatedContactsApp();
+
+        StringWriter page = new StringWriter();
+        app.writeAllContactNames(page, 1, 2);
+        assertEquals("\nAll Names\n------------\nElizabeth Wathuti\nLaDuke, Winona\n", page.toString(),
+                "The second and third names are written.");
+
+        StringWriter all = new StringWriter();
+        app.writeAllContacts(all, 0, Integer.MAX_VALUE);
+        assertEquals(app.listAllContacts(), all.toString());
+    }
+
     private ContactsApp getPopulatedContactsApp() {
         // Add more nice people (feel free to replace with your own data)
         String[] names = {
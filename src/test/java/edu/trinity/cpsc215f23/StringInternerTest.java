@@ -0,0 +1,37 @@
+package edu.trinity.cpsc215f23;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for StringInterner.
+ */
+class StringInternerTest {
+
+    @Test
+    public void equalStringsShareOneInstance() {
+        StringInterner interner = new StringInterner();
+        String first = new String("www.oceanfutures.org");
+        String second = new String("www.oceanfutures.org");
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(second));
+        assertSame(first, interner.intern(first));
+        assertNull(interner.intern(null));
+        assertEquals(1, interner.size());
+        assertEquals(StringInterner.retainedSize(second), interner.bytesSaved(), "Only the duplicate is counted.");
+        assertEquals(64, StringInterner.retainedSize(second));
+    }
+
+    @Test
+    public void parsedHandlesAreShared() {
+        ContactsApp app = new ContactsApp();
+        app.enableInterning();
+        HashMap<Communications, String> muir = app.parseCommunications("website: www.sierraclub.org, m: 805");
+        HashMap<Communications, String> adams = app.parseCommunications("website: www.sierraclub.org");
+        assertSame(muir.get(Communications.WEBSITE), adams.get(Communications.WEBSITE));
+        assertTrue(app.statistics().contains("1 duplicates"), app.statistics());
+    }
+}
@@ -0,0 +1,89 @@
+package edu.trinity.cpsc215f23.dedup;
+
+import edu.trinity.cpsc215f23.Communications;
+import edu.trinity.cpsc215f23.map.Map;
+import edu.trinity.cpsc215f23.treemap.StringTreeMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for DuplicateFinder.
+ */
+class DuplicateFinderTest {
+
+    private static HashMap<Communications, String> coms(Communications type, String value) {
+        HashMap<Communications, String> coms = new HashMap<>();
+        coms.put(type, value);
+        return coms;
+    }
+
+    private static Map<String, HashMap<Communications, String>> directory() {
+        Map<String, HashMap<Communications, String>> contacts = new StringTreeMap<>();
+        contacts.put("Muir, John", coms(Communications.EMAIL, "jmuir@sierraclub.org"));
+        contacts.put("Muir, Jon", coms(Communications.EMAIL, " JMuir@SierraClub.org"));
+        contacts.put("Carson, Rachel", coms(Communications.MOBILE, "(301) 555-0100"));
+        contacts.put("Carson, R.", coms(Communications.MOBILE, "301-555-0100"));
+        contacts.put("Goodall, Jane", coms(Communications.WEBSITE, "https://www.janegoodall.org/"));
+        contacts.put("Goodall, Jane ", coms(Communications.WEBSITE, "janegoodall.org"));
+        contacts.put("Smith, John", coms(Communications.EMAIL, "john@smith.com"));
+        contacts.put("Smith, Joan", coms(Communications.EMAIL, "joan@smith.com"));
+        contacts.put("Earle, Sylvia", null);
+        return contacts;
+    }
+
+    @Test
+    public void findsClustersBySharedHandlesAndNames() {
+        List<List<String>> clusters = new DuplicateFinder(DuplicateFinder.DEFAULT_THRESHOLD, 256, 2).find(directory());
+        assertEquals(3, clusters.size());
+        assertEquals(List.of("Carson, R.", "Carson, Rachel"), clusters.get(0));
+        assertEquals(List.of("Goodall, Jane", "Goodall, Jane "), clusters.get(1));
+        assertEquals(List.of("Muir, John", "Muir, Jon"), clusters.get(2));
+    }
+
+    @Test
+    public void mergeKeepsFirstContactAndFillsOptions() {
+        Map<String, HashMap<Communications, String>> contacts = directory();
+        contacts.get("Muir, Jon").put(Communications.GITHUB, "jmuir");
+        List<List<String>> clusters = new DuplicateFinder().find(contacts);
+        assertEquals(3, DuplicateFinder.merge(contacts, clusters));
+        assertEquals(6, contacts.size());
+        assertNull(contacts.get("Muir, Jon"));
+        assertEquals("jmuir@sierraclub.org", contacts.get("Muir, John").get(Communications.EMAIL));
+        assertEquals("jmuir", contacts.get("Muir, John").get(Communications.GITHUB));
+    }
+
+    @Test
+    public void oversizedBlocksAreScoredByNameNeighbourhood() {
+        Map<String, HashMap<Communications, String>> contacts = new StringTreeMap<>();
+        for (int i = 0; i < 40; i++) {
+            contacts.put("Smith, J" + (char) ('a' + i % 26) + (char) ('a' + i / 26) + "x", null);
+        }
+        contacts.put("Smith, Jonathan", null);
+        contacts.put("Smith,  Jonathan", null);
+        List<List<String>> clusters = new DuplicateFinder(DuplicateFinder.DEFAULT_THRESHOLD, 8, 1).find(contacts);
+        assertEquals(List.of(List.of("Smith,  Jonathan", "Smith, Jonathan")), clusters);
+    }
+
+    @Test
+    public void commonHandlesDoNotOutweighConflicts() {
+        Map<String, HashMap<Communications, String>> contacts = new StringTreeMap<>();
+        for (String first : List.of("John", "Joan", "Jane")) {
+            HashMap<Communications, String> coms = coms(Communications.EMAIL, first.toLowerCase() + ".smith@acme.com");
+            coms.put(Communications.WEBSITE, "https://acme.com/");
+            contacts.put("Smith, " + first, coms);
+        }
+        assertTrue(new DuplicateFinder().find(contacts).isEmpty());
+    }
+
+    @Test
+    public void similarityOfNames() {
+        assertEquals(1.0, DuplicateFinder.similarity("muir john", "muir john"));
+        assertTrue(DuplicateFinder.similarity("muir john", "muir jon") > 0.95);
+        assertTrue(DuplicateFinder.similarity("muir john", "carson rachel") < 0.6);
+        assertEquals("muir john", DuplicateFinder.normalizeName(" Muir,  John "));
+    }
+}
@@ -0,0 +1,65 @@
+package edu.trinity.cpsc215f23.export;
+
+import edu.trinity.cpsc215f23.ContactsApp;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for ContactExporter.
+ */
+class ContactExporterTest {
+
+    @Test
+    public void csvRangesConcatenateInNameOrder() throws IOException {
+        ContactsApp app = new ContactsApp();
+        for (int i = 0; i < 1000; i++) {
+            app.getContacts().put(String.format("Name%04d, Given", (i * 7919) % 1000),
+                    app.parseCommunications("email: n" + i + "@trinity.edu, mobile: 555-" + i));
+        }
+        Path directory = Files.createTempDirectory("export");
+        Path stale = Files.writeString(directory.resolve("contacts-9999.csv"), "left by an earlier export");
+        Path other = Files.writeString(directory.resolve("contacts-9999.json"), "another format");
+
+        List<Path> files = new ContactExporter(ExportFormat.CSV, 4).export(app.getContacts(), directory);
+        assertFalse(Files.exists(stale), "Files of an earlier export are deleted.");
+        assertTrue(Files.exists(other), "Files of other formats are kept.");
+        assertTrue(files.size() > 1, "The tree was split into several files.");
+
+        List<String> names = new ArrayList<>();
+        for (Path file : files) {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            assertEquals("name,email,mobile,github,instagram,linkedin,website,snapchat", lines.get(0));
+            for (String line : lines.subList(1, lines.size())) {
+                names.add(line.substring(0, line.indexOf("\",")));
+            }
+        }
+        assertEquals(1000, names.size(), "Every contact is exported once.");
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(String.format("\"Name%04d, Given", i), names.get(i), "Files hold consecutive ranges.");
+        }
+    }
+
+    @Test
+    public void jsonAndVCardEscapeValues() throws IOException {
+        ContactsApp app = new ContactsApp();
+        app.getContacts().put("Muir, John", app.parseCommunications("email: john\"muir@sierraclub.org"));
+        Path directory = Files.createTempDirectory("export");
+
+        Path json = new ContactExporter(ExportFormat.JSON, 1).export(app.getContacts(), directory).get(0);
+        assertEquals("[\n  {\"name\": \"Muir, John\", \"email\": \"john\\\"muir@sierraclub.org\"}\n]\n",
+                Files.readString(json));
+
+        Path vcard = new ContactExporter(ExportFormat.VCARD, 1).export(app.getContacts(), directory).get(0);
+        String card = Files.readString(vcard);
+        assertTrue(card.contains("N:Muir;John;;;\r\nFN:John Muir\r\n"), card);
+        assertTrue(card.contains("EMAIL;TYPE=INTERNET:john\"muir@sierraclub.org\r\n"), card);
+    }
+}
@@ -0,0 +1,76 @@
+package edu.trinity.cpsc215f23.feed;
+
+import edu.trinity.cpsc215f23.treemap.BinarySearchTreeMap;
+import edu.trinity.cpsc215f23.treemap.HashIndexedTreeMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for ChangeFeed.
+ */
+class ChangeFeedTest {
+
+    @Test
+    public void treeMapPublishesChangesInOrder() {
+        BinarySearchTreeMap<String, Integer> map = new BinarySearchTreeMap<>();
+        ChangeFeed<String, Integer> feed = map.enableChangeFeed(16);
+        ChangeFeed<String, Integer>.Subscription subscription = feed.subscribe(0);
+
+        map.put("b", 1);
+        map.put("a", 2);
+        map.put("b", 3);
+        map.remove("b");
+        map.remove("missing");
+
+        List<ChangeEvent<String, Integer>> events = subscription.poll(10);
+        assertEquals(4, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i, (int) events.get(i).sequence);
+        }
+        assertEquals(ChangeEvent.Type.INSERT, events.get(0).type);
+        assertEquals(ChangeEvent.Type.INSERT, events.get(1).type);
+        assertEquals(ChangeEvent.Type.REPLACE, events.get(2).type);
+        assertEquals(1, (int) events.get(2).oldValue);
+        assertEquals(3, (int) events.get(2).newValue);
+        assertEquals(ChangeEvent.Type.REMOVE, events.get(3).type);
+        assertEquals("b", events.get(3).key);
+        assertEquals(3, (int) events.get(3).oldValue);
+        assertTrue(subscription.poll(10).isEmpty());
+    }
+
+    @Test
+    public void subscriberResumesFromPosition() {
+        HashIndexedTreeMap<Integer, Integer> map = new HashIndexedTreeMap<>();
+        ChangeFeed<Integer, Integer> feed = map.enableChangeFeed(64);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i);
+        }
+        map.put(4, 40);
+
+        ChangeFeed<Integer, Integer>.Subscription first = feed.subscribe(0);
+        assertEquals(6, first.poll(6).size());
+        long position = first.position();
+
+        List<ChangeEvent<Integer, Integer>> rest = feed.subscribe(position).poll(100);
+        assertEquals(5, rest.size());
+        assertEquals(6, (int) rest.get(0).key);
+        assertEquals(ChangeEvent.Type.REPLACE, rest.get(4).type);
+        assertEquals(40, (int) rest.get(4).newValue);
+    }
+
+    @Test
+    public void laggingSubscriberIsDetected() {
+        ChangeFeed<Integer, Integer> feed = new ChangeFeed<>(8);
+        ChangeFeed<Integer, Integer>.Subscription subscription = feed.subscribe(0);
+        for (int i = 0; i < 20; i++) {
+            feed.publish(ChangeEvent.Type.INSERT, i, null, i);
+        }
+        assertEquals(12, feed.oldestSequence());
+        assertThrows(IllegalStateException.class, () -> subscription.poll(1));
+        assertThrows(IllegalArgumentException.class, () -> feed.subscribe(3));
+        assertEquals(8, feed.subscribe(feed.oldestSequence()).poll(100).size());
+    }
+}
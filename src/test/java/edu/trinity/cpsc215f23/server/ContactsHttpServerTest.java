@@ -0,0 +1,116 @@
+package edu.trinity.cpsc215f23.server;
+
+import edu.trinity.cpsc215f23.Communications;
+import edu.trinity.cpsc215f23.ContactsApp;
+import edu.trinity.cpsc215f23.treemap.StringTreeMap;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for ContactsHttpServer, over the loopback interface on a free port.
+ */
+class ContactsHttpServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    /**
+     * Sends a request to the contacts path of a server.
+     *
+     * @param server The server
+     * @param method The request method
+     * @param query  The query string, or an empty string
+     * @param body   The request body, or null
+     * @return The response
+     */
+    private HttpResponse<String> send(ContactsHttpServer server, String method, String query, String body)
+            throws Exception {
+        URI uri = URI.create("http://127.0.0.1:" + server.port() + ContactsHttpServer.PATH
+                + (query.isEmpty() ? "" : "?" + query));
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void addSearchListAndRemove() throws Exception {
+        ContactsApp app = new ContactsApp();
+        try (ContactsHttpServer server = new ContactsHttpServer(app, 0)) {
+            server.start();
+
+            HttpResponse<String> added = send(server, "PUT", "first=John&last=Muir", "email: john@sierraclub.org");
+            assertEquals(200, added.statusCode());
+            assertTrue(added.body().startsWith("Added: Muir, John"));
+            assertEquals(200, send(server, "POST", "first=Jane&last=Goodall&coms=website%3A%20janegoodall.org",
+                    null).statusCode());
+
+            HttpResponse<String> found = send(server, "GET", "first=John&last=Muir", null);
+            assertEquals(200, found.statusCode());
+            assertEquals("Muir, John: {EMAIL=john@sierraclub.org}\n", found.body());
+
+            HttpResponse<String> list = send(server, "GET", "", null);
+            assertEquals(200, list.statusCode());
+            assertEquals(app.listAllContacts() + "\n", list.body());
+            assertTrue(list.body().indexOf("Goodall, Jane") < list.body().indexOf("Muir, John"));
+
+            assertEquals(200, send(server, "DELETE", "first=John&last=Muir", null).statusCode());
+            assertEquals(404, send(server, "GET", "first=John&last=Muir", null).statusCode());
+            assertEquals(404, send(server, "DELETE", "first=John&last=Muir", null).statusCode());
+            assertNull(app.getContacts().get("Muir, John"));
+        }
+    }
+
+    @Test
+    public void longListIsStreamedInOrder() throws Exception {
+        ContactsApp app = new ContactsApp();
+        for (int i = 0; i < 20_000; i++) {
+            app.getContacts().put(String.format("Name%05d, First", i), new HashMap<>());
+        }
+        try (ContactsHttpServer server = new ContactsHttpServer(app, 0)) {
+            server.start();
+            HttpResponse<String> list = send(server, "GET", "", null);
+            assertEquals(200, list.statusCode());
+            assertEquals(app.listAllContacts() + "\n", list.body());
+        }
+    }
+
+    @Test
+    public void invalidRequestsAreRejected() throws Exception {
+        try (ContactsHttpServer server = new ContactsHttpServer(new ContactsApp(), 0)) {
+            server.start();
+
+            assertEquals(400, send(server, "GET", "first=&last=", null).statusCode());
+            assertEquals(400, send(server, "PUT", "first=John&last=Muir", "fax: 555-0100").statusCode());
+            assertEquals(404, send(server, "GET", "first=No&last=One", null).statusCode());
+
+            HttpResponse<String> patch = send(server, "PATCH", "first=John&last=Muir", "email: x");
+            assertEquals(405, patch.statusCode());
+            assertEquals("GET, PUT, POST, DELETE", patch.headers().firstValue("Allow").orElse(null));
+        }
+    }
+
+    @Test
+    public void failedCommandIsServerError() throws Exception {
+        StringTreeMap<HashMap<Communications, String>> store = new StringTreeMap<>() {
+            @Override
+            public HashMap<Communications, String> get(String key) {
+                throw new IllegalStateException("store failure");
+            }
+        };
+        try (ContactsHttpServer server = new ContactsHttpServer(new ContactsApp(store), 0)) {
+            server.start();
+            HttpResponse<String> failed = send(server, "GET", "first=John&last=Muir", null);
+            assertEquals(500, failed.statusCode());
+            assertTrue(failed.body().contains("store failure"));
+            assertEquals(200, send(server, "PUT", "first=John&last=Muir", "email: x").statusCode());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package edu.trinity.cpsc215f23.server;
+
+import edu.trinity.cpsc215f23.Communications;
+import edu.trinity.cpsc215f23.ContactsApp;
+import edu.trinity.cpsc215f23.treemap.StringTreeMap;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for ContactsNioServer, over the loopback interface on a free port.
+ */
+class ContactsNioServerTest {
+
+    /**
+     * Opens a connection to a server which gives up reading after ten seconds.
+     *
+     * @param server The server
+     * @return The connection
+     */
+    private static Socket connect(ContactsNioServer server) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port());
+        socket.setSoTimeout(10_000);
+        return socket;
+    }
+
+    /**
+     * Sends text on a connection.
+     *
+     * @param socket The connection
+     * @param text   The text to send
+     */
+    private static void send(Socket socket, String text) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * Reads one response: its status followed by the lines of text announced by the status line.
+     *
+     * @param in The reader of the connection
+     * @return The status and the lines of the response
+     */
+    private static List<String> response(BufferedReader in) throws IOException {
+        String[] status = in.readLine().split(" ");
+        int count = Integer.parseInt(status[1]);
+        List<String> lines = new ArrayList<>(count + 1);
+        lines.add(status[0]);
+        for (int i = 0; i < count; i++) {
+            lines.add(in.readLine());
+        }
+        return lines;
+    }
+
+    /**
+     * Creates a reader of the responses of a connection.
+     *
+     * @param socket The connection
+     * @return The reader
+     */
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void pipelinedRequestsAreAnsweredInOrder() throws Exception {
+        ContactsApp app = new ContactsApp();
+        try (ContactsNioServer server = new ContactsNioServer(app, 0, 2); Socket socket = connect(server)) {
+            server.start();
+            send(socket, "ADD John|Muir|email: john@sierraclub.org\r\n"
+                    + "add Jane|Goodall|website: janegoodall.org\n"
+                    + "SEARCH John|Muir\n"
+                    + "LIST\n"
+                    + "REMOVE John|Muir\n"
+                    + "SEARCH John|Muir\n"
+                    + "ADD John|Muir|fax: 555-0100\n"
+                    + "FETCH everything\n"
+                    + "LIST\n");
+            BufferedReader in = reader(socket);
+
+            assertEquals(List.of("OK", "Added: Muir, John: {EMAIL=john@sierraclub.org}"), response(in));
+            assertEquals("OK", response(in).get(0));
+            assertEquals(List.of("OK", "Muir, John: {EMAIL=john@sierraclub.org}"), response(in));
+            assertEquals(List.of("OK", "", "All Contacts", "------------", "Goodall, Jane: {WEBSITE=janegoodall.org}",
+                    "Muir, John: {EMAIL=john@sierraclub.org}", ""), response(in));
+            assertEquals(List.of("OK", "Removed contact: Muir, John"), response(in));
+            assertEquals("NOT_FOUND", response(in).get(0));
+            assertEquals("BAD_REQUEST", response(in).get(0));
+            assertEquals("BAD_REQUEST", response(in).get(0));
+            assertEquals(List.of("OK", "", "All Contacts", "------------", "Goodall, Jane: {WEBSITE=janegoodall.org}",
+                    ""), response(in));
+        }
+    }
+
+    @Test
+    public void partialLinesAreJoined() throws Exception {
+        ContactsApp app = new ContactsApp();
+        try (ContactsNioServer server = new ContactsNioServer(app, 0, 1); Socket socket = connect(server)) {
+            server.start();
+            for (String piece : List.of("AD", "D John|Mu", "ir|email: jo", "hn@sierraclub.org\nSEA", "RCH John|Muir",
+                    "\n")) {
+                send(socket, piece);
+                Thread.sleep(20);
+            }
+            BufferedReader in = reader(socket);
+            assertEquals("OK", response(in).get(0));
+            assertEquals(List.of("OK", "Muir, John: {EMAIL=john@sierraclub.org}"), response(in));
+        }
+    }
+
+    @Test
+    public void slowReaderDoesNotHoldUpOthers() throws Exception {
+        ContactsApp app = new ContactsApp();
+        for (int i = 0; i < 20_000; i++) {
+            app.getContacts().put(String.format("Name%05d, First", i), new HashMap<>());
+        }
+        int lists = 20;
+        try (ContactsNioServer server = new ContactsNioServer(app, 0, 1);
+             Socket slow = connect(server); Socket other = connect(server)) {
+            server.start();
+            send(slow, "LIST\n".repeat(lists) + "SEARCH First|Name00042\n");
+
+            BufferedReader otherIn = reader(other);
+            for (int i = 0; i < 10; i++) {
+                send(other, "SEARCH First|Name19999\n");
+                assertEquals(List.of("OK", "Name19999, First: {}"), response(otherIn),
+                        "A client which does not read must not hold up the others.");
+            }
+
+            BufferedReader slowIn = reader(slow);
+            for (int i = 0; i < lists; i++) {
+                List<String> list = response(slowIn);
+                assertEquals(4 + 20_000 + 1, list.size());
+                assertEquals("Name00000, First: {}", list.get(4));
+                assertEquals("Name19999, First: {}", list.get(list.size() - 2));
+            }
+            assertEquals(List.of("OK", "Name00042, First: {}"), response(slowIn));
+        }
+    }
+
+    @Test
+    public void alphabeticalAddsToPersistentStore() throws Exception {
+        ContactsApp app = new ContactsApp(ContactsApp.createStore("persistent"));
+        int count = 100_000;
+        StringBuilder requests = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            requests.append(String.format("ADD First|Name%06d|email: n%d@trinity.edu%n", i, i));
+        }
+        requests.append("SEARCH First|Name099999\nLIST\n");
+        try (ContactsNioServer server = new ContactsNioServer(app, 0, 2); Socket socket = connect(server)) {
+            server.start();
+            Thread writer = new Thread(() -> {
+                try {
+                    send(socket, requests.toString());
+                } catch (IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+            });
+            writer.start();
+            BufferedReader in = reader(socket);
+            for (int i = 0; i < count; i++) {
+                assertEquals("OK", response(in).get(0));
+            }
+            assertEquals(List.of("OK", "Name099999, First: {EMAIL=n99999@trinity.edu}"), response(in));
+            assertEquals(4 + count + 1, response(in).size());
+            writer.join();
+        }
+        assertEquals(count, app.getContacts().size());
+    }
+
+    @Test
+    public void failedRequestIsServerError() throws Exception {
+        StringTreeMap<HashMap<Communications, String>> store = new StringTreeMap<>() {
+            @Override
+            public HashMap<Communications, String> get(String key) {
+                if (key.startsWith("Broken")) {
+                    throw new IllegalStateException("store failure");
+                }
+                return super.get(key);
+            }
+        };
+        try (ContactsNioServer server = new ContactsNioServer(new ContactsApp(store), 0, 1);
+             Socket socket = connect(server)) {
+            server.start();
+            send(socket, "SEARCH John|Broken\nADD John|Muir|email: x\nSEARCH John|Muir\n");
+            BufferedReader in = reader(socket);
+            List<String> failed = response(in);
+            assertEquals("SERVER_ERROR", failed.get(0));
+            assertTrue(failed.get(1).contains("store failure"));
+            assertEquals("OK", response(in).get(0));
+            assertEquals(List.of("OK", "Muir, John: {EMAIL=x}"), response(in));
+        }
+    }
+}
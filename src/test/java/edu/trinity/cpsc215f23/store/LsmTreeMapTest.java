@@ -0,0 +1,150 @@
+package edu.trinity.cpsc215f23.store;
+
+import edu.trinity.cpsc215f23.Communications;
+import edu.trinity.cpsc215f23.ContactsApp;
+import edu.trinity.cpsc215f23.map.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for LsmTreeMap.
+ */
+class LsmTreeMapTest {
+
+    @Test
+    public void verifyGetPutRemoveAcrossFlushes() throws IOException {
+        Path directory = Files.createTempDirectory("lsm");
+        ContactsApp app = new ContactsApp();
+        HashMap<Communications, String> muir = app.parseCommunications("email: john.muir@sierraclub.org");
+
+        try (LsmTreeMap<HashMap<Communications, String>> contacts = new LsmTreeMap<>(directory, new CommunicationsCodec(), 2, 8)) {
+            assertNull(contacts.put("Muir, John", muir));
+            contacts.put("Shiva, Vandana", app.parseCommunications("web: vandanashiva.com"));
+            contacts.put("Ceesay, Isatou", app.parseCommunications("linkedin: isatou-ceesay-4a837216"));
+            assertTrue(contacts.segmentCount() > 0, "The memtable was flushed to a segment.");
+
+            assertEquals(muir, contacts.get("Muir, John"), "Value is read back from a segment.");
+            assertEquals(muir, contacts.remove("Muir, John"));
+            contacts.flush();
+            assertNull(contacts.get("Muir, John"), "Deletion in a newer segment hides the older value.");
+            assertEquals(2, contacts.size());
+        }
+
+        try (LsmTreeMap<HashMap<Communications, String>> reopened = new LsmTreeMap<>(directory, new CommunicationsCodec())) {
+            assertEquals(2, reopened.size(), "Entries survive reopening the directory.");
+            assertNull(reopened.get("Muir, John"));
+            assertEquals("vandanashiva.com", reopened.get("Shiva, Vandana").get(Communications.WEBSITE));
+        }
+    }
+
+    @Test
+    public void compactionKeepsLatestValues() throws IOException {
+        Path directory = Files.createTempDirectory("lsm");
+        TreeMap<String, Integer> expected = new TreeMap<>();
+        Random random = new Random(31);
+        ValueCodec<Integer> codec = new ValueCodec<>() {
+            public void write(java.io.DataOutput out, Integer value) throws IOException {
+                out.writeInt(value);
+            }
+
+            public Integer read(java.io.DataInput in) throws IOException {
+                return in.readInt();
+            }
+        };
+
+        try (LsmTreeMap<Integer> map = new LsmTreeMap<>(directory, codec, 100, 3)) {
+            for (int i = 0; i < 5000; i++) {
+                String key = "key" + random.nextInt(800);
+                if (random.nextInt(4) == 0) {
+                    map.delete(key);
+                    expected.remove(key);
+                } else {
+                    map.write(key, i);
+                    expected.put(key, i);
+                }
+            }
+        }
+
+        try (LsmTreeMap<Integer> map = new LsmTreeMap<>(directory, codec, 100, 3)) {
+            Iterator<java.util.Map.Entry<String, Integer>> iterator = expected.entrySet().iterator();
+            for (Entry<String, Integer> entry : map.entrySet()) {
+                java.util.Map.Entry<String, Integer> next = iterator.next();
+                assertEquals(next.getKey(), entry.getKey(), "Entries are merged in key order.");
+                assertEquals(next.getValue(), entry.getValue(), "The newest value wins.");
+            }
+            assertFalse(iterator.hasNext(), "No entry is missing.");
+            assertTrue(map.segmentCount() < 50, String.format("Segments were compacted: %d left.", map.segmentCount()));
+        }
+    }
+
+    @Test
+    public void segmentsCoveredByCompactionAreDiscardedOnOpen() throws IOException {
+        Path directory = Files.createTempDirectory("lsm");
+        Path saved = Files.createTempFile("segment", ".sst");
+        ValueCodec<String> codec = new ValueCodec<>() {
+            public void write(java.io.DataOutput out, String value) throws IOException {
+                out.writeUTF(value);
+            }
+
+            public String read(java.io.DataInput in) throws IOException {
+                return in.readUTF();
+            }
+        };
+
+        Path oldest;
+        try (LsmTreeMap<String> map = new LsmTreeMap<>(directory, codec, 100, 2)) {
+            map.write("K", "v");
+            map.flush();
+            try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+                oldest = files.findFirst().orElseThrow();
+            }
+            Files.copy(oldest, saved, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+            map.delete("K");
+            map.flush();
+        }
+        assertFalse(Files.exists(oldest), "The compacted segment was deleted.");
+
+        Files.copy(saved, oldest);
+        try (LsmTreeMap<String> map = new LsmTreeMap<>(directory, codec, 100, 2)) {
+            assertNull(map.get("K"), "A segment left behind by a crash does not bring back deleted keys.");
+            assertEquals(1, map.segmentCount());
+        }
+        assertFalse(Files.exists(oldest));
+    }
+
+    @Test
+    public void stoppingATraversalEarlyReleasesSegments() throws IOException {
+        Path directory = Files.createTempDirectory("lsm");
+        ValueCodec<String> codec = new ValueCodec<>() {
+            public void write(java.io.DataOutput out, String value) throws IOException {
+                out.writeUTF(value);
+            }
+
+            public String read(java.io.DataInput in) throws IOException {
+                return in.readUTF();
+            }
+        };
+
+        try (LsmTreeMap<String> map = new LsmTreeMap<>(directory, codec, 2, 3)) {
+            for (int i = 0; i < 3; i++) {
+                map.write("a" + i, "v");
+                map.write("b" + i, "v");
+                map.flush();
+                assertFalse(map.forEachWhile((key, value) -> false), "The traversal stopped at the first entry.");
+            }
+        }
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count(), "Every compacted segment was released and deleted.");
+        }
+    }
+}
+
@@ -0,0 +1,96 @@
+package edu.trinity.cpsc215f23.store;
+
+import edu.trinity.cpsc215f23.Communications;
+import edu.trinity.cpsc215f23.ContactsApp;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for OffHeapContactMap.
+ */
+class OffHeapContactMapTest {
+
+    private final ContactsApp app = new ContactsApp();
+
+    @Test
+    public void verifyGetPutRemove() {
+        OffHeapContactMap contacts = new OffHeapContactMap();
+        HashMap<Communications, String> muir = app.parseCommunications("email: john.muir@sierraclub.org, linkedin: johnmuir");
+
+        assertNull(contacts.put("Muir, John", muir));
+        assertEquals(muir, contacts.get("Muir, John"), "Stored communications are read back.");
+        assertEquals(muir, contacts.put("Muir, John", app.parseCommunications("web: sierraclub.org")));
+        assertEquals("sierraclub.org", contacts.get("Muir, John").get(Communications.WEBSITE));
+        assertEquals(1, contacts.size());
+
+        assertNotNull(contacts.remove("Muir, John"));
+        assertNull(contacts.get("Muir, John"), "Removed contact is not found.");
+        assertTrue(contacts.isEmpty());
+    }
+
+    @Test
+    public void keysAreSortedAndStorageIsReclaimed() {
+        OffHeapContactMap contacts = new OffHeapContactMap();
+        HashMap<Communications, String> coms = app.parseCommunications("email: someone@example.org, mobile: 555-0100");
+
+        for (int round = 0; round < 50; round++) {
+            for (int i = 999; i >= 0; i--) {
+                contacts.put(String.format("Contact, %03d", i), coms);
+            }
+        }
+
+        List<String> keys = new ArrayList<>();
+        for (String key : contacts.keySet()) {
+            keys.add(key);
+        }
+        assertEquals(1000, keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(String.format("Contact, %03d", i), keys.get(i), "Keys are listed in order.");
+        }
+        assertTrue(contacts.allocatedBytes() <= 2L << 20,
+                String.format("Replaced records were reclaimed, %d bytes allocated.", contacts.allocatedBytes()));
+    }
+
+    @Test
+    public void removesAndReinsertsMatchTreeMap() {
+        OffHeapContactMap contacts = new OffHeapContactMap();
+        TreeMap<String, HashMap<Communications, String>> expected = new TreeMap<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            String key = String.format("Contact, %05d", i);
+            HashMap<Communications, String> coms = app.parseCommunications("email: c" + i + "@example.org");
+            contacts.put(key, coms);
+            expected.put(key, coms);
+        }
+        for (int i = 0; i < 200_000; i++) {
+            String key = String.format("Contact, %05d", random.nextInt(25_000));
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    HashMap<Communications, String> coms = app.parseCommunications("mobile: " + i);
+                    assertEquals(expected.put(key, coms), contacts.put(key, coms));
+                }
+                case 1, 2 -> assertEquals(expected.remove(key), contacts.remove(key));
+                default -> assertEquals(expected.get(key), contacts.get(key));
+            }
+            assertEquals(expected.size(), contacts.size());
+            if (i % 50_000 == 0) {
+                List<String> keys = new ArrayList<>();
+                contacts.keySet().forEach(keys::add);
+                assertEquals(new ArrayList<>(expected.keySet()), keys, "Removed keys are not listed.");
+            }
+        }
+        List<String> keys = new ArrayList<>();
+        contacts.keySet().forEach(keys::add);
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+        for (String key : expected.keySet()) {
+            assertEquals(expected.get(key), contacts.get(key));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.map.Map;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares the lookup and scan throughput of a B+ tree map with a balanced binary search tree map of the same
+ * string keys. This is not a unit test: run its main method with the test classes on the class path, e.g.
+ * {@code java -cp build/classes/java/main:build/classes/java/test
+ * edu.trinity.cpsc215f23.treemap.BPlusTreeMapBenchmark 1000000}. Each map is measured over several rounds after
+ * a warm-up round, and the best round is reported.
+ */
+final class BPlusTreeMapBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private BPlusTreeMapBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The sizes of the maps to measure; 100000 and 1000000 by default
+     */
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[]{100_000, 1_000_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        for (int size : sizes) {
+            String[] keys = keys(size, new Random(size));
+            String[] lookups = keys.clone();
+            shuffle(lookups, new Random(size + 1));
+            measure("BinarySearchTreeMap", () -> {
+                BinarySearchTreeMap<String, Integer> map = new BinarySearchTreeMap<>(String::compareTo);
+                fill(map, keys);
+                map.rebuild();
+                return map;
+            }, lookups);
+            measure("BPlusTreeMap", () -> {
+                BPlusTreeMap<String, Integer> map = new BPlusTreeMap<>(String::compareTo);
+                fill(map, keys);
+                return map;
+            }, lookups);
+        }
+    }
+
+    /**
+     * Generates distinct contact-like keys in random order.
+     *
+     * @param size   The number of keys
+     * @param random The source of randomness
+     * @return The keys
+     */
+    private static String[] keys(int size, Random random) {
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = String.format("Name%09d, First%d", random.nextInt(1_000_000_000), i);
+        }
+        return keys;
+    }
+
+    /**
+     * Shuffles an array in place.
+     *
+     * @param values The array
+     * @param random The source of randomness
+     */
+    private static void shuffle(String[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    /**
+     * Puts every key into a map.
+     *
+     * @param map  The map
+     * @param keys The keys
+     */
+    private static void fill(Map<String, Integer> map, String[] keys) {
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+    }
+
+    /**
+     * Measures random lookups of every key and full in-order scans of a map, and prints the best round of each.
+     *
+     * @param name    The name of the map
+     * @param factory Creates and fills the map
+     * @param lookups The keys to look up, in lookup order
+     */
+    private static void measure(String name, Supplier<Map<String, Integer>> factory, String[] lookups) {
+        Map<String, Integer> map = factory.get();
+        long bestLookup = Long.MAX_VALUE;
+        long bestScan = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String key : lookups) {
+                checksum += map.get(key);
+            }
+            long lookup = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (Entry<String, Integer> entry : map.entrySet()) {
+                checksum += entry.getValue();
+            }
+            long scan = System.nanoTime() - start;
+            if (round > 0) {
+                bestLookup = Math.min(bestLookup, lookup);
+                bestScan = Math.min(bestScan, scan);
+            }
+        }
+        System.out.printf("%-20s %,10d keys: lookup %7.1f ns/key, scan %6.1f ns/entry (checksum %d)%n", name,
+                lookups.length, (double) bestLookup / lookups.length, (double) bestScan / lookups.length, checksum);
+    }
+}
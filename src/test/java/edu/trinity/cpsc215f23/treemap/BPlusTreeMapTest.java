@@ -0,0 +1,57 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for BPlusTreeMap.
+ */
+class BPlusTreeMapTest {
+
+    @Test
+    public void verifyGetPutRemove() {
+        BPlusTreeMap<String, Integer> map = new BPlusTreeMap<>();
+        String[] samples = {"gamma", "phi", "beta", "alpha", "delta", "lambda", "epsilon", "zeta"};
+        for (int i = 0; i < samples.length; i++) {
+            assertNull(map.put(samples[i], i));
+        }
+        assertEquals(samples.length, map.size());
+        for (int i = 0; i < samples.length; i++) {
+            assertEquals(i, (int) map.get(samples[i]), String.format("The key '%s' has the value '%d'.", samples[i], i));
+        }
+        assertEquals(3, (int) map.put("alpha", 42));
+        assertEquals(42, (int) map.remove("alpha"));
+        assertNull(map.get("alpha"), "Removed key is not found.");
+        assertNull(map.remove("alpha"));
+        assertEquals(samples.length - 1, map.size());
+    }
+
+    @Test
+    public void splitsAndMergesKeepOrder() {
+        BPlusTreeMap<Integer, Integer> map = new BPlusTreeMap<>(Integer::compare, 4);
+        java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+        Random random = new Random(30);
+
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key), String.format("Remove of %d agrees.", key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i), String.format("Put of %d agrees.", key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        java.util.Iterator<java.util.Map.Entry<Integer, Integer>> iterator = expected.entrySet().iterator();
+        for (Entry<Integer, Integer> entry : map.entrySet()) {
+            java.util.Map.Entry<Integer, Integer> next = iterator.next();
+            assertEquals(next.getKey(), entry.getKey(), "Leaves are scanned in key order.");
+            assertEquals(next.getValue(), entry.getValue());
+        }
+        assertFalse(iterator.hasNext());
+    }
+}
@@ -2,7 +2,9 @@ package edu.trinity.cpsc215f23.treemap;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -79,6 +81,195 @@ class BinarySearchTreeMapTest {
             assertTrue(Arrays.asList(samples).contains(key), String.format("Verify keySet(), the key '%s' was expected.", key));
         }
     }
+
+    @Test
+    public void verifyForEachWhile() {
+        String[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        List<String> visited = new ArrayList<>();
+        assertFalse(searchables.forEachWhile((key, value) -> visited.add(key) && visited.size() < 3),
+                "The traversal stopped when the action returned false.");
+        assertEquals(Arrays.asList(sorted).subList(0, 3), visited, "Keys are visited in order.");
+
+        visited.clear();
+        searchables.forEach((key, value) -> visited.add(key));
+        assertEquals(Arrays.asList(sorted), visited);
+    }
+
+    @Test
+    public void sortedInsertsStayBalanced() {
+        BinarySearchTreeMap<Integer, Integer> sorted = new BinarySearchTreeMap<>();
+        int n = 100_000;
+        for (int i = 0; i < n; i++) {
+            sorted.put(i, i);
+        }
+        double log2 = Math.log(n + 1) / Math.log(2);
+        assertTrue(sorted.rebuildCount() > 0, "The degenerate chain was rebuilt.");
+        assertTrue(sorted.entryHeight() <= BinarySearchTreeMap.DEFAULT_REBUILD_FACTOR * log2,
+                String.format("Height %d is logarithmic.", sorted.entryHeight()));
+        assertTrue(sorted.heightBound() >= sorted.entryHeight(), "The height bound holds.");
+
+        for (int i = 0; i < n; i += 2) {
+            assertEquals(i, (int) sorted.remove(i));
+        }
+        int expected = 1;
+        for (Integer key : sorted.keySet()) {
+            assertEquals(expected, (int) key, "Keys stay in order after rebuilds.");
+            assertEquals(expected, (int) sorted.get(key));
+            expected += 2;
+        }
+        assertEquals(n / 2, sorted.size());
+    }
+
+    @Test
+    public void mergeBuildsBalancedUnionAndDiff() {
+        BinarySearchTreeMap<Integer, String> headquarters = new BinarySearchTreeMap<>();
+        BinarySearchTreeMap<Integer, String> regional = new BinarySearchTreeMap<>();
+        for (int i = 0; i < 1000; i++) {
+            headquarters.put(i, "hq" + i);
+        }
+        for (int i = 500; i < 1500; i++) {
+            regional.put(i, i % 100 == 0 ? "region" + i : "hq" + i);
+        }
+
+        MergeResult<Integer, String> result = headquarters.merge(regional, ConflictResolver.theirs(),
+                new HashIndexedTreeMap<>());
+        BinarySearchTreeMap<Integer, String> merged = result.merged();
+        assertEquals(1500, merged.size());
+        assertEquals("hq1", merged.get(1));
+        assertEquals("region600", merged.get(600));
+        assertEquals("hq1401", merged.get(1401));
+        assertEquals(11, merged.entryHeight(), "The merged tree is perfectly balanced.");
+        assertEquals(500, result.added().size());
+        assertEquals(1000, (int) result.added().get(0));
+        assertEquals(500, result.removed().size());
+        assertEquals(List.of(500, 600, 700, 800, 900), result.changed());
+        assertEquals(1000, headquarters.size(), "The inputs are not changed.");
+
+        MergeResult<Integer, String> dropped = headquarters.merge(regional, (key, ours, theirs) -> null);
+        assertEquals(1000, dropped.merged().size(), "Conflicting keys resolved to null are left out.");
+        assertNull(dropped.merged().get(700));
+        dropped.merged().put(700, "new");
+        assertEquals("new", dropped.merged().get(700));
+    }
+
+    @Test
+    public void recycledNodesKeepMapCorrect() {
+        BinarySearchTreeMap<Integer, Integer> map = new BinarySearchTreeMap<>();
+        map.setNodeRecycling(1024);
+        java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(new ArrayList<>(expected.keySet()), map.keySet());
+
+        var position = map.root();
+        int generation = map.generation(position);
+        assertTrue(map.isValid(position, generation));
+        while (!map.isEmpty()) {
+            map.remove(map.root().getElement().getKey());
+        }
+        map.put(1, 1);
+        assertFalse(map.isValid(position, generation), "A recycled position is told apart by its generation.");
+        assertThrows(IllegalArgumentException.class, () -> map.left(position),
+                "A removed position stays defunct when its node is reused.");
+        assertThrows(IllegalStateException.class, position::getElement);
+
+        var entry = (BinarySearchTreeMap.BSTEntry<Integer, Integer>) map.entrySet().iterator().next();
+        assertNotNull(entry.position());
+        map.remove(1);
+        map.put(2, 2);
+        assertNull(entry.position(), "A removed entry has no position, even when its node is reused.");
+    }
+
+    @Test
+    public void cursorSeeksAndSteps() {
+        BinarySearchTreeMap<Integer, Integer> map = new BinarySearchTreeMap<>();
+        java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 5000; i++) {
+            int key = random.nextInt(20_000);
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        BinarySearchTreeMap<Integer, Integer>.Cursor cursor = map.cursor();
+        for (Integer key : expected.keySet()) {
+            assertEquals(key, cursor.key());
+            cursor.next();
+        }
+        assertFalse(cursor.hasEntry());
+
+        cursor = map.seek(expected.lastKey());
+        for (Integer key : expected.descendingKeySet()) {
+            assertEquals(key, cursor.key());
+            cursor.prev();
+        }
+        assertFalse(cursor.hasEntry());
+
+        cursor = map.seek(0);
+        for (int i = 0; i < 2000; i++) {
+            int key = random.nextInt(21_000);
+            cursor = map.seekFrom(cursor, key);
+            assertEquals(expected.ceilingKey(key), cursor.key(), "Finger search finds the ceiling of " + key);
+            if (!cursor.hasEntry()) {
+                cursor = map.seek(0);
+            }
+        }
+
+        cursor = map.seek(expected.firstKey());
+        map.remove(expected.firstKey());
+        assertThrows(IllegalStateException.class, cursor::next);
+
+        BinarySearchTreeMap<Integer, String> small = new BinarySearchTreeMap<>();
+        for (int key : new int[]{50, 30, 70, 20, 40, 60, 80}) {
+            small.put(key, "v" + key);
+        }
+        BinarySearchTreeMap<Integer, String>.Cursor at50 = small.seek(50);
+        BinarySearchTreeMap<Integer, String>.Cursor at40 = small.seek(40);
+        small.remove(50);
+        assertThrows(IllegalStateException.class, at50::key, "The cursor of a removed entry fails.");
+        assertEquals(40, (int) at40.key(), "The cursor of the predecessor follows its entry.");
+        assertTrue(at40.next());
+        assertEquals(60, (int) at40.key());
+    }
+
+    @Test
+    public void bloomFilterSkipsSearchesForAbsentKeys() {
+        BinarySearchTreeMap<Integer, Integer> map = new BinarySearchTreeMap<>();
+        map.enableBloomFilter(0.01);
+        java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+        Random random = new Random(9);
+        for (int i = 0; i < 40_000; i++) {
+            int key = random.nextInt(10_000);
+            if (random.nextInt(3) > 0) {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            assertEquals(expected.get(key), map.get(key));
+        }
+
+        int searched = 0;
+        for (int key = 10_000; key < 20_000; key++) {
+            map.lastSearchDepth = -1;
+            assertNull(map.get(key));
+            if (map.lastSearchDepth >= 0) {
+                searched++;
+            }
+        }
+        assertTrue(searched < 500, searched + " of 10000 absent keys searched the tree.");
+        for (Integer key : expected.keySet()) {
+            assertEquals(expected.get(key), map.get(key), "Present keys always pass the filter.");
+        }
+    }
 }
 
 
@@ -0,0 +1,37 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for CountingBloomFilter.
+ */
+class CountingBloomFilterTest {
+
+    @Test
+    public void removedKeysAreForgotten() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("Contact, " + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("Contact, " + i));
+        }
+        int falsePositives = 0;
+        for (int i = 10_000; i < 20_000; i++) {
+            if (filter.mightContain("Contact, " + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, falsePositives + " false positives.");
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.remove("Contact, " + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(filter.mightContain("Contact, " + i), "The filter is empty again.");
+        }
+        assertThrows(IllegalArgumentException.class, () -> new CountingBloomFilter(100, 1.5));
+    }
+}
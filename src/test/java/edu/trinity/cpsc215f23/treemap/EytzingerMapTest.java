@@ -0,0 +1,53 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for EytzingerMap.
+ */
+class EytzingerMapTest {
+
+    @Test
+    public void frozenMapFindsEveryKey() {
+        for (int n : new int[]{0, 1, 2, 7, 8, 1000}) {
+            StringTreeMap<Integer> tree = new StringTreeMap<>();
+            Random random = new Random(n);
+            for (int i = 0; i < n; i++) {
+                tree.put("contact" + random.nextInt(100_000), i);
+            }
+            EytzingerMap<String, Integer> frozen = tree.freeze();
+            assertEquals(tree.size(), frozen.size());
+            for (Entry<String, Integer> entry : tree.entrySet()) {
+                assertEquals(entry.getValue(), frozen.get(entry.getKey()), "Every key is found.");
+            }
+            assertNull(frozen.get("contact"), "An absent key is not found.");
+            assertNull(frozen.get("zzz"));
+
+            List<String> expected = new ArrayList<>();
+            tree.keySet().forEach(expected::add);
+            List<String> actual = new ArrayList<>();
+            frozen.keySet().forEach(actual::add);
+            assertEquals(expected, actual, "Keys iterate in order.");
+        }
+    }
+
+    @Test
+    public void frozenMapRejectsChanges() {
+        BinarySearchTreeMap<Integer, String> tree = new BinarySearchTreeMap<>();
+        tree.put(1, "one");
+        EytzingerMap<Integer, String> frozen = tree.freeze();
+        tree.put(2, "two");
+
+        assertEquals("one", frozen.get(1));
+        assertNull(frozen.get(2), "The snapshot does not see later changes.");
+        assertThrows(UnsupportedOperationException.class, () -> frozen.put(3, "three"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.remove(1));
+    }
+}
@@ -0,0 +1,48 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for FrontCodedTreeMap.
+ */
+class FrontCodedTreeMapTest {
+
+    private static String randomName(Random random) {
+        String[] lastNames = {"Smith", "Smithson", "Smyth", "Muir", "M\u00fcller", "Carson", "Goodall", ""};
+        StringBuilder sb = new StringBuilder(lastNames[random.nextInt(lastNames.length)]).append(", ");
+        int length = random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(4)));
+        }
+        if (random.nextInt(50) == 0) {
+            sb.append("x".repeat(300 + random.nextInt(10)));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void randomOperationsMatchTreeMap() {
+        TreeMapOracle.randomOperationsMatchTreeMap(new FrontCodedTreeMap<>(), 3, 30_000,
+                FrontCodedTreeMapTest::randomName);
+    }
+
+    @Test
+    public void sharedPrefixesAreStoredOnce() {
+        FrontCodedTreeMap<String> map = new FrontCodedTreeMap<>();
+        long rawBytes = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String key = String.format("Smith, Alexander %05d", i);
+            map.put(key, "v");
+            rawBytes += key.length();
+        }
+        assertTrue(map.keyBytes() < rawBytes / 3, "Key storage " + map.keyBytes() + " of " + rawBytes + " bytes.");
+        assertEquals("v", map.get("Smith, Alexander 04321"));
+        assertNull(map.get("Smith, Alexander 4321"));
+        assertNull(map.get("Smith, Alexander 10000"));
+        assertNull(map.get("A"));
+    }
+}
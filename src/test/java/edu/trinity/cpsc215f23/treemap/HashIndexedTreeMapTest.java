@@ -0,0 +1,36 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for HashIndexedTreeMap.
+ */
+class HashIndexedTreeMapTest {
+
+    @Test
+    public void randomOperationsMatchTreeMap() {
+        TreeMapOracle.randomOperationsMatchTreeMap(new HashIndexedTreeMap<>(String::compareTo), 11, 50_000,
+                random -> "k" + random.nextInt(2000));
+    }
+
+    @Test
+    public void indexSurvivesRebuilds() {
+        HashIndexedTreeMap<Integer, Integer> map = new HashIndexedTreeMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, -i);
+        }
+        assertTrue(map.rebuildCount() > 0);
+        for (int i = 0; i < 10_000; i += 3) {
+            assertEquals(-i, (int) map.remove(i), "Removal jumps to the relinked node.");
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 3 == 0 ? null : -i, map.get(i));
+        }
+        map.get(1);
+        assertNotNull(map.actionPos);
+        map.get(3);
+        assertNull(map.actionPos, "A miss leaves no position behind.");
+    }
+}
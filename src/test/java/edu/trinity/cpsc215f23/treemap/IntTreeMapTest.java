@@ -0,0 +1,48 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for IntTreeMap and LongTreeMap.
+ */
+class IntTreeMapTest {
+
+    @Test
+    public void randomOperationsMatchTreeMap() {
+        IntTreeMap<Integer> map = new IntTreeMap<>();
+        TreeMapOracle.randomOperationsMatchTreeMap(map, 5, 50_000, random -> random.nextInt(3000) - 1500);
+        assertThrows(IllegalArgumentException.class, () -> map.get((Integer) null));
+    }
+
+    @Test
+    public void longKeysNearTheExtremesMatchTreeMap() {
+        LongTreeMap<Integer> map = new LongTreeMap<>();
+        TreeMapOracle.randomOperationsMatchTreeMap(map, 7, 50_000, random -> switch (random.nextInt(3)) {
+            case 0 -> Long.MIN_VALUE + random.nextInt(1000);
+            case 1 -> Long.MAX_VALUE - random.nextInt(1000);
+            default -> (long) random.nextInt(2000) - 1000;
+        });
+        map.put(Long.MIN_VALUE, Integer.valueOf(1));
+        map.put(Long.MAX_VALUE, Integer.valueOf(2));
+        assertEquals(Long.MIN_VALUE, (long) map.entrySet().iterator().next().getKey());
+        assertEquals(2, (int) map.get(Long.MAX_VALUE));
+        assertEquals(2, (int) map.remove(Long.MAX_VALUE));
+        assertFalse(map.containsKey(Long.MAX_VALUE));
+        assertTrue(map.containsKey(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void ascendingIdsStayBalanced() {
+        LongTreeMap<Long> map = new LongTreeMap<>();
+        for (long id = 1_000_000_000_000L; id < 1_000_000_100_000L; id++) {
+            map.put(id, Long.valueOf(-id));
+        }
+        assertTrue(map.rebuildCount() > 0, "The ascending chain was rebuilt.");
+        assertEquals(100_000, map.size());
+        assertEquals(-1_000_000_054_321L, (long) map.get(1_000_000_054_321L));
+        assertNull(map.get(42L));
+        assertTrue(map.containsKey(1_000_000_099_999L));
+    }
+}
@@ -0,0 +1,199 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for PersistentTreeMap.
+ */
+class PersistentTreeMapTest {
+
+    private final String[] samples = {"gamma", "phi", "beta", "alpha", "delta", "lambda", "epsilon", "zeta"};
+
+    private PersistentTreeMap<String, Integer> populated() {
+        PersistentTreeMap<String, Integer> map = new PersistentTreeMap<>();
+        for (int i = 0; i < samples.length; i++) {
+            map.put(samples[i], i);
+        }
+        return map;
+    }
+
+    @Test
+    public void verifyGetPutRemove() {
+        PersistentTreeMap<String, Integer> map = populated();
+        assertEquals(samples.length, map.size());
+        for (int i = 0; i < samples.length; i++) {
+            assertEquals(i, (int) map.get(samples[i]), String.format("The key '%s' has the value '%d'.", samples[i], i));
+        }
+        assertEquals(0, (int) map.put("gamma", 42), "Replacing returns the previous value.");
+        assertEquals(42, (int) map.get("gamma"));
+        assertEquals(42, (int) map.remove("gamma"));
+        assertNull(map.remove("gamma"), "Removing a missing key returns null.");
+        assertEquals(samples.length - 1, map.size());
+    }
+
+    @Test
+    public void snapshotIsUnaffectedByLaterChanges() {
+        PersistentTreeMap<String, Integer> map = populated();
+        PersistentTreeMap<String, Integer> snapshot = map.snapshot();
+
+        map.put("omega", 99);
+        map.remove("alpha");
+        map.put("beta", -1);
+
+        assertEquals(samples.length, snapshot.size());
+        assertNull(snapshot.get("omega"), "Snapshot does not see later insert.");
+        assertEquals(3, (int) snapshot.get("alpha"), "Snapshot still sees removed key.");
+        assertEquals(2, (int) snapshot.get("beta"), "Snapshot still sees old value.");
+    }
+
+    @Test
+    public void entriesAreInKeyOrder() {
+        PersistentTreeMap<Integer, Integer> map = new PersistentTreeMap<>();
+        Random random = new Random(27);
+        for (int i = 0; i < 500; i++) {
+            int key = random.nextInt(200);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+            } else {
+                map.remove(key);
+            }
+        }
+        Integer previous = null;
+        int count = 0;
+        for (Entry<Integer, Integer> entry : map.entrySet()) {
+            assertTrue(previous == null || previous < entry.getKey(), "Keys are strictly increasing.");
+            previous = entry.getKey();
+            count++;
+        }
+        assertEquals(map.size(), count);
+    }
+
+    private static int height(PersistentTreeMap.Node<?, ?> node) {
+        return node == null ? 0 : 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    @Test
+    public void ascendingKeysStayBalanced() {
+        PersistentTreeMap<Integer, Integer> map = new PersistentTreeMap<>();
+        int count = 200_000;
+        for (int i = 0; i < count; i++) {
+            map.put(i, -i);
+        }
+        assertEquals(count, map.size());
+        assertTrue(height(map.head.root) <= 2 * 18, "Height " + height(map.head.root) + " is O(log n).");
+        int expected = 0;
+        for (Entry<Integer, Integer> entry : map.entrySet()) {
+            assertEquals(expected++, (int) entry.getKey());
+        }
+        for (int i = 0; i < count; i += 2) {
+            assertEquals(-i, (int) map.remove(i));
+        }
+        assertEquals(count / 2, map.size());
+        assertTrue(height(map.head.root) <= 2 * 17, "Height " + height(map.head.root) + " after removals.");
+        assertNull(map.get(1000));
+        assertEquals(-1001, (int) map.get(1001));
+    }
+
+    @Test
+    public void randomOperationsMatchTreeMap() {
+        TreeMapOracle.randomOperationsMatchTreeMap(new PersistentTreeMap<>(), 27, 50_000,
+                random -> random.nextInt(3000));
+    }
+
+    @Test
+    public void transactionIsInvisibleUntilCommit() {
+        PersistentTreeMap<String, Integer> map = populated();
+        PersistentTreeMap<String, Integer>.Transaction rename = map.begin();
+
+        Integer value = rename.remove("alpha");
+        rename.put("aleph", value);
+        assertNull(map.get("aleph"), "Uncommitted insert is not visible.");
+        assertEquals(3, (int) map.get("alpha"), "Uncommitted remove is not visible.");
+        assertEquals(3, (int) rename.get("aleph"), "Transaction sees its own changes.");
+
+        rename.commit();
+        assertNull(map.get("alpha"));
+        assertEquals(3, (int) map.get("aleph"));
+        assertEquals(samples.length, map.size());
+        assertThrows(IllegalStateException.class, rename::commit, "A finished transaction cannot be committed again.");
+    }
+
+    @Test
+    public void transactionMergesWithUnrelatedCommit() {
+        PersistentTreeMap<String, Integer> map = populated();
+        PersistentTreeMap<String, Integer>.Transaction transaction = map.begin();
+        transaction.put("omega", 24);
+
+        map.put("psi", 23);
+        transaction.commit();
+
+        assertEquals(23, (int) map.get("psi"));
+        assertEquals(24, (int) map.get("omega"));
+        assertEquals(samples.length + 2, map.size());
+    }
+
+    @Test
+    public void conflictingTransactionFails() {
+        PersistentTreeMap<String, Integer> map = populated();
+        PersistentTreeMap<String, Integer>.Transaction transaction = map.begin();
+        transaction.put("beta", 100);
+        transaction.put("omega", 24);
+
+        map.put("beta", 200);
+        assertThrows(IllegalStateException.class, transaction::commit, "Concurrent change of 'beta' is detected.");
+        assertEquals(200, (int) map.get("beta"));
+        assertNull(map.get("omega"), "Failed transaction leaves the map unchanged.");
+    }
+
+    @Test
+    public void transactionsOnLargeSortedKeys() {
+        PersistentTreeMap<Integer, Integer> map = new PersistentTreeMap<>();
+        int count = 100_000;
+        PersistentTreeMap<Integer, Integer>.Transaction load = map.begin();
+        for (int i = 0; i < count; i++) {
+            load.put(i, i);
+        }
+        load.commit();
+        assertEquals(count, map.size());
+
+        PersistentTreeMap<Integer, Integer> snapshot = map.snapshot();
+        PersistentTreeMap<Integer, Integer>.Transaction shift = map.begin();
+        for (int i = 0; i < count; i += 10) {
+            shift.put(count + i, shift.remove(i));
+        }
+        for (int i = count; i < count + 5000; i++) {
+            map.put(2 * count + i, i);
+        }
+        shift.commit();
+
+        assertEquals(count + 5000, map.size());
+        assertNull(map.get(0));
+        assertEquals(90, (int) map.get(count + 90), "The transaction is rebased onto the concurrent inserts.");
+        assertEquals(count, snapshot.size(), "The snapshot keeps the version it was taken from.");
+        assertEquals(0, (int) snapshot.get(0));
+        assertTrue(height(map.head.root) <= 2 * 18, "Height " + height(map.head.root) + " after the rebase.");
+        int entries = 0;
+        for (Entry<Integer, Integer> ignored : snapshot.entrySet()) {
+            entries++;
+        }
+        assertEquals(count, entries);
+    }
+
+    @Test
+    public void changeAndRevertIsAConflict() {
+        PersistentTreeMap<String, Integer> map = populated();
+        Integer beta = map.get("beta");
+        PersistentTreeMap<String, Integer>.Transaction transaction = map.begin();
+        transaction.put("beta", 100);
+
+        map.put("beta", 200);
+        map.put("beta", beta);
+        assertThrows(IllegalStateException.class, transaction::commit, "A value set and reverted is detected.");
+        assertEquals(beta, map.get("beta"));
+    }
+}
@@ -0,0 +1,118 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares lookups in a splay tree map with a plain and a balanced binary search tree map under a Zipfian
+ * workload, where a few keys take most of the lookups. The hot keys are spread at random over the insertion order,
+ * so they are not simply the first or last keys. This is not a unit test: run its main method with the test classes
+ * on the class path, e.g. {@code java -cp build/classes/java/main:build/classes/java/test
+ * edu.trinity.cpsc215f23.treemap.SplayTreeMapBenchmark 1000000 5000000 1.1}. Each map is measured over several
+ * rounds after a warm-up round, and the best round is reported.
+ */
+final class SplayTreeMapBenchmark {
+
+    private static final int ROUNDS = 3;
+
+    private SplayTreeMapBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The number of keys (1000000), the number of lookups (5000000) and the Zipf exponent (1.1)
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        double exponent = args.length > 2 ? Double.parseDouble(args[2]) : 1.1;
+
+        Random random = new Random(3);
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = String.format("Name%09d, First%d", random.nextInt(1_000_000_000), i);
+        }
+        int[] workload = zipf(size, lookups, exponent, random);
+
+        measure("plain", () -> {
+            BinarySearchTreeMap<String, Integer> map = new BinarySearchTreeMap<>(String::compareTo);
+            map.setRebuildFactor(Double.POSITIVE_INFINITY);
+            return map;
+        }, keys, workload);
+        measure("balanced", () -> new BinarySearchTreeMap<>(String::compareTo), keys, workload);
+        measure("splay", () -> new SplayTreeMap<>(String::compareTo), keys, workload);
+    }
+
+    /**
+     * Draws key indices from a Zipf distribution whose ranks are assigned to the keys in random order.
+     *
+     * @param size     The number of keys
+     * @param count    The number of indices to draw
+     * @param exponent The exponent of the distribution
+     * @param random   The source of randomness
+     * @return The indices
+     */
+    private static int[] zipf(int size, int count, double exponent, Random random) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        int[] keyOfRank = new int[size];
+        for (int i = 0; i < size; i++) {
+            keyOfRank[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = keyOfRank[i];
+            keyOfRank[i] = keyOfRank[j];
+            keyOfRank[j] = swap;
+        }
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            indices[i] = keyOfRank[rank < 0 ? -rank - 1 : rank];
+        }
+        return indices;
+    }
+
+    /**
+     * Fills a new map with the keys in order, then measures the lookups of the workload and prints the best
+     * round with the mean search depth of the last round.
+     *
+     * @param name     The name of the map
+     * @param factory  Creates an empty map
+     * @param keys     The keys, in insertion order
+     * @param workload The indices of the keys to look up, in lookup order
+     */
+    private static void measure(String name, Supplier<BinarySearchTreeMap<String, Integer>> factory, String[] keys,
+                                int[] workload) {
+        BinarySearchTreeMap<String, Integer> map = factory.get();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        if (name.equals("balanced")) {
+            map.rebuild();
+        }
+        long best = Long.MAX_VALUE;
+        long checksum = 0;
+        long depth = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            depth = 0;
+            long start = System.nanoTime();
+            for (int index : workload) {
+                checksum += map.get(keys[index]);
+                depth += map.lastSearchDepth;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        System.out.printf("%-8s %,10d keys, %,10d lookups: %,9.1f ms, mean depth %5.2f (checksum %d)%n", name,
+                keys.length, workload.length, best / 1e6, (double) depth / workload.length, checksum);
+    }
+}
@@ -0,0 +1,57 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for SplayTreeMap.
+ */
+class SplayTreeMapTest {
+
+    @Test
+    public void accessedEntryMovesToRoot() {
+        SplayTreeMap<Integer, String> map = new SplayTreeMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "v" + i);
+        }
+        assertEquals("v37", map.get(37));
+        assertEquals(37, (int) map.root().getElement().getKey(), "The entry found is at the root.");
+        map.put(64, "w64");
+        assertEquals(64, (int) map.root().getElement().getKey(), "The entry updated is at the root.");
+        assertNull(map.get(1000));
+        assertEquals(99, (int) map.root().getElement().getKey(), "A miss splays the last entry visited.");
+    }
+
+    @Test
+    public void randomOperationsMatchTreeMap() {
+        TreeMapOracle.randomOperationsMatchTreeMap(new SplayTreeMap<>(), 7, 20_000, random -> random.nextInt(500));
+    }
+
+    @Test
+    public void workingSetStaysNearTheRoot() {
+        SplayTreeMap<Integer, Integer> map = new SplayTreeMap<>();
+        for (int i = 0; i < 1 << 14; i++) {
+            map.put(i, i);
+        }
+        long depths = 0;
+        for (int round = 0; round < 1000; round++) {
+            for (int key = 5000; key < 5000 + 8 * 997; key += 997) {
+                assertEquals(key, (int) map.get(key));
+                if (round > 0) {
+                    depths += map.lastSearchDepth;
+                }
+            }
+        }
+        double meanDepth = depths / (999.0 * 8);
+        assertTrue(meanDepth < 5, "Repeated lookups of 8 keys take O(log 8) amortized, not O(log n): " + meanDepth);
+
+        depths = 0;
+        for (int key = 0; key < 1 << 14; key++) {
+            map.get(key);
+            depths += map.lastSearchDepth;
+        }
+        meanDepth = depths / (double) (1 << 14);
+        assertTrue(meanDepth < 6, "A sequential scan takes O(1) amortized per lookup: " + meanDepth);
+    }
+}
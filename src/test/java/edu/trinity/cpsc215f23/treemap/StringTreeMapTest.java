@@ -0,0 +1,59 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for StringTreeMap.
+ */
+class StringTreeMapTest {
+
+    @Test
+    public void prefixOrderAgreesWithCompareTo() {
+        String[] keys = {"", "a", "ab", "ab\u0000", "abc", "abcd", "abcde", "abd", "b", "Muir, John", "Muir, Jon", "\uffff"};
+        for (String a : keys) {
+            for (String b : keys) {
+                int prefixComp = Long.compareUnsigned(StringTreeMap.prefix(a), StringTreeMap.prefix(b));
+                if (prefixComp != 0) {
+                    assertEquals(Integer.signum(a.compareTo(b)), Integer.signum(prefixComp),
+                            String.format("Prefix order of '%s' and '%s' agrees with compareTo.", a, b));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void verifyGetPutRemoveAgainstBinarySearchTreeMap() {
+        StringTreeMap<Integer> specialized = new StringTreeMap<>();
+        BinarySearchTreeMap<String, Integer> plain = new BinarySearchTreeMap<>();
+        Random random = new Random(215);
+
+        for (int i = 0; i < 2000; i++) {
+            String key = "Smith, " + (char) ('A' + random.nextInt(26)) + random.nextInt(100);
+            if (random.nextInt(4) == 0) {
+                assertEquals(plain.remove(key), specialized.remove(key), String.format("Remove of '%s' agrees.", key));
+            } else {
+                assertEquals(plain.put(key, i), specialized.put(key, i), String.format("Put of '%s' agrees.", key));
+            }
+        }
+
+        assertEquals(plain.size(), specialized.size());
+        List<String> expected = new ArrayList<>();
+        for (Entry<String, Integer> entry : plain.entrySet()) {
+            expected.add(entry.getKey());
+            assertEquals(entry.getValue(), specialized.get(entry.getKey()));
+        }
+        List<String> actual = new ArrayList<>();
+        for (String key : specialized.keySet()) {
+            actual.add(key);
+        }
+        assertEquals(expected, actual, "Keys are listed in the same order.");
+        assertNull(specialized.get("Smith"), "Missing key is not found.");
+    }
+}
@@ -0,0 +1,52 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests for TreeMapMetrics and LatencyHistogram.
+ */
+class TreeMapMetricsTest {
+
+    @Test
+    public void operationsAreCounted() {
+        BinarySearchTreeMap<Integer, String> map = new BinarySearchTreeMap<>();
+        map.setRebuildFactor(Double.POSITIVE_INFINITY);
+        assertNull(map.metrics(), "Metrics are disabled by default.");
+        map.put(0, "untracked");
+
+        TreeMapMetrics metrics = map.enableMetrics();
+        for (int i = 1; i <= 10; i++) {
+            map.put(i, "v" + i);
+        }
+        map.get(10);
+        map.remove(3);
+        map.remove(42);
+
+        assertEquals(10, metrics.getPutCount());
+        assertEquals(1, metrics.getGetCount());
+        assertEquals(2, metrics.getRemoveCount());
+        assertEquals(11, metrics.getMaxSearchDepth(), "Searching 10 in an ascending chain visits every entry.");
+        assertEquals(11, metrics.getHeight(), "The height bound is kept after a removal.");
+        assertTrue(metrics.getComparisonCount() > 0);
+        assertTrue(metrics.toString().contains("put: 10 calls"), metrics.toString());
+
+        metrics.reset();
+        assertEquals(0, metrics.getPutCount());
+    }
+
+    @Test
+    public void histogramPercentilesArePrecise() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100_000, histogram.count());
+        long median = histogram.percentile(50);
+        assertTrue(Math.abs(median - 50_000) <= 50_000 * 0.04, String.format("Median %d is within 4%%.", median));
+        long max = histogram.max();
+        assertTrue(max >= 100_000 && max <= 104_000, String.format("Max %d is within 4%%.", max));
+        assertEquals(7, histogram.percentile(0.007), "Small values are exact.");
+    }
+}
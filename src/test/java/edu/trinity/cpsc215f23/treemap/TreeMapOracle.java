@@ -0,0 +1,54 @@
+package edu.trinity.cpsc215f23.treemap;
+
+import edu.trinity.cpsc215f23.map.Entry;
+import edu.trinity.cpsc215f23.map.Map;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks a map against java.util.TreeMap under a seeded random mix of operations.
+ */
+final class TreeMapOracle {
+
+    private TreeMapOracle() {
+    }
+
+    /**
+     * Applies random puts, removes and gets of generated keys to both maps, comparing every result, and then
+     * compares the size, the entries in key order and a lookup of every key.
+     *
+     * @param map        The map under test, empty
+     * @param seed       The seed of the random operations
+     * @param operations The number of operations
+     * @param keys       Generates a key; the keys must have the same natural order as the map's
+     */
+    static <K> void randomOperationsMatchTreeMap(Map<K, Integer> map, long seed, int operations,
+                                                 Function<Random, K> keys) {
+        TreeMap<K, Integer> expected = new TreeMap<>();
+        Random random = new Random(seed);
+        for (int i = 0; i < operations; i++) {
+            K key = keys.apply(random);
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(expected.put(key, i), map.put(key, i));
+                case 1 -> assertEquals(expected.remove(key), map.remove(key));
+                default -> assertEquals(expected.get(key), map.get(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        Iterator<java.util.Map.Entry<K, Integer>> expectedEntries = expected.entrySet().iterator();
+        for (Entry<K, Integer> entry : map.entrySet()) {
+            java.util.Map.Entry<K, Integer> next = expectedEntries.next();
+            assertEquals(next.getKey(), entry.getKey(), "Entries are in key order.");
+            assertEquals(next.getValue(), entry.getValue());
+        }
+        assertFalse(expectedEntries.hasNext(), "Every entry is iterated.");
+        for (K key : expected.keySet()) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+}